@@ -2,6 +2,7 @@ package com.booking.bookingService.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -23,9 +24,21 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .addFilterBefore(gatewayAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
+                // Non-public endpoints under /trips: partner export, seat holds and bookings
+                .requestMatchers("/trips/export").authenticated()
+                .requestMatchers("/trips/*/holds", "/trips/*/holds/**").authenticated()
+                .requestMatchers("/trips/*/bookings", "/trips/*/bookings/**").authenticated()
+                // Trip management: operator staff (own trips only) and admins
+                .requestMatchers(HttpMethod.POST, "/trips/cancel", "/trips/*/cancel").hasAnyRole("OPERATOR", "ADMIN")
+                .requestMatchers(HttpMethod.POST, "/trips/schedules").hasAnyRole("OPERATOR", "ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/trips/*/bus").hasAnyRole("OPERATOR", "ADMIN")
+                // Internal cache metrics
+                .requestMatchers("/trips/search/cache/stats").hasRole("ADMIN")
                 // Allow public access to everything under /trips
                 // Note: Gateway sends "/trips/..." not "/booking/trips/..."
                 .requestMatchers("/trips/**").permitAll()
+                // City autocomplete feeds the public search form
+                .requestMatchers(HttpMethod.GET, "/routes/places/suggest").permitAll()
                 // FIX: Allow Spring Boot to render error responses (404, 500, etc.)
                 .requestMatchers("/error").permitAll()
                 .anyRequest().authenticated()
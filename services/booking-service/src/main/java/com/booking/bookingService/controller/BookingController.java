@@ -0,0 +1,37 @@
+package com.booking.bookingService.controller;
+
+import com.booking.bookingService.dto.BookingRequest;
+import com.booking.bookingService.dto.BookingResult;
+import com.booking.bookingService.service.BookingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/trips/{tripId}/bookings")
+@RequiredArgsConstructor
+public class BookingController {
+
+    private final BookingService bookingService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> confirmBooking(
+            @PathVariable UUID tripId,
+            @Valid @RequestBody BookingRequest request,
+            Authentication authentication
+    ) {
+        BookingResult result = bookingService.confirm(tripId, request, authentication.getName());
+        // 409 carries the conflicting seats so the client can refresh just those
+        HttpStatus status = result.isConfirmed() ? HttpStatus.CREATED : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(Map.of(
+                "success", result.isConfirmed(),
+                "data", result
+        ), status);
+    }
+}
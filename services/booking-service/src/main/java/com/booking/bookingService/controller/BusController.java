@@ -7,9 +7,11 @@ import com.booking.bookingService.model.Bus;
 import com.booking.bookingService.service.BusService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.List;
@@ -29,17 +31,20 @@ public class BusController {
     public ResponseEntity<List<BusResponse>> getAllBuses() {
         List<Bus> buses = busService.getAllBuses();
         
-        List<BusResponse> response = buses.stream().map(bus -> 
-            BusResponse.builder()
-                .id(bus.getId())
-                .operatorId(bus.getOperator().getId())
-                .operatorName(bus.getOperator().getName())
-                .plateNumber(bus.getPlateNumber())
-                .model(bus.getModel())
-                .type(bus.getType())
-                .seatCapacity(bus.getSeatCapacity())
-                .build()
-        ).collect(Collectors.toList());
+        List<BusResponse> response = buses.stream().map(this::toResponse).collect(Collectors.toList());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/free")
+    public ResponseEntity<List<BusResponse>> getFreeBuses(
+            @RequestParam UUID operatorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        List<BusResponse> response = busService.findFreeBuses(operatorId, from, to).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
 
         return ResponseEntity.ok(response);
     }
@@ -69,4 +74,16 @@ public class BusController {
     ) {
         return ResponseEntity.ok(busService.saveCustomSeatMap(id, seatDefinitions));
     }
-}
\ No newline at end of file
+
+    private BusResponse toResponse(Bus bus) {
+        return BusResponse.builder()
+                .id(bus.getId())
+                .operatorId(bus.getOperator().getId())
+                .operatorName(bus.getOperator().getName())
+                .plateNumber(bus.getPlateNumber())
+                .model(bus.getModel())
+                .type(bus.getType())
+                .seatCapacity(bus.getSeatCapacity())
+                .build();
+    }
+}
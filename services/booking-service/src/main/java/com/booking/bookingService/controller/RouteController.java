@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -25,6 +26,14 @@ public class RouteController {
         return ResponseEntity.ok(routeService.getAllRoutes());
     }
 
+    @GetMapping("/places/suggest")
+    public ResponseEntity<List<String>> suggestPlaces(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(routeService.suggestPlaces(query, Math.min(limit, 50)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getRoute(@PathVariable UUID id) {
         return ResponseEntity.ok(routeService.getRoute(id));
@@ -0,0 +1,59 @@
+package com.booking.bookingService.controller;
+
+import com.booking.bookingService.dto.SeatAutoHoldRequest;
+import com.booking.bookingService.dto.SeatHoldRequest;
+import com.booking.bookingService.dto.SeatHoldResponse;
+import com.booking.bookingService.service.SeatHoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/trips/{tripId}/holds")
+@RequiredArgsConstructor
+public class SeatHoldController {
+
+    private final SeatHoldService seatHoldService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> holdSeats(
+            @PathVariable UUID tripId,
+            @Valid @RequestBody SeatHoldRequest request,
+            Authentication authentication
+    ) {
+        SeatHoldResponse hold = seatHoldService.hold(tripId, request, authentication.getName());
+        return new ResponseEntity<>(Map.of(
+                "success", true,
+                "data", hold
+        ), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/auto")
+    public ResponseEntity<Map<String, Object>> holdBestSeats(
+            @PathVariable UUID tripId,
+            @Valid @RequestBody SeatAutoHoldRequest request,
+            Authentication authentication
+    ) {
+        SeatHoldResponse hold = seatHoldService.holdBestAvailable(tripId, request.getPassengers(), authentication.getName());
+        return new ResponseEntity<>(Map.of(
+                "success", true,
+                "data", hold
+        ), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<?> releaseHold(
+            @PathVariable UUID tripId,
+            @PathVariable UUID holdId,
+            Authentication authentication
+    ) {
+        seatHoldService.release(tripId, holdId, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.booking.bookingService.controller;
+
+import com.booking.bookingService.dto.SeatDefinition;
+import com.booking.bookingService.dto.SeatLayoutRequest;
+import com.booking.bookingService.service.SeatLayoutService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/layouts")
+@RequiredArgsConstructor
+public class SeatLayoutController {
+    private final SeatLayoutService seatLayoutService;
+
+    @PostMapping
+    public ResponseEntity<?> createLayout(@Valid @RequestBody SeatLayoutRequest request) {
+        return new ResponseEntity<>(seatLayoutService.createLayout(request), HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getAllLayouts() {
+        return ResponseEntity.ok(seatLayoutService.getAllLayouts());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getLayout(@PathVariable UUID id) {
+        return ResponseEntity.ok(seatLayoutService.getLayout(id));
+    }
+
+    // Changes the seats of every bus using the template
+    @PutMapping("/{id}/seats")
+    public ResponseEntity<?> saveSeatMap(@PathVariable UUID id, @RequestBody List<SeatDefinition> seatDefinitions) {
+        return ResponseEntity.ok(seatLayoutService.applySeatMap(id, seatDefinitions));
+    }
+}
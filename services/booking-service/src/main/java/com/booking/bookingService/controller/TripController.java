@@ -1,18 +1,34 @@
 package com.booking.bookingService.controller;
 
+import com.booking.bookingService.dto.ConnectionSearchRequest;
 import com.booking.bookingService.dto.SeatMapResponse;
+import com.booking.bookingService.dto.TripBusChangeRequest;
+import com.booking.bookingService.dto.TripCancelRequest;
 import com.booking.bookingService.dto.TripRequest;
+import com.booking.bookingService.dto.TripScheduleRequest;
 import com.booking.bookingService.dto.TripSearchResponse;
 import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchResult;
+import com.booking.bookingService.seat.SeatStreamHub;
+import com.booking.bookingService.service.FareCalendarService;
+import com.booking.bookingService.service.OperatorService;
+import com.booking.bookingService.service.TripExportService;
+import com.booking.bookingService.service.TripScheduleService;
 import com.booking.bookingService.service.TripService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -23,6 +39,11 @@ import java.util.UUID;
 public class TripController {
 
     private final TripService tripService;
+    private final OperatorService operatorService;
+    private final FareCalendarService fareCalendarService;
+    private final TripExportService tripExportService;
+    private final TripScheduleService tripScheduleService;
+    private final SeatStreamHub seatStreamHub;
 
     @PostMapping
     public ResponseEntity<?> createTrip(@Valid @RequestBody TripRequest request) {
@@ -30,11 +51,55 @@ public class TripController {
         return new ResponseEntity<>(tripService.createTrip(request), HttpStatus.CREATED);
     }
 
+    // Recurring timetable; occurrences that clash with the bus's other trips are reported, not fatal
+    @PostMapping("/schedules")
+    public ResponseEntity<Map<String, Object>> createSchedule(
+            @Valid @RequestBody TripScheduleRequest request,
+            Authentication authentication
+    ) {
+        return new ResponseEntity<>(Map.of(
+            "success", true,
+            "data", tripScheduleService.createSchedule(request, operatorScope(authentication))
+        ), HttpStatus.CREATED);
+    }
+
     @PutMapping("/{tripId}")
     public ResponseEntity<?> updateTrip(@PathVariable UUID tripId, @Valid @RequestBody TripRequest request) {
         return ResponseEntity.ok(tripService.updateTrip(tripId, request));
     }
 
+    // Moves held and booked seats onto the new bus; the report lists passengers left without a seat
+    @PutMapping("/{tripId}/bus")
+    public ResponseEntity<Map<String, Object>> changeBus(
+            @PathVariable UUID tripId,
+            @Valid @RequestBody TripBusChangeRequest request,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", tripService.changeBus(tripId, request.getBusId(), operatorScope(authentication))
+        ));
+    }
+
+    @PostMapping("/{tripId}/cancel")
+    public ResponseEntity<?> cancelTrip(@PathVariable UUID tripId, Authentication authentication) {
+        tripService.cancelTrip(tripId, operatorScope(authentication));
+        return ResponseEntity.noContent().build();
+    }
+
+    // Every scheduled trip of a bus and/or departure date range, in one request; operator staff
+    // only reach their own operator's trips
+    @PostMapping("/cancel")
+    public ResponseEntity<Map<String, Object>> cancelTrips(
+            @RequestBody TripCancelRequest request,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", tripService.cancelTrips(request, operatorScope(authentication))
+        ));
+    }
+
     @DeleteMapping("/{tripId}")
     public ResponseEntity<?> deleteTrip(@PathVariable UUID tripId) {
         tripService.deleteTrip(tripId);
@@ -45,23 +110,78 @@ public class TripController {
     public ResponseEntity<Map<String, Object>> searchTrips(
         @ModelAttribute TripSearchRequest request
     ) {
-        Page<TripSearchResponse> result = tripService.searchTrips(request);
+        TripSearchResult result = tripService.searchTrips(request);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("data", result.getContent());
+        response.put("data", result.getTrips());
         
         Map<String, Object> pagination = new HashMap<>();
         pagination.put("page", request.getPage());
         pagination.put("limit", request.getLimit());
-        pagination.put("total", result.getTotalElements());
-        pagination.put("totalPages", result.getTotalPages());
+        pagination.put("hasNext", result.isHasNext());
+        if (request.getCursor() != null) {
+            pagination.put("nextCursor", result.getNextCursor());
+        }
+        if (result.getTotal() != null) {
+            pagination.put("total", result.getTotal());
+            pagination.put("totalPages", (result.getTotal() + request.getLimit() - 1) / request.getLimit());
+        }
         
         response.put("pagination", pagination);
+        if (result.getFacets() != null) {
+            response.put("facets", result.getFacets());
+        }
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search/connections")
+    public ResponseEntity<Map<String, Object>> searchConnections(
+        @ModelAttribute ConnectionSearchRequest request
+    ) {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", tripService.searchConnections(request)
+        ));
+    }
+
+    // Partner inventory feed: one TripSearchResponse per line, streamed straight from a DB cursor
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTrips(
+            @RequestParam(required = false) UUID operatorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        tripExportService.validate(from, to);
+        StreamingResponseBody body = out -> tripExportService.export(operatorId, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/fare-calendar")
+    public ResponseEntity<Map<String, Object>> getFareCalendar(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "30") int days
+    ) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", fareCalendarService.getCalendar(origin, destination, start, days)
+        ));
+    }
+
+    @GetMapping("/search/cache/stats")
+    public ResponseEntity<Map<String, Object>> getSearchCacheStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", tripService.getSearchCacheStats()
+        ));
+    }
+
     @GetMapping("/{tripId}")
     public ResponseEntity<Map<String, Object>> getTripDetail(@PathVariable UUID tripId) {
         TripSearchResponse trip = tripService.getTripById(tripId);
@@ -72,13 +192,43 @@ public class TripController {
         ));
     }
 
-    @GetMapping("/{tripId}/seats")
-    public ResponseEntity<Map<String, Object>> getSeatMap(@PathVariable UUID tripId) {
-        SeatMapResponse seatMap = tripService.getSeatMap(tripId);
+    // Live seat map: one "snapshot" event, then a "delta" event per seat change
+    @GetMapping(value = "/{tripId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(@PathVariable UUID tripId) {
+        // Fails with 404 before the stream is opened if the trip does not exist
+        tripService.getSeatMapETag(tripId);
+        return seatStreamHub.subscribe(tripId, () -> tripService.getSeatMap(tripId));
+    }
 
+    @GetMapping("/seats/stream/stats")
+    public ResponseEntity<Map<String, Object>> getSeatStreamStats() {
         return ResponseEntity.ok(Map.of(
-                "success", true,
-                "data", seatMap
+            "success", true,
+            "data", seatStreamHub.stats()
         ));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{tripId}/seats")
+    public ResponseEntity<Map<String, Object>> getSeatMap(@PathVariable UUID tripId, WebRequest webRequest) {
+        // Pollers get a 304 straight from memory while nothing on the seat map has changed
+        String eTag = tripService.getSeatMapETag(tripId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        SeatMapResponse seatMap = tripService.getSeatMap(tripId);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(Map.of(
+                        "success", true,
+                        "data", seatMap
+                ));
+    }
+
+    private UUID operatorScope(Authentication authentication) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return operatorService.scopeFor(authentication.getName(), admin);
+    }
+}
@@ -0,0 +1,16 @@
+package com.booking.bookingService.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BookingRequest {
+    @NotEmpty
+    private List<UUID> seatIds;
+
+    // Optional: seats LOCKED under this hold (by the same buyer) can be booked too
+    private UUID holdId;
+}
@@ -0,0 +1,18 @@
+package com.booking.bookingService.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BookingResult {
+    private UUID bookingId;     // null when nothing was booked
+    private UUID tripId;
+    private boolean confirmed;
+    private List<UUID> seatIds;
+    private List<UUID> conflicts; // requested seats that were taken or being changed by someone else
+    private Integer remainingSeats;
+}
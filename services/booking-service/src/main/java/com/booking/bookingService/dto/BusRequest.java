@@ -1,6 +1,5 @@
 package com.booking.bookingService.dto;
 
-import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -20,6 +19,5 @@ public class BusRequest {
     @NotBlank(message = "Type is required (Standard, Sleeper, Limousine)")
     private String type;
 
-    @Min(value = 1, message = "Capacity must be at least 1")
-    private int seatCapacity;
+    private UUID layoutId; // Optional seat layout template; the capacity is its seat count
 }
\ No newline at end of file
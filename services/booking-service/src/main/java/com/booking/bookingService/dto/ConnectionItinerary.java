@@ -0,0 +1,19 @@
+package com.booking.bookingService.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ConnectionItinerary {
+    private List<TripSearchResponse> legs;
+    private int transfers;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private long durationMinutes;
+    private BigDecimal totalPrice;
+}
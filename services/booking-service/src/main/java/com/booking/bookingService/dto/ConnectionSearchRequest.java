@@ -0,0 +1,37 @@
+package com.booking.bookingService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectionSearchRequest {
+    // Required fields
+    private String origin;
+    private String destination;
+    private LocalDate date;
+
+    @Builder.Default
+    private Integer passengers = 1;
+
+    // 0 = direct trips only
+    @Builder.Default
+    private Integer maxTransfers = 1;
+
+    // Time needed to change buses at the transfer point
+    @Builder.Default
+    private Integer minConnectionMinutes = 30;
+
+    // Longest wait accepted at a transfer point
+    @Builder.Default
+    private Integer maxConnectionMinutes = 720;
+
+    @Builder.Default
+    private Integer limit = 10;
+}
@@ -0,0 +1,19 @@
+package com.booking.bookingService.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One day of the fare calendar for an origin/destination pair, across all operators.
+ */
+public record FareCalendarDay(
+        LocalDate date,
+        BigDecimal minPrice,       // null when nothing is bookable that day
+        Long availableSeats,
+        Long tripCount
+) {
+
+    public static FareCalendarDay empty(LocalDate date) {
+        return new FareCalendarDay(date, null, 0L, 0L);
+    }
+}
@@ -0,0 +1,12 @@
+package com.booking.bookingService.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SeatAutoHoldRequest {
+    @NotNull
+    @Min(value = 1, message = "At least one passenger is required")
+    private Integer passengers;
+}
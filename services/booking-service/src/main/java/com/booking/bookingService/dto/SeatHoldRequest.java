@@ -0,0 +1,13 @@
+package com.booking.bookingService.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class SeatHoldRequest {
+    @NotEmpty
+    private List<UUID> seatIds;
+}
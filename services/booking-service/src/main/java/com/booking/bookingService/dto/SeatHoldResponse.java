@@ -0,0 +1,18 @@
+package com.booking.bookingService.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class SeatHoldResponse {
+    private UUID holdId;
+    private UUID tripId;
+    private List<UUID> seatIds;
+    private List<String> seatCodes;
+    private LocalDateTime expiresAt;
+}
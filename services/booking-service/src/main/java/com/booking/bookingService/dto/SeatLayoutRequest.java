@@ -0,0 +1,16 @@
+package com.booking.bookingService.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SeatLayoutRequest {
+    @NotBlank(message = "Layout name is required")
+    private String name; // Usually the bus model, e.g. "Thaco Mobihome 34"
+
+    @Valid
+    private List<SeatDefinition> seats = new ArrayList<>();
+}
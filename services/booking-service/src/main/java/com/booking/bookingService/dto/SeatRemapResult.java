@@ -0,0 +1,23 @@
+package com.booking.bookingService.dto;
+
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class SeatRemapResult {
+    private UUID tripId;
+    private UUID previousBusId;
+    private UUID busId;
+    private int remappedByCode;     // held or booked seats moved to the seat with the same code
+    private int remappedByPosition; // ... or, failing that, to the seat in the same grid position
+    private int availableSeats;
+    private List<Unmapped> unmapped; // held or booked seats with no place on the new bus; released
+
+    public record Unmapped(String seatCode, SeatState state, UUID bookingId, UUID holdId, String passenger) {
+    }
+}
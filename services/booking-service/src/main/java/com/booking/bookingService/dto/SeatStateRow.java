@@ -0,0 +1,11 @@
+package com.booking.bookingService.dto;
+
+import com.booking.bookingService.model.SeatStatus;
+
+import java.util.UUID;
+
+/**
+ * (seat, state) pair of one trip, read without hydrating SeatStatus entities.
+ */
+public record SeatStateRow(UUID seatId, SeatStatus.SeatState state) {
+}
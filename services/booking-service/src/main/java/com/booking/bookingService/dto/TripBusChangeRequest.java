@@ -0,0 +1,12 @@
+package com.booking.bookingService.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class TripBusChangeRequest {
+    @NotNull(message = "Bus ID is required")
+    private UUID busId;
+}
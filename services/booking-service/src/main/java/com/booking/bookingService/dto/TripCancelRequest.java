@@ -0,0 +1,18 @@
+package com.booking.bookingService.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Bulk cancellation: every scheduled trip matching all given filters. At least a bus or a date
+ * range is required; trips that already departed are never cancelled.
+ */
+@Data
+public class TripCancelRequest {
+    private UUID busId;
+    private UUID operatorId;
+    private LocalDate from;     // inclusive, departure date
+    private LocalDate to;       // inclusive, departure date
+}
@@ -0,0 +1,14 @@
+package com.booking.bookingService.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class TripCancelResult {
+    private int cancelled;
+    private List<UUID> tripIds;
+}
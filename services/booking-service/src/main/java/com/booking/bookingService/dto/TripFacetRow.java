@@ -0,0 +1,21 @@
+package com.booking.bookingService.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The few columns facet counting needs, selected in one statement on the database path.
+ */
+public record TripFacetRow(
+        String busType,
+        UUID operatorId,
+        String operatorName,
+        LocalDateTime departureTime,
+        BigDecimal price
+) {
+
+    public static TripFacetRow of(TripSearchRow row) {
+        return new TripFacetRow(row.busType(), row.operatorId(), row.operatorName(), row.departureTime(), row.price());
+    }
+}
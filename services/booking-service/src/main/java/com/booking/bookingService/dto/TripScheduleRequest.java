@@ -0,0 +1,53 @@
+package com.booking.bookingService.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A recurring timetable: one trip on every selected weekday between startDate and endDate (inclusive).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TripScheduleRequest {
+
+    @NotNull(message = "Route ID is required")
+    private UUID routeId;
+
+    @NotNull(message = "Bus ID is required")
+    private UUID busId;
+
+    @NotEmpty(message = "At least one day of week is required")
+    private Set<DayOfWeek> daysOfWeek;
+
+    @NotNull(message = "Departure time is required")
+    private LocalTime departureTime;
+
+    // Optional: defaults to the route's estimated minutes
+    @Min(value = 1, message = "Duration must be positive")
+    private Integer durationMinutes;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    @NotNull(message = "Base price is required")
+    @Positive(message = "Price must be positive")
+    private BigDecimal basePrice;
+}
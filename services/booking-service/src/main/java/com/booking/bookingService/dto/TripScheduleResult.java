@@ -0,0 +1,20 @@
+package com.booking.bookingService.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class TripScheduleResult {
+    private int requested;      // occurrences matching the days of week in the date range
+    private int created;
+    private List<UUID> tripIds;
+    private List<Failure> failures; // occurrences that were skipped, the rest were created
+
+    public record Failure(LocalDateTime departureTime, String reason) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.booking.bookingService.dto;
+
+import com.booking.bookingService.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for {@code /trips/search}: the sort keys of the last row
+ * of the previous page. Clients only pass the encoded string back.
+ */
+public record TripSearchCursor(
+        TripSearchSort sort,
+        LocalDateTime departureTime,
+        BigDecimal price,
+        Double rating,
+        UUID tripId
+) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TripSearchCursor after(TripSearchSort sort, TripSearchRow row) {
+        return new TripSearchCursor(sort, row.departureTime(), row.price(), row.operatorRating(), row.tripId());
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+                sort.name(),
+                departureTime.toString(),
+                price.toPlainString(),
+                rating == null ? "" : rating.toString(),
+                tripId.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TripSearchCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            return new TripSearchCursor(
+                    TripSearchSort.valueOf(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    new BigDecimal(parts[2]),
+                    parts[3].isEmpty() ? null : Double.valueOf(parts[3]),
+                    UUID.fromString(parts[4]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid search cursor");
+        }
+    }
+
+    /**
+     * Stand-in row carrying only the sort keys, so the cursor can be compared
+     * with {@link TripSearchSort#comparator()}.
+     */
+    public TripSearchRow toProbeRow() {
+        return new TripSearchRow(tripId, null, null, null, 0, null, null, rating,
+                null, null, null, 0, departureTime, null, price, 0, null);
+    }
+}
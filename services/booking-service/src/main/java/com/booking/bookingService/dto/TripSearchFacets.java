@@ -0,0 +1,37 @@
+package com.booking.bookingService.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Counts for the search filter sidebar. Computed over the trips matching origin,
+ * destination, date and passengers, i.e. ignoring the sidebar's own filters, so that
+ * selecting one bus type does not zero out the others.
+ */
+@Data
+@Builder
+public class TripSearchFacets {
+    private Map<String, Long> busTypes;
+    private List<OperatorFacet> operators;
+    private Map<String, Long> timeSlots;   // morning | afternoon | evening | night
+    private List<PriceBucket> priceHistogram;
+
+    @Data @Builder
+    public static class OperatorFacet {
+        private UUID operatorId;
+        private String name;
+        private long count;
+    }
+
+    @Data @Builder
+    public static class PriceBucket {
+        private BigDecimal from;   // inclusive
+        private BigDecimal to;     // exclusive
+        private long count;
+    }
+}
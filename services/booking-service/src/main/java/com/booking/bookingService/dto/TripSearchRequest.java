@@ -40,5 +40,17 @@ public class TripSearchRequest {
     @Builder.Default
     private Integer limit = 20;
 
+    // Set to false when only "has next page" is needed; skips the count query
+    @Builder.Default
+    private Boolean includeTotal = true;
+
+    // Keyset pagination: send an empty cursor for the first page, then the returned nextCursor.
+    // When present, page is ignored and no total is computed.
+    private String cursor;
+
+    // When true, the response also carries sidebar counts (bus type, operator, time slot, price)
+    @Builder.Default
+    private Boolean facets = false;
+
     
 }
\ No newline at end of file
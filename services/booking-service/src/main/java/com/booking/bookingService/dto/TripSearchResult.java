@@ -0,0 +1,22 @@
+package com.booking.bookingService.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TripSearchResult {
+    private List<TripSearchResponse> trips;
+    private boolean hasNext;
+
+    // Null when the caller opted out of counting (includeTotal=false)
+    private Long total;
+
+    // Keyset mode only: pass back as "cursor" to fetch the next page
+    private String nextCursor;
+
+    // Only when facets=true
+    private TripSearchFacets facets;
+}
@@ -0,0 +1,66 @@
+package com.booking.bookingService.dto;
+
+import com.booking.bookingService.model.Trip;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat, denormalized view of a trip holding exactly what the search results need.
+ * Used by the in-memory search index and carried by trip change events.
+ */
+public record TripSearchRow(
+        UUID tripId,
+        UUID routeId,
+        String origin,
+        String destination,
+        int durationMinutes,
+        UUID operatorId,
+        String operatorName,
+        Double operatorRating,
+        UUID busId,
+        String busModel,
+        String busType,
+        int seatCapacity,
+        LocalDateTime departureTime,
+        LocalDateTime arrivalTime,
+        BigDecimal price,
+        int availableSeats,
+        Trip.TripStatus status
+) {
+
+    public static TripSearchRow of(Trip trip) {
+        return new TripSearchRow(
+                trip.getId(),
+                trip.getRoute().getId(),
+                trip.getRoute().getOrigin(),
+                trip.getRoute().getDestination(),
+                trip.getRoute().getEstimatedMinutes(),
+                trip.getOperator() != null ? trip.getOperator().getId() : null,
+                trip.getOperator() != null ? trip.getOperator().getName() : null,
+                trip.getOperator() != null ? trip.getOperator().getRating() : null,
+                trip.getBus().getId(),
+                trip.getBus().getModel(),
+                trip.getBus().getType(),
+                trip.getBus().getSeatCapacity(),
+                trip.getDepartureTime(),
+                trip.getArrivalTime(),
+                trip.getPrice(),
+                trip.getAvailableSeats(),
+                trip.getStatus()
+        );
+    }
+
+    public TripSearchRow withAvailableSeats(int seats) {
+        return new TripSearchRow(tripId, routeId, origin, destination, durationMinutes,
+                operatorId, operatorName, operatorRating, busId, busModel, busType, seatCapacity,
+                departureTime, arrivalTime, price, seats, status);
+    }
+
+    public TripSearchRow withStatus(Trip.TripStatus newStatus) {
+        return new TripSearchRow(tripId, routeId, origin, destination, durationMinutes,
+                operatorId, operatorName, operatorRating, busId, busModel, busType, seatCapacity,
+                departureTime, arrivalTime, price, availableSeats, newStatus);
+    }
+}
@@ -0,0 +1,55 @@
+package com.booking.bookingService.dto;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Sort options accepted by {@code /trips/search}.
+ * The in-memory ordering matches the database ordering of {@code TripSearchRepositoryImpl}.
+ */
+public enum TripSearchSort {
+    EARLIEST,
+    LATEST,
+    LOWEST_PRICE,
+    HIGHEST_RATING;
+
+    public static TripSearchSort from(String value) {
+        if (value == null || value.isEmpty()) {
+            return EARLIEST;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // Fallback về default nếu gửi sort linh tinh
+            return EARLIEST;
+        }
+    }
+
+    public Comparator<TripSearchRow> comparator() {
+        Comparator<TripSearchRow> byDeparture = Comparator.comparing(TripSearchRow::departureTime);
+        Comparator<TripSearchRow> byId = (a, b) -> compareIds(a.tripId(), b.tripId());
+        switch (this) {
+            case LATEST:
+                return byDeparture.thenComparing(byId).reversed();
+            case LOWEST_PRICE:
+                return Comparator.comparing(TripSearchRow::price).thenComparing(byDeparture).thenComparing(byId);
+            case HIGHEST_RATING:
+                return Comparator.comparing(TripSearchRow::operatorRating,
+                                Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+                        .thenComparing(byDeparture).thenComparing(byId);
+            case EARLIEST:
+            default:
+                return byDeparture.thenComparing(byId);
+        }
+    }
+
+    /**
+     * Orders UUIDs the way PostgreSQL does (unsigned, byte by byte), so a cursor
+     * produced in memory resumes correctly against the database and vice versa.
+     */
+    public static int compareIds(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
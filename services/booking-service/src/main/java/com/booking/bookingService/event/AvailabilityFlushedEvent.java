@@ -0,0 +1,12 @@
+package com.booking.bookingService.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published after buffered seat count changes have been written to trip.available_seats.
+ * Consumers that read the count from the database should react to this rather than to
+ * {@link SeatAvailabilityChangedEvent}, which fires before the write-behind flush.
+ */
+public record AvailabilityFlushedEvent(Set<UUID> tripIds) {
+}
@@ -0,0 +1,11 @@
+package com.booking.bookingService.event;
+
+import java.util.UUID;
+
+/**
+ * Published when the seats of a layout template change, a bus moves off a layout or a bus is deleted.
+ * {@code busId} is null when only the template changed; {@code layoutId} is the layout whose trips
+ * can no longer be trusted, or null when none are (a deleted bus has no trips left).
+ */
+public record BusLayoutChangedEvent(UUID busId, UUID layoutId) {
+}
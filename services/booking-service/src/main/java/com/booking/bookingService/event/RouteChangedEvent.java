@@ -0,0 +1,24 @@
+package com.booking.bookingService.event;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a route is created, updated or deleted.
+ * The previous endpoints are null for a new route, the current ones are null for a deleted one.
+ */
+public record RouteChangedEvent(
+        UUID routeId,
+        String previousOrigin,
+        String previousDestination,
+        String currentOrigin,
+        String currentDestination
+) {
+
+    public boolean isCreated() {
+        return previousOrigin == null;
+    }
+
+    public boolean isDeleted() {
+        return currentOrigin == null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.booking.bookingService.event;
+
+import java.util.UUID;
+
+/**
+ * Published whenever the number of available seats on a trip changes
+ * (holds, bookings, releases).
+ */
+public record SeatAvailabilityChangedEvent(UUID tripId, int availableSeats) {
+}
@@ -0,0 +1,12 @@
+package com.booking.bookingService.event;
+
+import com.booking.bookingService.model.SeatStatus;
+
+import java.util.UUID;
+
+/**
+ * Published when one seat of a trip changes state. {@code version} is the trip's seat map
+ * version after the change (see SeatStateStore), so clients can order frames.
+ */
+public record SeatStateChangedEvent(UUID tripId, UUID seatId, SeatStatus.SeatState state, long version) {
+}
@@ -0,0 +1,28 @@
+package com.booking.bookingService.event;
+
+import com.booking.bookingService.dto.TripSearchRow;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a trip is created, updated or deleted.
+ * {@code previous} is null for a new trip, {@code current} is null for a deleted one.
+ */
+public record TripChangedEvent(UUID tripId, TripSearchRow previous, TripSearchRow current) {
+
+    public static TripChangedEvent created(TripSearchRow current) {
+        return new TripChangedEvent(current.tripId(), null, current);
+    }
+
+    public static TripChangedEvent updated(TripSearchRow previous, TripSearchRow current) {
+        return new TripChangedEvent(current.tripId(), previous, current);
+    }
+
+    public static TripChangedEvent deleted(TripSearchRow previous) {
+        return new TripChangedEvent(previous.tripId(), previous, null);
+    }
+
+    public boolean isDeleted() {
+        return current == null;
+    }
+}
@@ -0,0 +1,258 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.event.RouteChangedEvent;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.repository.RouteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Accent-folded prefix trie of every place (route origin or destination) for autocomplete.
+ *
+ * Each place is inserted under its folded full name and under every word suffix,
+ * so "da nang", "Đà Nẵng" and "nang" all reach "Da Nang", and "chi minh" reaches
+ * "Ho Chi Minh City". Places are ranked by how many routes touch them.
+ *
+ * Every node keeps the ranked top {@link #MAX_SUGGESTIONS} places of its subtree, merged from its
+ * children's lists, so a lookup reads one list instead of walking everything under the prefix.
+ * A place's lists are re-ranked along its key paths whenever its weight changes.
+ *
+ * The index remembers each route's endpoints, so a route change applied twice (e.g. delivered
+ * while a rebuild had already read it) counts once. Rebuilds run under the write lock so no
+ * change is lost between reading the routes and swapping the trie in.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceSuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final RouteRepository routeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+    // canonical place name -> number of routes starting or ending there
+    private Map<String, Integer> weights = new HashMap<>();
+    // route id -> endpoints counted in weights
+    private Map<UUID, Endpoints> routes = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            weights = new HashMap<>();
+            routes = new HashMap<>();
+            for (Route route : routeRepository.findAll()) {
+                apply(route.getId(), new Endpoints(route.getOrigin(), route.getDestination()), new HashSet<>());
+            }
+            // One bottom-up pass ranks the whole trie, instead of re-ranking after every route
+            rankSubtree(root);
+            log.info("Place suggestion index built with {} places", weights.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Set<String> changed = new HashSet<>();
+            apply(event.routeId(), event.isDeleted() ? null
+                    : new Endpoints(event.currentOrigin(), event.currentDestination()), changed);
+            changed.forEach(this::rerank);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked canonical place names matching the (accent-insensitive) prefix.
+     * Places whose full name starts with the query come before word-level matches.
+     */
+    public List<String> suggest(String query, int limit) {
+        String key = fold(query);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return node.top.stream()
+                    .limit(Math.min(limit, MAX_SUGGESTIONS))
+                    .map(Suggestion::place)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-case, strip diacritics (including the Vietnamese đ) and collapse whitespace.
+     */
+    public static String fold(String value) {
+        if (value == null) return "";
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        return WHITESPACE.matcher(stripped).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    // Caller holds the write lock. Moves the route's weight from its known endpoints to the new
+    // ones and collects the places whose weight changed
+    private void apply(UUID routeId, Endpoints current, Set<String> changed) {
+        Endpoints previous = current != null ? routes.put(routeId, current) : routes.remove(routeId);
+        if (Objects.equals(previous, current)) return;
+        if (previous != null) {
+            decrement(previous.origin(), changed);
+            decrement(previous.destination(), changed);
+        }
+        if (current != null) {
+            increment(current.origin(), changed);
+            increment(current.destination(), changed);
+        }
+    }
+
+    // Caller holds the write lock
+    private void increment(String place, Set<String> changed) {
+        if (place == null || place.isBlank()) return;
+        changed.add(place);
+        if (weights.merge(place, 1, Integer::sum) == 1) {
+            List<String> keys = keys(place);
+            for (int k = 0; k < keys.size(); k++) {
+                String key = keys.get(k);
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                }
+                // The first key is the full name
+                node.places.merge(place, k == 0, Boolean::logicalOr);
+            }
+        }
+    }
+
+    // Caller holds the write lock
+    private void decrement(String place, Set<String> changed) {
+        if (place == null || !weights.containsKey(place)) return;
+        changed.add(place);
+        if (weights.merge(place, -1, Integer::sum) > 0) return;
+
+        weights.remove(place);
+        for (String key : keys(place)) {
+            remove(root, key, 0, place);
+        }
+    }
+
+    // Returns true when the child became empty and can be pruned
+    private static boolean remove(Node node, String key, int depth, String place) {
+        if (depth == key.length()) {
+            node.places.remove(place);
+        } else {
+            char c = key.charAt(depth);
+            Node child = node.children.get(c);
+            if (child != null && remove(child, key, depth + 1, place)) {
+                node.children.remove(c);
+            }
+        }
+        return node.places.isEmpty() && node.children.isEmpty();
+    }
+
+    // Caller holds the write lock. Re-ranks the nodes on the place's key paths, deepest first
+    private void rerank(String place) {
+        for (String key : keys(place)) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            for (int i = 0; node != null; i++) {
+                path.add(node);
+                node = i < key.length() ? node.children.get(key.charAt(i)) : null;
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                rank(path.get(i));
+            }
+        }
+    }
+
+    // Caller holds the write lock
+    private void rankSubtree(Node node) {
+        node.children.values().forEach(this::rankSubtree);
+        rank(node);
+    }
+
+    // Caller holds the write lock. A place is a full-name match here when its full name passes
+    // through any child as one, so the children's top lists are enough to rank this node
+    private void rank(Node node) {
+        Map<String, Boolean> candidates = new HashMap<>(node.places);
+        for (Node child : node.children.values()) {
+            for (Suggestion suggestion : child.top) {
+                candidates.merge(suggestion.place(), suggestion.fullName(), Boolean::logicalOr);
+            }
+        }
+        node.top = candidates.entrySet().stream()
+                .map(candidate -> new Suggestion(candidate.getKey(), candidate.getValue()))
+                .sorted(Comparator
+                        .comparing((Suggestion suggestion) -> !suggestion.fullName())
+                        .thenComparing(suggestion -> -weights.getOrDefault(suggestion.place(), 0))
+                        .thenComparing(Suggestion::place))
+                .limit(MAX_SUGGESTIONS)
+                .toList();
+    }
+
+    // Folded full name plus every word suffix: "ho chi minh city", "chi minh city", "minh city", "city"
+    private static List<String> keys(String place) {
+        String folded = fold(place);
+        List<String> keys = new ArrayList<>();
+        keys.add(folded);
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) == ' ' && i + 1 < folded.length()) {
+                keys.add(folded.substring(i + 1));
+            }
+        }
+        return keys;
+    }
+
+    private record Endpoints(String origin, String destination) {
+    }
+
+    // fullName: the query is a prefix of the place's full name, not only of one of its words
+    private record Suggestion(String place, boolean fullName) {
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        // place -> whether its full name (rather than a word suffix) ends here
+        final Map<String, Boolean> places = new HashMap<>(2);
+        List<Suggestion> top = List.of();
+    }
+}
@@ -0,0 +1,303 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.dto.ConnectionSearchRequest;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.event.RouteChangedEvent;
+import com.booking.bookingService.event.SeatAvailabilityChangedEvent;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.repository.TripRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Route network held in memory for connection search.
+ *
+ * Places are nodes (normalized names), each (origin, destination) pair is an edge carrying its
+ * upcoming departures sorted by departure time. Edges are immutable and replaced copy-on-write,
+ * so searches never lock; writers are serialized on the graph monitor.
+ */
+@Component
+@Slf4j
+public class RouteGraph {
+
+    private static final Comparator<TripSearchRow> BY_DEPARTURE = Comparator
+            .comparing(TripSearchRow::departureTime)
+            .thenComparing(TripSearchRow::tripId);
+
+    private final TripRepository tripRepository;
+    private final int maxExpansions;
+
+    // origin -> destination -> edge
+    private volatile Map<String, Map<String, Edge>> adjacency = new ConcurrentHashMap<>();
+    // Current row of every trip in the graph; only touched under the graph monitor
+    private final Map<UUID, TripSearchRow> trips = new HashMap<>();
+
+    public RouteGraph(TripRepository tripRepository,
+                      @Value("${booking.connections.max-expansions:20000}") int maxExpansions) {
+        this.tripRepository = tripRepository;
+        this.maxExpansions = maxExpansions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${booking.search-index.refresh-interval-ms:300000}",
+               fixedDelayString = "${booking.search-index.refresh-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<TripSearchRow> rows = tripRepository.findSearchRowsDepartingFrom(LocalDate.now().atStartOfDay());
+
+        Map<String, Map<String, List<TripSearchRow>>> grouped = new HashMap<>();
+        trips.clear();
+        for (TripSearchRow row : rows) {
+            if (!isBookable(row)) continue;
+            grouped.computeIfAbsent(TripSearchIndex.normalize(row.origin()), o -> new HashMap<>())
+                    .computeIfAbsent(TripSearchIndex.normalize(row.destination()), d -> new ArrayList<>())
+                    .add(row);
+            trips.put(row.tripId(), row);
+        }
+
+        Map<String, Map<String, Edge>> rebuilt = new ConcurrentHashMap<>();
+        grouped.forEach((origin, edges) -> {
+            Map<String, Edge> out = new ConcurrentHashMap<>();
+            edges.forEach((destination, list) -> {
+                TripSearchRow[] departures = list.toArray(new TripSearchRow[0]);
+                Arrays.sort(departures, BY_DEPARTURE);
+                out.put(destination, new Edge(departures));
+            });
+            rebuilt.put(origin, out);
+        });
+
+        this.adjacency = rebuilt;
+        log.info("Route graph rebuilt with {} places and {} trips in {} ms",
+                rebuilt.size(), trips.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTripChanged(TripChangedEvent event) {
+        TripSearchRow previous = trips.remove(event.tripId());
+        if (previous != null) {
+            replaceEdge(previous, edge -> edge.without(previous.tripId()));
+        }
+        TripSearchRow current = event.current();
+        if (current != null && isBookable(current)
+                && !current.departureTime().toLocalDate().isBefore(LocalDate.now())) {
+            trips.put(current.tripId(), current);
+            replaceEdge(current, edge -> edge.with(current));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        TripSearchRow previous = trips.get(event.tripId());
+        if (previous == null) return;
+
+        TripSearchRow current = previous.withAvailableSeats(event.availableSeats());
+        trips.put(current.tripId(), current);
+        replaceEdge(current, edge -> edge.without(current.tripId()).with(current));
+    }
+
+    // Place names live on the edges, so a renamed route moves its trips to other nodes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (!event.isCreated() && !event.isDeleted()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Earliest-arrival itineraries from origin to destination leaving on the requested date.
+     *
+     * Labels (partial itineraries) are expanded in order of arrival time; each place is expanded
+     * at most {@code limit} times, since later labels there cannot produce one of the first
+     * {@code limit} arrivals any more, and the total number of labels is capped by
+     * {@code booking.connections.max-expansions}. Both bounds keep latency flat on large networks.
+     */
+    public List<List<TripSearchRow>> search(ConnectionSearchRequest request) {
+        String origin = TripSearchIndex.normalize(request.getOrigin());
+        String destination = TripSearchIndex.normalize(request.getDestination());
+        int passengers = request.getPassengers();
+        int maxLegs = request.getMaxTransfers() + 1;
+        int limit = request.getLimit();
+        long minConnection = request.getMinConnectionMinutes();
+        long maxConnection = request.getMaxConnectionMinutes();
+
+        Map<String, Map<String, Edge>> graph = this.adjacency;
+        PriorityQueue<Label> queue = new PriorityQueue<>(Label.ORDER);
+        int created = 0;
+
+        // First legs: every departure from the origin on the requested day
+        LocalDateTime dayStart = request.getDate().atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        for (Map.Entry<String, Edge> entry : graph.getOrDefault(origin, Map.of()).entrySet()) {
+            TripSearchRow[] departures = entry.getValue().departures;
+            for (int i = entry.getValue().firstDepartingAt(dayStart); i < departures.length; i++) {
+                TripSearchRow leg = departures[i];
+                if (!leg.departureTime().isBefore(dayEnd)) break;
+                if (leg.availableSeats() < passengers) continue;
+                queue.add(Label.start(entry.getKey(), leg));
+                created++;
+            }
+        }
+
+        List<List<TripSearchRow>> itineraries = new ArrayList<>();
+        Map<String, Integer> expanded = new HashMap<>();
+        while (!queue.isEmpty() && itineraries.size() < limit) {
+            Label label = queue.poll();
+            if (label.place.equals(destination)) {
+                itineraries.add(label.legs());
+                continue;
+            }
+            if (label.legCount >= maxLegs) continue;
+            if (expanded.merge(label.place, 1, Integer::sum) > limit) continue;
+
+            LocalDateTime earliest = label.leg.arrivalTime().plusMinutes(minConnection);
+            LocalDateTime latest = label.leg.arrivalTime().plusMinutes(maxConnection);
+            for (Map.Entry<String, Edge> entry : graph.getOrDefault(label.place, Map.of()).entrySet()) {
+                String next = entry.getKey();
+                // Never pass through the same place twice
+                if (next.equals(origin) || label.visited(next)) continue;
+
+                TripSearchRow[] departures = entry.getValue().departures;
+                for (int i = entry.getValue().firstDepartingAt(earliest); i < departures.length; i++) {
+                    TripSearchRow leg = departures[i];
+                    if (leg.departureTime().isAfter(latest)) break;
+                    if (leg.availableSeats() < passengers) continue;
+                    if (created++ >= maxExpansions) {
+                        log.debug("Connection search {} -> {} hit the expansion cap", origin, destination);
+                        return itineraries;
+                    }
+                    queue.add(label.extend(next, leg));
+                }
+            }
+        }
+        return itineraries;
+    }
+
+    private void replaceEdge(TripSearchRow row, UnaryOperator<Edge> change) {
+        String origin = TripSearchIndex.normalize(row.origin());
+        String destination = TripSearchIndex.normalize(row.destination());
+        Map<String, Edge> out = adjacency.computeIfAbsent(origin, o -> new ConcurrentHashMap<>());
+        Edge updated = change.apply(out.getOrDefault(destination, Edge.EMPTY));
+        if (updated.departures.length == 0) {
+            out.remove(destination);
+        } else {
+            out.put(destination, updated);
+        }
+    }
+
+    private static boolean isBookable(TripSearchRow row) {
+        return row.status() != Trip.TripStatus.CANCELLED;
+    }
+
+    /**
+     * Departures of one (origin, destination) pair sorted by departure time. Immutable.
+     */
+    private static final class Edge {
+        static final Edge EMPTY = new Edge(new TripSearchRow[0]);
+
+        final TripSearchRow[] departures;
+
+        Edge(TripSearchRow[] departures) {
+            this.departures = departures;
+        }
+
+        // Index of the first departure at or after the given time (lower bound)
+        int firstDepartingAt(LocalDateTime time) {
+            int low = 0;
+            int high = departures.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (departures[mid].departureTime().isBefore(time)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Edge with(TripSearchRow row) {
+            int index = Arrays.binarySearch(departures, row, BY_DEPARTURE);
+            int insertAt = index >= 0 ? index : -index - 1;
+            TripSearchRow[] next = new TripSearchRow[departures.length + 1];
+            System.arraycopy(departures, 0, next, 0, insertAt);
+            next[insertAt] = row;
+            System.arraycopy(departures, insertAt, next, insertAt + 1, departures.length - insertAt);
+            return new Edge(next);
+        }
+
+        Edge without(UUID tripId) {
+            for (int i = 0; i < departures.length; i++) {
+                if (departures[i].tripId().equals(tripId)) {
+                    TripSearchRow[] next = new TripSearchRow[departures.length - 1];
+                    System.arraycopy(departures, 0, next, 0, i);
+                    System.arraycopy(departures, i + 1, next, i, departures.length - i - 1);
+                    return new Edge(next);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Partial itinerary ending at {@code place}, linked back to its previous leg.
+     */
+    private record Label(String place, TripSearchRow leg, Label parent, int legCount, BigDecimal totalPrice) {
+
+        static final Comparator<Label> ORDER = Comparator
+                .comparing((Label l) -> l.leg.arrivalTime())
+                .thenComparing(Label::totalPrice)
+                .thenComparingInt(Label::legCount);
+
+        static Label start(String place, TripSearchRow leg) {
+            return new Label(place, leg, null, 1, leg.price());
+        }
+
+        Label extend(String next, TripSearchRow nextLeg) {
+            return new Label(next, nextLeg, this, legCount + 1, totalPrice.add(nextLeg.price()));
+        }
+
+        boolean visited(String candidate) {
+            for (Label l = this; l != null; l = l.parent) {
+                if (l.place.equals(candidate)) return true;
+            }
+            return false;
+        }
+
+        List<TripSearchRow> legs() {
+            LinkedList<TripSearchRow> legs = new LinkedList<>();
+            for (Label l = this; l != null; l = l.parent) {
+                legs.addFirst(l.leg);
+            }
+            return new ArrayList<>(legs);
+        }
+    }
+}
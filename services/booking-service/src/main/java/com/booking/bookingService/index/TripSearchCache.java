@@ -0,0 +1,290 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchResult;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.dto.TripSearchSort;
+import com.booking.bookingService.event.RouteChangedEvent;
+import com.booking.bookingService.event.SeatAvailabilityChangedEvent;
+import com.booking.bookingService.event.TripChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of search results keyed on the canonicalized request.
+ *
+ * Entries are also indexed by travel date so a trip change only evicts the cached searches
+ * whose origin/destination filters could match that trip's route on that day.
+ * A per-date generation number guards against a search that started before an invalidation
+ * re-inserting a stale result after it. Generations come from one clock and only invalidated
+ * dates have their own entry; every other date reads the floor, which moves on clear and prune,
+ * so client-supplied dates never add entries and past dates can be dropped.
+ */
+@Component
+public class TripSearchCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final TripSearchIndex tripSearchIndex;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final Map<LocalDate, Set<Key>> keysByDate = new ConcurrentHashMap<>();
+    private final Set<Key> undatedKeys = ConcurrentHashMap.newKeySet();
+    private final Map<LocalDate, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private volatile long floorGeneration;
+    private volatile long undatedGeneration;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TripSearchCache(TripSearchIndex tripSearchIndex,
+                           @Value("${booking.search-cache.max-entries:10000}") int maxEntries) {
+        this.tripSearchIndex = tripSearchIndex;
+        int perSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    public TripSearchResult get(Key key) {
+        TripSearchResult result = segmentFor(key).get(key);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Read before computing a result and hand back to {@link #put}.
+     */
+    public long generation(Key key) {
+        return generationFor(key.date());
+    }
+
+    public void put(Key key, long generation, TripSearchResult result) {
+        // Skip results computed from data that has been invalidated meanwhile
+        if (generationFor(key.date()) != generation) return;
+
+        // Registered before the insert and re-checked after it: an invalidation either finds the
+        // key (and evicts the entry) or moved the generation first (and the entry is dropped here)
+        if (key.date() != null) {
+            keysByDate.compute(key.date(), (date, keys) -> {
+                Set<Key> registered = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                registered.add(key);
+                return registered;
+            });
+        } else {
+            undatedKeys.add(key);
+        }
+        segmentFor(key).put(key, result);
+        if (generationFor(key.date()) != generation) {
+            segmentFor(key).remove(key);
+            forget(key);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(TripChangedEvent event) {
+        if (event.previous() != null) invalidate(event.previous());
+        if (event.current() != null) invalidate(event.current());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        Optional<TripSearchRow> row = tripSearchIndex.find(event.tripId());
+        if (row.isPresent()) {
+            invalidate(row.get());
+        } else {
+            // Trip outside the indexed horizon: we cannot tell which buckets it touches
+            clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (!event.isCreated()) {
+            clear();
+        }
+    }
+
+    public void clear() {
+        floorGeneration = clock.incrementAndGet();
+        generations.clear();
+        undatedGeneration = clock.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        keysByDate.clear();
+        undatedKeys.clear();
+    }
+
+    public Map<String, Long> stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    /**
+     * Evicts every cached search that could include a trip on this route and day:
+     * searches for that date (or with no date) whose origin/destination text is contained
+     * in the route's, mirroring the LIKE '%x%' matching of the search itself.
+     */
+    private void invalidate(TripSearchRow row) {
+        LocalDate date = row.departureTime().toLocalDate();
+        String origin = TripSearchIndex.normalize(row.origin());
+        String destination = TripSearchIndex.normalize(row.destination());
+
+        generations.merge(date, clock.incrementAndGet(), Math::max);
+        undatedGeneration = clock.incrementAndGet();
+
+        Set<Key> dated = keysByDate.get(date);
+        if (dated != null) {
+            evictMatching(dated, origin, destination);
+            keysByDate.computeIfPresent(date, (d, keys) -> keys.isEmpty() ? null : keys);
+        }
+        evictMatching(undatedKeys, origin, destination);
+    }
+
+    /**
+     * Drops the generations and cached searches of past dates; nothing invalidates those any more.
+     */
+    @Scheduled(fixedDelayString = "${booking.search-cache.prune-interval-ms:3600000}")
+    public void prune() {
+        LocalDate today = LocalDate.now();
+        floorGeneration = clock.incrementAndGet();
+        generations.keySet().removeIf(date -> date.isBefore(today));
+        keysByDate.keySet().removeIf(date -> {
+            if (!date.isBefore(today)) return false;
+            keysByDate.get(date).forEach(key -> segmentFor(key).remove(key));
+            return true;
+        });
+    }
+
+    private void evictMatching(Set<Key> keys, String origin, String destination) {
+        keys.removeIf(key -> {
+            if (origin.contains(key.origin()) && destination.contains(key.destination())) {
+                if (segmentFor(key).remove(key)) {
+                    invalidations.increment();
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private long generationFor(LocalDate date) {
+        if (date == null) return undatedGeneration;
+        Long generation = generations.get(date);
+        return generation != null ? generation : floorGeneration;
+    }
+
+    private Segment segmentFor(Key key) {
+        return segments[(key.hashCode() & 0x7fffffff) % SEGMENTS];
+    }
+
+    private void forget(Key key) {
+        if (key.date() != null) {
+            keysByDate.computeIfPresent(key.date(), (date, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        } else {
+            undatedKeys.remove(key);
+        }
+    }
+
+    /**
+     * Canonical form of a search request: normalized text, resolved defaults and sort.
+     */
+    public record Key(String origin, String destination, LocalDate date, String options) {
+
+        public static Key of(TripSearchRequest request) {
+            String options = String.join("|",
+                    String.valueOf(request.getPassengers()),
+                    TripSearchIndex.normalize(request.getBusType()),
+                    TripSearchIndex.normalize(request.getDepartureTime()),
+                    price(request.getMinPrice()),
+                    price(request.getMaxPrice()),
+                    TripSearchSort.from(request.getSort()).name(),
+                    Objects.toString(request.getOperatorId(), ""),
+                    String.valueOf(request.getPage()),
+                    String.valueOf(request.getLimit()),
+                    String.valueOf(!Boolean.FALSE.equals(request.getIncludeTotal())),
+                    Objects.toString(request.getCursor(), "-"),
+                    String.valueOf(Boolean.TRUE.equals(request.getFacets())));
+            return new Key(
+                    TripSearchIndex.normalize(request.getOrigin()),
+                    TripSearchIndex.normalize(request.getDestination()),
+                    request.getDate(),
+                    options);
+        }
+
+        private static String price(BigDecimal value) {
+            return value == null ? "" : value.stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private final class Segment {
+        private final Map<Key, TripSearchResult> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, TripSearchResult> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        forget(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized TripSearchResult get(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(Key key, TripSearchResult result) {
+            entries.put(key, result);
+        }
+
+        synchronized boolean remove(Key key) {
+            return entries.remove(key) != null;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.event.RouteChangedEvent;
+import com.booking.bookingService.event.SeatAvailabilityChangedEvent;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory, denormalized index behind {@code /trips/search}.
+ *
+ * Trips departing today or later are bucketed by normalized (origin, destination, departure date).
+ * Each bucket keeps its filter columns (departure, price, bus type, operator, available seats)
+ * in primitive arrays so a search scans a handful of small arrays instead of joining four tables.
+ *
+ * Buckets are immutable and replaced copy-on-write; readers never lock. Writers (trip changes,
+ * seat count changes and the periodic rebuild) are serialized on the index monitor.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TripSearchIndex {
+
+    private final TripRepository tripRepository;
+
+    // date -> (origin, destination) -> bucket
+    private volatile Map<LocalDate, Map<RouteKey, Bucket>> buckets = new ConcurrentHashMap<>();
+    // Where each indexed trip currently lives; only touched under the index monitor
+    private final Map<UUID, Location> locations = new HashMap<>();
+
+    // Dictionary encodings for the primitive columns (append-only)
+    private final Map<String, Integer> busTypeCodes = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> operatorCodes = new ConcurrentHashMap<>();
+
+    private volatile LocalDate horizonStart;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Safety net for changes made outside this node (other replicas, manual SQL)
+     * and for dropping buckets of days that are now in the past.
+     */
+    @Scheduled(initialDelayString = "${booking.search-index.refresh-interval-ms:300000}",
+               fixedDelayString = "${booking.search-index.refresh-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        List<TripSearchRow> rows = tripRepository.findSearchRowsDepartingFrom(today.atStartOfDay());
+
+        Map<LocalDate, Map<RouteKey, List<TripSearchRow>>> grouped = new HashMap<>();
+        for (TripSearchRow row : rows) {
+            grouped.computeIfAbsent(row.departureTime().toLocalDate(), d -> new HashMap<>())
+                    .computeIfAbsent(RouteKey.of(row), k -> new ArrayList<>())
+                    .add(row);
+        }
+
+        Map<LocalDate, Map<RouteKey, Bucket>> rebuilt = new ConcurrentHashMap<>();
+        locations.clear();
+        grouped.forEach((date, routes) -> {
+            Map<RouteKey, Bucket> day = new ConcurrentHashMap<>();
+            routes.forEach((key, list) -> {
+                day.put(key, Bucket.of(list.toArray(new TripSearchRow[0]), this));
+                list.forEach(row -> locations.put(row.tripId(), new Location(date, key)));
+            });
+            rebuilt.put(date, day);
+        });
+
+        this.buckets = rebuilt;
+        this.horizonStart = today;
+        this.ready = true;
+        log.info("Trip search index rebuilt with {} trips in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    // Runs before other listeners (e.g. the result cache) so they observe the updated index
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTripChanged(TripChangedEvent event) {
+        remove(event.tripId());
+        // Cancelled trips drop out of search
+        if (!event.isDeleted() && event.current().status() != Trip.TripStatus.CANCELLED) {
+            add(event.current());
+        }
+    }
+
+    // Rows denormalize the route (origin, destination, duration); edits are rare, so just reload
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (!event.isCreated() && !event.isDeleted()) {
+            rebuild();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        Location location = locations.get(event.tripId());
+        if (location == null) return;
+
+        Map<RouteKey, Bucket> day = buckets.get(location.date());
+        Bucket bucket = day != null ? day.get(location.key()) : null;
+        if (bucket == null) return;
+
+        day.put(location.key(), bucket.withAvailableSeats(event.tripId(), event.availableSeats()));
+    }
+
+    public synchronized Optional<TripSearchRow> find(UUID tripId) {
+        Location location = locations.get(tripId);
+        if (location == null) return Optional.empty();
+
+        Map<RouteKey, Bucket> day = buckets.get(location.date());
+        Bucket bucket = day != null ? day.get(location.key()) : null;
+        if (bucket == null) return Optional.empty();
+
+        return Arrays.stream(bucket.rows).filter(r -> r.tripId().equals(tripId)).findFirst();
+    }
+
+    /**
+     * Returns every indexed trip matching the request filters (unsorted, unpaged),
+     * or empty when the index cannot answer and the caller must go to the database.
+     */
+    public Optional<List<TripSearchRow>> search(TripSearchRequest request) {
+        LocalDate date = request.getDate();
+        LocalDate horizon = this.horizonStart;
+        if (!ready || date == null || date.isBefore(horizon)) {
+            return Optional.empty();
+        }
+
+        Map<RouteKey, Bucket> day = buckets.get(date);
+        if (day == null) {
+            return Optional.of(List.of());
+        }
+
+        Filter filter = Filter.of(request, this);
+        if (filter == null) {
+            // Filter on a bus type or operator the index has never seen: nothing can match
+            return Optional.of(List.of());
+        }
+
+        String origin = normalize(request.getOrigin());
+        String destination = normalize(request.getDestination());
+
+        List<TripSearchRow> result = new ArrayList<>();
+        for (Map.Entry<RouteKey, Bucket> entry : day.entrySet()) {
+            RouteKey key = entry.getKey();
+            // Same semantics as the SQL path: lower(column) LIKE '%value%'
+            if (key.origin().contains(origin) && key.destination().contains(destination)) {
+                entry.getValue().collect(filter, result);
+            }
+        }
+        return Optional.of(result);
+    }
+
+    private void add(TripSearchRow row) {
+        LocalDate date = row.departureTime().toLocalDate();
+        LocalDate horizon = this.horizonStart;
+        if (horizon != null && date.isBefore(horizon)) return;
+
+        RouteKey key = RouteKey.of(row);
+        Map<RouteKey, Bucket> day = buckets.computeIfAbsent(date, d -> new ConcurrentHashMap<>());
+        Bucket bucket = day.get(key);
+        day.put(key, bucket == null ? Bucket.of(new TripSearchRow[]{row}, this) : bucket.with(row, this));
+        locations.put(row.tripId(), new Location(date, key));
+    }
+
+    private void remove(UUID tripId) {
+        Location location = locations.remove(tripId);
+        if (location == null) return;
+
+        Map<RouteKey, Bucket> day = buckets.get(location.date());
+        if (day == null) return;
+        Bucket bucket = day.get(location.key());
+        if (bucket == null) return;
+
+        Bucket remaining = bucket.without(tripId, this);
+        if (remaining == null) {
+            day.remove(location.key());
+        } else {
+            day.put(location.key(), remaining);
+        }
+    }
+
+    private int busTypeCode(String busType) {
+        return busTypeCodes.computeIfAbsent(normalize(busType), t -> busTypeCodes.size());
+    }
+
+    private int operatorCode(UUID operatorId) {
+        if (operatorId == null) return -1;
+        return operatorCodes.computeIfAbsent(operatorId, id -> operatorCodes.size());
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static long toCents(BigDecimal price, RoundingMode mode) {
+        return price.movePointRight(2).setScale(0, mode).longValueExact();
+    }
+
+    record RouteKey(String origin, String destination) {
+        static RouteKey of(TripSearchRow row) {
+            return new RouteKey(normalize(row.origin()), normalize(row.destination()));
+        }
+    }
+
+    record Location(LocalDate date, RouteKey key) {
+    }
+
+    /**
+     * Pre-resolved request filters, expressed against the primitive columns.
+     */
+    static final class Filter {
+        int minSeats;
+        long minPrice = Long.MIN_VALUE;
+        long maxPrice = Long.MAX_VALUE;
+        int busType = -1;
+        int operator = -1;
+        int fromSecond = 0;
+        int toSecond = LocalTime.MAX.toSecondOfDay();
+
+        static Filter of(TripSearchRequest request, TripSearchIndex index) {
+            Filter filter = new Filter();
+            if (request.getPassengers() != null && request.getPassengers() > 0) {
+                filter.minSeats = request.getPassengers();
+            }
+            if (request.getMinPrice() != null) {
+                filter.minPrice = toCents(request.getMinPrice(), RoundingMode.CEILING);
+            }
+            if (request.getMaxPrice() != null) {
+                filter.maxPrice = toCents(request.getMaxPrice(), RoundingMode.FLOOR);
+            }
+            if (request.getBusType() != null && !request.getBusType().isEmpty()) {
+                Integer code = index.busTypeCodes.get(normalize(request.getBusType()));
+                if (code == null) return null;
+                filter.busType = code;
+            }
+            if (request.getOperatorId() != null) {
+                Integer code = index.operatorCodes.get(request.getOperatorId());
+                if (code == null) return null;
+                filter.operator = code;
+            }
+            if (request.getDepartureTime() != null) {
+                switch (request.getDepartureTime().toLowerCase()) {
+                    case "morning": // 06:00 - 11:59
+                        filter.fromSecond = LocalTime.of(6, 0).toSecondOfDay();
+                        filter.toSecond = LocalTime.of(11, 59).toSecondOfDay();
+                        break;
+                    case "afternoon": // 12:00 - 17:59
+                        filter.fromSecond = LocalTime.of(12, 0).toSecondOfDay();
+                        filter.toSecond = LocalTime.of(17, 59).toSecondOfDay();
+                        break;
+                    case "evening": // 18:00 - 20:59
+                        filter.fromSecond = LocalTime.of(18, 0).toSecondOfDay();
+                        filter.toSecond = LocalTime.of(20, 59).toSecondOfDay();
+                        break;
+                    case "night": // 21:00 - 23:59
+                        filter.fromSecond = LocalTime.of(21, 0).toSecondOfDay();
+                        filter.toSecond = LocalTime.of(23, 59).toSecondOfDay();
+                        break;
+                }
+            }
+            return filter;
+        }
+    }
+
+    /**
+     * Immutable column-oriented block of the trips for one (origin, destination, date),
+     * ordered by departure time.
+     */
+    static final class Bucket {
+        final TripSearchRow[] rows;
+        final int[] departureSecond;
+        final long[] priceCents;
+        final int[] busType;
+        final int[] operator;
+        final int[] availableSeats;
+
+        private Bucket(TripSearchRow[] rows, TripSearchIndex index) {
+            Arrays.sort(rows, Comparator.comparing(TripSearchRow::departureTime));
+            int n = rows.length;
+            this.rows = rows;
+            this.departureSecond = new int[n];
+            this.priceCents = new long[n];
+            this.busType = new int[n];
+            this.operator = new int[n];
+            this.availableSeats = new int[n];
+            for (int i = 0; i < n; i++) {
+                TripSearchRow row = rows[i];
+                departureSecond[i] = row.departureTime().toLocalTime().toSecondOfDay();
+                priceCents[i] = toCents(row.price(), RoundingMode.HALF_UP);
+                busType[i] = index.busTypeCode(row.busType());
+                operator[i] = index.operatorCode(row.operatorId());
+                availableSeats[i] = row.availableSeats();
+            }
+        }
+
+        static Bucket of(TripSearchRow[] rows, TripSearchIndex index) {
+            return new Bucket(rows, index);
+        }
+
+        void collect(Filter f, List<TripSearchRow> out) {
+            for (int i = 0; i < rows.length; i++) {
+                if (availableSeats[i] < f.minSeats) continue;
+                if (priceCents[i] < f.minPrice || priceCents[i] > f.maxPrice) continue;
+                if (f.busType >= 0 && busType[i] != f.busType) continue;
+                if (f.operator >= 0 && operator[i] != f.operator) continue;
+                if (departureSecond[i] < f.fromSecond || departureSecond[i] > f.toSecond) continue;
+                out.add(rows[i]);
+            }
+        }
+
+        Bucket with(TripSearchRow row, TripSearchIndex index) {
+            TripSearchRow[] copy = Arrays.copyOf(rows, rows.length + 1);
+            copy[rows.length] = row;
+            return new Bucket(copy, index);
+        }
+
+        Bucket without(UUID tripId, TripSearchIndex index) {
+            TripSearchRow[] copy = Arrays.stream(rows)
+                    .filter(r -> !r.tripId().equals(tripId))
+                    .toArray(TripSearchRow[]::new);
+            return copy.length == 0 ? null : new Bucket(copy, index);
+        }
+
+        Bucket withAvailableSeats(UUID tripId, int seats) {
+            TripSearchRow[] copy = rows.clone();
+            for (int i = 0; i < copy.length; i++) {
+                if (copy[i].tripId().equals(tripId)) {
+                    copy[i] = copy[i].withAvailableSeats(seats);
+                }
+            }
+            return new Bucket(copy, this);
+        }
+
+        // Only the seat column changes, so the other columns can be shared
+        private Bucket(TripSearchRow[] rows, Bucket source) {
+            this.rows = rows;
+            this.departureSecond = source.departureSecond;
+            this.priceCents = source.priceCents;
+            this.busType = source.busType;
+            this.operator = source.operator;
+            this.availableSeats = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                availableSeats[i] = rows[i].availableSeats();
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.booking.bookingService.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -26,6 +25,8 @@ public class Bus {
 
     private int seatCapacity;
 
-    @OneToMany(mappedBy = "bus")
-    private List<Seat> seats;
+    // Seats come from a layout template shared with the other buses of the same model
+    @ManyToOne
+    @JoinColumn(name = "layout_id")
+    private SeatLayout layout;
 }
\ No newline at end of file
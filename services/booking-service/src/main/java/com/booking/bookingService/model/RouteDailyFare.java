@@ -0,0 +1,35 @@
+package com.booking.bookingService.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Precomputed per (route, day) aggregate behind the fare calendar.
+ * Maintained by FareCalendarService whenever trips or seat availability change.
+ */
+@Entity
+@Table(name = "route_daily_fare")
+@IdClass(RouteDailyFare.Key.class)
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class RouteDailyFare {
+    @Id
+    private UUID routeId;
+
+    @Id
+    private LocalDate travelDate;
+
+    // Cheapest trip that still has seats; null when the day is sold out
+    private BigDecimal minPrice;
+    private int availableSeats;
+    private int tripCount;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID routeId;
+        private LocalDate travelDate;
+    }
+}
@@ -14,10 +14,11 @@ public class Seat {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // The layout template the seat belongs to, shared by all buses using it
     @ManyToOne
-    @JoinColumn(name = "bus_id")
+    @JoinColumn(name = "layout_id")
     @JsonIgnore
-    private Bus bus;
+    private SeatLayout layout;
 
     private String seatCode; // e.g., A1, B2
     private int gridRow;    // Vertical position (1, 2, 3...)
@@ -0,0 +1,29 @@
+package com.booking.bookingService.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A seat layout template, shared by every bus with the same seats (typically one per bus model).
+ */
+@Entity
+@Table(name = "seat_layout")
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class SeatLayout {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private String name; // e.g., "Hyundai Universe 45"
+
+    // Bumped whenever the seats change; part of the seat map ETag
+    private long version;
+
+    // Excluded so a bus (which embeds its layout) does not hash or print every seat
+    @OneToMany(mappedBy = "layout")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<Seat> seats;
+}
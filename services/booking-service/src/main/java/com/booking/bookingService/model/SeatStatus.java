@@ -2,6 +2,7 @@ package com.booking.bookingService.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
@@ -23,5 +24,14 @@ public class SeatStatus {
     @Enumerated(EnumType.STRING)
     private SeatState state; // AVAILABLE, LOCKED, BOOKED
 
+    // Set while the seat is LOCKED by a checkout hold
+    private UUID holdId;
+    private String lockedBy;
+    private LocalDateTime lockedUntil;
+
+    // Set once the seat is BOOKED
+    private UUID bookingId;
+    private String bookedBy;
+
     public enum SeatState { AVAILABLE, LOCKED, BOOKED }
 }
\ No newline at end of file
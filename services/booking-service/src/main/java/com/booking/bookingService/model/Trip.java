@@ -34,7 +34,9 @@ public class Trip {
     private BigDecimal price;
 
     // Cached count of available seats for performant searching
-    // This should be updated transactionally whenever a booking occurs
+    // Written on insert only; afterwards AvailabilityCounters applies deltas over JDBC, so saving
+    // a loaded trip must not write back the count it happened to read
+    @Column(updatable = false)
     private int availableSeats;
 
     @Enumerated(EnumType.STRING)
@@ -2,15 +2,30 @@ package com.booking.bookingService.repository;
 
 import com.booking.bookingService.model.Bus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface BusRepository extends JpaRepository<Bus, UUID> {
     // Tìm tất cả xe của một nhà xe cụ thể
     List<Bus> findByOperatorId(UUID operatorId);
+
+    @Query("SELECT b.layout.id FROM Bus b WHERE b.id = :busId")
+    Optional<UUID> findLayoutIdById(@Param("busId") UUID busId);
+
+    // Locks every bus using the layout (in id order, like single-bus locks), so no trip is created
+    // against a layout that is being changed
+    @Query(value = "SELECT id FROM bus WHERE layout_id = :layoutId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<UUID> lockIdsByLayoutId(@Param("layoutId") UUID layoutId);
+
+    // Serializes trip creation per bus so two requests cannot both pass the conflict check
+    @Query(value = "SELECT id FROM bus WHERE id = :busId FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(@Param("busId") UUID busId);
     
     // Tìm xe theo biển số
     // Optional<Bus> findByPlateNumber(String plateNumber);
@@ -5,10 +5,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OperatorRepository extends JpaRepository<Operator, UUID> {
     // Có thể thêm method tìm kiếm theo tên nếu cần
     List<Operator> findByName(String name);
+
+    // Operator staff sign in with the operator's contact email
+    Optional<Operator> findByContactEmail(String contactEmail);
 }
\ No newline at end of file
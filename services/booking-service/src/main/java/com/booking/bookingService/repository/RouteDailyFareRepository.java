@@ -0,0 +1,93 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.dto.FareCalendarDay;
+import com.booking.bookingService.model.RouteDailyFare;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RouteDailyFareRepository extends JpaRepository<RouteDailyFare, RouteDailyFare.Key> {
+
+    // Calendar read: one range scan on the (route_id, travel_date) primary key
+    @Query("SELECT new com.booking.bookingService.dto.FareCalendarDay(" +
+           "f.travelDate, MIN(f.minPrice), SUM(f.availableSeats), SUM(f.tripCount)) " +
+           "FROM RouteDailyFare f, Route r " +
+           "WHERE r.id = f.routeId " +
+           "AND lower(r.origin) = lower(:origin) AND lower(r.destination) = lower(:destination) " +
+           "AND f.travelDate BETWEEN :from AND :to " +
+           "GROUP BY f.travelDate ORDER BY f.travelDate")
+    List<FareCalendarDay> findCalendar(
+            @Param("origin") String origin,
+            @Param("destination") String destination,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // Recomputes the single (route, day) aggregate from the trips of that day
+    @Modifying
+    @Query(value = "INSERT INTO route_daily_fare (route_id, travel_date, min_price, available_seats, trip_count) " +
+                   "SELECT :routeId, :day, " +
+                   "MIN(t.price) FILTER (WHERE t.available_seats > 0), " +
+                   "COALESCE(SUM(t.available_seats), 0), COUNT(t.id) " +
+                   "FROM trip t " +
+                   "WHERE t.route_id = :routeId AND t.status <> 'CANCELLED' " +
+                   "AND t.departure_time >= CAST(:day AS timestamp) " +
+                   "AND t.departure_time < CAST(:day AS timestamp) + INTERVAL '1 day' " +
+                   "ON CONFLICT (route_id, travel_date) DO UPDATE SET " +
+                   "min_price = EXCLUDED.min_price, available_seats = EXCLUDED.available_seats, " +
+                   "trip_count = EXCLUDED.trip_count",
+           nativeQuery = true)
+    int refresh(@Param("routeId") UUID routeId, @Param("day") LocalDate day);
+
+    // Same as refresh, resolving (route, day) from a trip id in the same statement
+    @Modifying
+    @Query(value = "INSERT INTO route_daily_fare (route_id, travel_date, min_price, available_seats, trip_count) " +
+                   "SELECT x.route_id, CAST(x.day AS date), " +
+                   "MIN(t.price) FILTER (WHERE t.available_seats > 0), " +
+                   "COALESCE(SUM(t.available_seats), 0), COUNT(t.id) " +
+                   "FROM (SELECT route_id, date_trunc('day', departure_time) AS day FROM trip WHERE id = :tripId) x " +
+                   "LEFT JOIN trip t ON t.route_id = x.route_id AND t.status <> 'CANCELLED' " +
+                   "AND t.departure_time >= x.day AND t.departure_time < x.day + INTERVAL '1 day' " +
+                   "GROUP BY x.route_id, x.day " +
+                   "ON CONFLICT (route_id, travel_date) DO UPDATE SET " +
+                   "min_price = EXCLUDED.min_price, available_seats = EXCLUDED.available_seats, " +
+                   "trip_count = EXCLUDED.trip_count",
+           nativeQuery = true)
+    int refreshForTrip(@Param("tripId") UUID tripId);
+
+    // Full rebuild for every day from :from onwards, in place: only aggregates that differ are
+    // written, in key order so replicas rebuilding at the same time do not deadlock
+    @Modifying
+    @Query(value = "INSERT INTO route_daily_fare (route_id, travel_date, min_price, available_seats, trip_count) " +
+                   "SELECT t.route_id, CAST(t.departure_time AS date), " +
+                   "MIN(t.price) FILTER (WHERE t.available_seats > 0), " +
+                   "SUM(t.available_seats), COUNT(*) " +
+                   "FROM trip t " +
+                   "WHERE t.status <> 'CANCELLED' AND t.departure_time >= CAST(:from AS timestamp) " +
+                   "GROUP BY t.route_id, CAST(t.departure_time AS date) " +
+                   "ORDER BY 1, 2 " +
+                   "ON CONFLICT (route_id, travel_date) DO UPDATE SET " +
+                   "min_price = EXCLUDED.min_price, available_seats = EXCLUDED.available_seats, " +
+                   "trip_count = EXCLUDED.trip_count " +
+                   "WHERE (route_daily_fare.min_price, route_daily_fare.available_seats, route_daily_fare.trip_count) " +
+                   "IS DISTINCT FROM (EXCLUDED.min_price, EXCLUDED.available_seats, EXCLUDED.trip_count)",
+           nativeQuery = true)
+    int upsertFrom(@Param("from") LocalDate from);
+
+    // Rest of the rebuild: past days, and days left without a running trip
+    @Modifying
+    @Query(value = "DELETE FROM route_daily_fare f " +
+                   "WHERE f.travel_date < :from OR NOT EXISTS (SELECT 1 FROM trip t " +
+                   "WHERE t.route_id = f.route_id AND t.status <> 'CANCELLED' " +
+                   "AND t.departure_time >= CAST(f.travel_date AS timestamp) " +
+                   "AND t.departure_time < CAST(f.travel_date AS timestamp) + INTERVAL '1 day')",
+           nativeQuery = true)
+    int deleteStale(@Param("from") LocalDate from);
+}
@@ -0,0 +1,21 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.model.SeatLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SeatLayoutRepository extends JpaRepository<SeatLayout, UUID> {
+
+    @Query("SELECT l.version FROM SeatLayout l WHERE l.id = :layoutId")
+    Optional<Long> findVersionById(@Param("layoutId") UUID layoutId);
+
+    // Serializes seat changes of one layout
+    @Query(value = "SELECT id FROM seat_layout WHERE id = :layoutId FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(@Param("layoutId") UUID layoutId);
+}
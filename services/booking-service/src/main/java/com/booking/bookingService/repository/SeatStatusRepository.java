@@ -1,10 +1,216 @@
 package com.booking.bookingService.repository;
 
+import com.booking.bookingService.dto.SeatStateRow;
 import com.booking.bookingService.model.SeatStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * seat_status may be sparse: a seat without a row for the trip is AVAILABLE (see
+ * booking.seat-status.dense). Every query here treats a missing row and an AVAILABLE row alike,
+ * so trips written in either form, or a mix of both, read and change the same way.
+ */
 public interface SeatStatusRepository extends JpaRepository<SeatStatus, UUID> {
     List<SeatStatus> findByTripId(UUID tripId);
-}
\ No newline at end of file
+
+    // Hard delete of a trip: one statement instead of loading and deleting row by row
+    @Modifying
+    @Query(value = "DELETE FROM seat_status WHERE trip_id = :tripId", nativeQuery = true)
+    int deleteAllForTrip(@Param("tripId") UUID tripId);
+
+    // --- Seat map changes ---
+
+    // Seats about to be removed from a bus that a passenger holds or booked on a trip still to run
+    @Query(value = "SELECT DISTINCT s.seat_id FROM seat_status s JOIN trip t ON t.id = s.trip_id " +
+                   "WHERE s.seat_id IN (:seatIds) AND s.state <> 'AVAILABLE' " +
+                   "AND t.status <> 'CANCELLED' AND t.departure_time > :now",
+           nativeQuery = true)
+    List<UUID> findTakenOnUpcomingTrips(@Param("seatIds") Collection<UUID> seatIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM seat_status WHERE seat_id IN (:seatIds) AND state = 'AVAILABLE'", nativeQuery = true)
+    int deleteAvailableForSeats(@Param("seatIds") Collection<UUID> seatIds);
+
+    // What is left on removed seats belongs to departed or cancelled trips: keep the rows, drop the seat
+    @Modifying
+    @Query(value = "UPDATE seat_status SET seat_id = NULL WHERE seat_id IN (:seatIds)", nativeQuery = true)
+    int detachSeats(@Param("seatIds") Collection<UUID> seatIds);
+
+    // Purge of cancelled trips not yet marked purged, one bounded chunk; BOOKED rows stay as the
+    // record of who to refund
+    @Query(value = "DELETE FROM seat_status " +
+                   "WHERE id IN (SELECT s.id FROM seat_status s JOIN trip t ON t.id = s.trip_id " +
+                   "WHERE t.status = 'CANCELLED' AND t.purged_at IS NULL AND s.state <> 'BOOKED' " +
+                   "LIMIT :batchSize FOR UPDATE OF s SKIP LOCKED) " +
+                   "RETURNING trip_id",
+           nativeQuery = true)
+    List<UUID> purgeCancelledTrips(@Param("batchSize") int batchSize);
+
+    // Seat state store load: (seat, state) pairs only, no entity graph; absent seats are AVAILABLE
+    @Query("SELECT new com.booking.bookingService.dto.SeatStateRow(s.seat.id, s.state) " +
+           "FROM SeatStatus s WHERE s.trip.id = :tripId")
+    List<SeatStateRow> findStatesByTripId(@Param("tripId") UUID tripId);
+
+    // Seat state store revalidation: (trip, seat, state) of every row of the given trips
+    @Query("SELECT s.trip.id, s.seat.id, s.state FROM SeatStatus s WHERE s.trip.id IN :tripIds")
+    List<Object[]> findStatesByTripIds(@Param("tripIds") Collection<UUID> tripIds);
+
+    // --- Checkout holds ---
+
+    // Upsert: creates the row of a seat that has none, or takes over an AVAILABLE one. The trip row
+    // is key-share locked, so a bus change (which locks it for update) never misses this hold
+    @Modifying
+    @Query(value = "INSERT INTO seat_status (id, trip_id, seat_id, state, hold_id, locked_by, locked_until) " +
+                   "SELECT gen_random_uuid(), :tripId, s.id, 'LOCKED', :holdId, :lockedBy, :lockedUntil " +
+                   "FROM seat s JOIN bus b ON b.layout_id = s.layout_id JOIN trip t ON t.bus_id = b.id " +
+                   "WHERE t.id = :tripId AND t.status <> 'CANCELLED' AND s.id IN (:seatIds) " +
+                   "FOR KEY SHARE OF t " +
+                   "ON CONFLICT (trip_id, seat_id) DO UPDATE SET state = 'LOCKED', hold_id = EXCLUDED.hold_id, " +
+                   "locked_by = EXCLUDED.locked_by, locked_until = EXCLUDED.locked_until " +
+                   "WHERE seat_status.state = 'AVAILABLE'",
+           nativeQuery = true)
+    int lockSeats(
+            @Param("tripId") UUID tripId,
+            @Param("seatIds") List<UUID> seatIds,
+            @Param("holdId") UUID holdId,
+            @Param("lockedBy") String lockedBy,
+            @Param("lockedUntil") LocalDateTime lockedUntil
+    );
+
+    @Modifying
+    @Query(value = "UPDATE seat_status SET state = 'AVAILABLE', hold_id = NULL, locked_by = NULL, locked_until = NULL " +
+                   "WHERE trip_id = :tripId AND seat_id IN (:seatIds) AND hold_id = :holdId AND state = 'LOCKED'",
+           nativeQuery = true)
+    int releaseSeats(
+            @Param("tripId") UUID tripId,
+            @Param("seatIds") List<UUID> seatIds,
+            @Param("holdId") UUID holdId
+    );
+
+    // Sparse form of releaseSeats: the row goes away instead of turning AVAILABLE
+    @Modifying
+    @Query(value = "DELETE FROM seat_status " +
+                   "WHERE trip_id = :tripId AND seat_id IN (:seatIds) AND hold_id = :holdId AND state = 'LOCKED'",
+           nativeQuery = true)
+    int deleteReleasedSeats(
+            @Param("tripId") UUID tripId,
+            @Param("seatIds") List<UUID> seatIds,
+            @Param("holdId") UUID holdId
+    );
+
+    @Query(value = "SELECT seat_id FROM seat_status " +
+                   "WHERE trip_id = :tripId AND hold_id = :holdId AND locked_by = :lockedBy AND state = 'LOCKED'",
+           nativeQuery = true)
+    List<UUID> findHeldSeatIds(
+            @Param("tripId") UUID tripId,
+            @Param("holdId") UUID holdId,
+            @Param("lockedBy") String lockedBy
+    );
+
+    // Expiry of the holds due in one timer wheel tick; returns (trip_id, seat_id) of every released seat
+    @Query(value = "UPDATE seat_status SET state = 'AVAILABLE', hold_id = NULL, locked_by = NULL, locked_until = NULL " +
+                   "WHERE hold_id IN (:holdIds) AND state = 'LOCKED' AND locked_until <= :now " +
+                   "RETURNING trip_id, seat_id",
+           nativeQuery = true)
+    List<Object[]> releaseExpiredHolds(@Param("holdIds") Collection<UUID> holdIds, @Param("now") LocalDateTime now);
+
+    // Safety net for holds this node does not know about (other replicas, restarts)
+    @Query(value = "UPDATE seat_status SET state = 'AVAILABLE', hold_id = NULL, locked_by = NULL, locked_until = NULL " +
+                   "WHERE id IN (SELECT id FROM seat_status WHERE state = 'LOCKED' AND locked_until <= :now " +
+                   "LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING trip_id, seat_id",
+           nativeQuery = true)
+    List<Object[]> releaseAllExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    // Sparse forms of the two expiries above
+    @Query(value = "DELETE FROM seat_status " +
+                   "WHERE hold_id IN (:holdIds) AND state = 'LOCKED' AND locked_until <= :now " +
+                   "RETURNING trip_id, seat_id",
+           nativeQuery = true)
+    List<Object[]> deleteExpiredHolds(@Param("holdIds") Collection<UUID> holdIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "DELETE FROM seat_status " +
+                   "WHERE id IN (SELECT id FROM seat_status WHERE state = 'LOCKED' AND locked_until <= :now " +
+                   "LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING trip_id, seat_id",
+           nativeQuery = true)
+    List<Object[]> deleteAllExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    // --- Booking confirmation ---
+
+    /**
+     * Books all requested seats or none, in one statement.
+     *
+     * target locks the requested rows that are AVAILABLE or LOCKED by this buyer's hold, skipping
+     * rows another transaction is changing right now (they count as conflicts, nobody waits).
+     * Requested seats of the trip's bus that have no row at all are free too (sparse storage).
+     * The trip row is key-share locked, like in lockSeats, so a concurrent bus change waits.
+     * Nothing is booked on a cancelled trip.
+     * Seats are only written when every requested seat is one of those: existing rows are updated,
+     * missing ones inserted. The trip's seat count is not touched here; callers apply it through
+     * AvailabilityCounters.
+     *
+     * Rows: (seat_id, previous_state, all_ok, seats_written); requested seats missing from the
+     * result are conflicts. If all_ok but seats_written is short, another buyer inserted one of the
+     * missing rows first and the caller must roll back.
+     */
+    @Query(value = "WITH requested AS (" +
+                   "  SELECT s.id AS seat_id FROM seat s JOIN bus b ON b.layout_id = s.layout_id JOIN trip t ON t.bus_id = b.id" +
+                   "  WHERE t.id = :tripId AND s.id IN (:seatIds)" +
+                   "  FOR KEY SHARE OF t" +
+                   "), present AS (" +
+                   "  SELECT seat_id FROM seat_status WHERE trip_id = :tripId AND seat_id IN (:seatIds)" +
+                   "), target AS (" +
+                   "  SELECT id, seat_id, state FROM seat_status" +
+                   "  WHERE trip_id = :tripId AND seat_id IN (:seatIds)" +
+                   "    AND (state = 'AVAILABLE'" +
+                   "         OR (state = 'LOCKED' AND hold_id = CAST(:holdId AS uuid) AND locked_by = :buyer))" +
+                   "  FOR UPDATE SKIP LOCKED" +
+                   "), absent AS (" +
+                   "  SELECT seat_id FROM requested WHERE seat_id NOT IN (SELECT seat_id FROM present)" +
+                   "), candidate AS (" +
+                   "  SELECT seat_id, state FROM target" +
+                   "  UNION ALL" +
+                   "  SELECT seat_id, CAST('AVAILABLE' AS varchar) FROM absent" +
+                   "), ok AS (" +
+                   "  SELECT count(*) = :seatCount" +
+                   "         AND EXISTS (SELECT 1 FROM trip WHERE id = :tripId AND status <> 'CANCELLED') AS all_ok" +
+                   "  FROM candidate" +
+                   "), booked AS (" +
+                   "  UPDATE seat_status s SET state = 'BOOKED', booking_id = :bookingId, booked_by = :buyer," +
+                   "         hold_id = NULL, locked_by = NULL, locked_until = NULL" +
+                   "  FROM target t, ok WHERE s.id = t.id AND ok.all_ok" +
+                   "  RETURNING s.id" +
+                   "), inserted AS (" +
+                   "  INSERT INTO seat_status (id, trip_id, seat_id, state, booking_id, booked_by)" +
+                   "  SELECT gen_random_uuid(), :tripId, a.seat_id, 'BOOKED', :bookingId, :buyer" +
+                   "  FROM absent a, ok WHERE ok.all_ok" +
+                   "  ON CONFLICT (trip_id, seat_id) DO NOTHING" +
+                   "  RETURNING id" +
+                   ") " +
+                   "SELECT c.seat_id, c.state, ok.all_ok," +
+                   "       (SELECT count(*) FROM booked) + (SELECT count(*) FROM inserted) " +
+                   "FROM candidate c CROSS JOIN ok",
+           nativeQuery = true)
+    List<Object[]> bookSeats(
+            @Param("tripId") UUID tripId,
+            @Param("seatIds") List<UUID> seatIds,
+            @Param("seatCount") long seatCount,
+            @Param("holdId") UUID holdId,
+            @Param("buyer") String buyer,
+            @Param("bookingId") UUID bookingId
+    );
+
+    // (hold_id, locked_until) of every live hold, to re-arm the timer wheel after a restart
+    @Query(value = "SELECT hold_id, MIN(locked_until) FROM seat_status " +
+                   "WHERE state = 'LOCKED' AND hold_id IS NOT NULL GROUP BY hold_id",
+           nativeQuery = true)
+    List<Object[]> findActiveHolds();
+}
@@ -1,18 +1,26 @@
 package com.booking.bookingService.repository;
 
+import com.booking.bookingService.dto.TripSearchRow;
 import com.booking.bookingService.model.Trip;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TripRepository extends JpaRepository<Trip, UUID>, JpaSpecificationExecutor<Trip> {
+public interface TripRepository extends JpaRepository<Trip, UUID>, JpaSpecificationExecutor<Trip>, TripSearchRepository {
     
     @Query("SELECT t FROM Trip t " +
            "WHERE t.bus.id = :busId " +
@@ -23,4 +31,97 @@ public interface TripRepository extends JpaRepository<Trip, UUID>, JpaSpecificat
             @Param("startTime") LocalDateTime startTime, 
             @Param("endTime") LocalDateTime endTime
     );
+
+    // (departure_time, arrival_time) of the bus's trips overlapping the window, for in-memory conflict checks
+    @Query("SELECT t.departureTime, t.arrivalTime FROM Trip t " +
+           "WHERE t.bus.id = :busId " +
+           "AND t.status != 'CANCELLED' " +
+           "AND t.departureTime < :endTime AND t.arrivalTime > :startTime")
+    List<Object[]> findBusyIntervals(
+            @Param("busId") UUID busId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    // Buses among the given ones with a non-cancelled trip overlapping the window (idx_trip_bus_departure_arrival)
+    @Query("SELECT DISTINCT t.bus.id FROM Trip t " +
+           "WHERE t.bus.id IN :busIds " +
+           "AND t.status != 'CANCELLED' " +
+           "AND t.departureTime < :endTime AND t.arrivalTime > :startTime")
+    List<UUID> findBusyBusIds(
+            @Param("busIds") Collection<UUID> busIds,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    @Query("SELECT t.availableSeats FROM Trip t WHERE t.id = :tripId")
+    Optional<Integer> findAvailableSeatsById(@Param("tripId") UUID tripId);
+
+    @Query("SELECT t.bus.id FROM Trip t WHERE t.id = :tripId")
+    Optional<UUID> findBusIdById(@Param("tripId") UUID tripId);
+
+    // Held by a bus change for its whole seat remap; holds and bookings key-share lock the row
+    @Query(value = "SELECT id FROM trip WHERE id = :tripId FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(@Param("tripId") UUID tripId);
+
+    // Flat rows for the in-memory search index, one statement with no entity hydration
+    @Query("SELECT new com.booking.bookingService.dto.TripSearchRow(" +
+           "t.id, r.id, r.origin, r.destination, r.estimatedMinutes, o.id, o.name, o.rating, " +
+           "b.id, b.model, b.type, b.seatCapacity, " +
+           "t.departureTime, t.arrivalTime, t.price, t.availableSeats, t.status) " +
+           "FROM Trip t JOIN t.route r JOIN t.bus b LEFT JOIN t.operator o " +
+           "WHERE t.departureTime >= :from " +
+           "AND t.status != 'CANCELLED'")
+    List<TripSearchRow> findSearchRowsDepartingFrom(@Param("from") LocalDateTime from);
+
+    // Scheduled trips matched by a bulk cancellation, as rows for the trip change events
+    @Query("SELECT new com.booking.bookingService.dto.TripSearchRow(" +
+           "t.id, r.id, r.origin, r.destination, r.estimatedMinutes, o.id, o.name, o.rating, " +
+           "b.id, b.model, b.type, b.seatCapacity, " +
+           "t.departureTime, t.arrivalTime, t.price, t.availableSeats, t.status) " +
+           "FROM Trip t JOIN t.route r JOIN t.bus b LEFT JOIN t.operator o " +
+           "WHERE t.status = 'SCHEDULED' " +
+           "AND t.departureTime >= :from " +
+           "AND (:to IS NULL OR t.departureTime < :to) " +
+           "AND (:busId IS NULL OR b.id = :busId) " +
+           "AND (:operatorId IS NULL OR o.id = :operatorId)")
+    List<TripSearchRow> findSearchRowsToCancel(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("busId") UUID busId,
+            @Param("operatorId") UUID operatorId
+    );
+
+    @Modifying
+    @Query("UPDATE Trip t SET t.status = 'CANCELLED' WHERE t.id IN :tripIds AND t.status = 'SCHEDULED'")
+    int cancelAll(@Param("tripIds") Collection<UUID> tripIds);
+
+    // Cancelled trips left with bookings only drop out of the purge's pending index
+    @Modifying
+    @Query(value = "UPDATE trip t SET purged_at = now() " +
+                   "WHERE t.status = 'CANCELLED' AND t.purged_at IS NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM seat_status s WHERE s.trip_id = t.id AND s.state <> 'BOOKED')",
+           nativeQuery = true)
+    int markCancelledTripsPurged();
+
+    // Partner export: read through a server-side cursor so memory stays flat; the caller must
+    // consume the stream inside a transaction (the PostgreSQL driver only honours the fetch size there)
+    @Query("SELECT new com.booking.bookingService.dto.TripSearchRow(" +
+           "t.id, r.id, r.origin, r.destination, r.estimatedMinutes, o.id, o.name, o.rating, " +
+           "b.id, b.model, b.type, b.seatCapacity, " +
+           "t.departureTime, t.arrivalTime, t.price, t.availableSeats, t.status) " +
+           "FROM Trip t JOIN t.route r JOIN t.bus b LEFT JOIN t.operator o " +
+           "WHERE t.departureTime >= :from " +
+           "AND (:to IS NULL OR t.departureTime < :to) " +
+           "AND (:operatorId IS NULL OR o.id = :operatorId) " +
+           "ORDER BY t.departureTime, t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TripSearchRow> streamExportRows(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("operatorId") UUID operatorId
+    );
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.dto.TripFacetRow;
+import com.booking.bookingService.dto.TripSearchCursor;
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.dto.TripSearchSort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Search read path that selects only the columns of {@link TripSearchRow}
+ * instead of hydrating Trip, Route, Bus and Operator entities.
+ */
+public interface TripSearchRepository {
+
+    // One statement per page; hasNext is derived by fetching one extra row
+    Slice<TripSearchRow> searchRows(TripSearchRequest request, TripSearchSort sort, Pageable pageable);
+
+    // Keyset mode: resumes strictly after the cursor (or from the start when null), never uses OFFSET
+    Slice<TripSearchRow> seekRows(TripSearchRequest request, TripSearchSort sort, TripSearchCursor after, int limit);
+
+    // Narrow rows for facet counting, every match in one statement
+    List<TripFacetRow> facetRows(TripSearchRequest request);
+
+    // Separate count, only for callers that really need the total
+    long countRows(TripSearchRequest request);
+}
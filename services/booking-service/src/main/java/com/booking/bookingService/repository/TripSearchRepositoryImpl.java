@@ -0,0 +1,251 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.dto.TripFacetRow;
+import com.booking.bookingService.dto.TripSearchCursor;
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.dto.TripSearchSort;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Trip;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TripSearchRepositoryImpl implements TripSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TripSearchRow> searchRows(TripSearchRequest request, TripSearchSort sort, Pageable pageable) {
+        return selectRows(request, sort, null, (int) pageable.getOffset(), pageable);
+    }
+
+    @Override
+    public Slice<TripSearchRow> seekRows(TripSearchRequest request, TripSearchSort sort, TripSearchCursor after, int limit) {
+        return selectRows(request, sort, after, 0, PageRequest.of(0, limit));
+    }
+
+    private Slice<TripSearchRow> selectRows(TripSearchRequest request, TripSearchSort sort, TripSearchCursor after,
+                                            int offset, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TripSearchRow> query = cb.createQuery(TripSearchRow.class);
+        Root<Trip> trip = query.from(Trip.class);
+        Join<Trip, Route> route = trip.join("route");
+        Join<Trip, Bus> bus = trip.join("bus");
+        Join<Trip, Operator> operator = trip.join("operator", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>(List.of(predicates(request, cb, trip, route, bus, operator)));
+        if (after != null) {
+            predicates.add(seekPredicate(after, sort, cb, trip, operator));
+        }
+
+        query.select(cb.construct(TripSearchRow.class,
+                        trip.get("id"), route.get("id"), route.get("origin"), route.get("destination"),
+                        route.get("estimatedMinutes"), operator.get("id"), operator.get("name"), operator.get("rating"),
+                        bus.get("id"), bus.get("model"), bus.get("type"), bus.get("seatCapacity"),
+                        trip.get("departureTime"), trip.get("arrivalTime"), trip.get("price"),
+                        trip.get("availableSeats"), trip.get("status")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders(sort, cb, trip, operator));
+
+        int pageSize = pageable.getPageSize();
+        List<TripSearchRow> rows = entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageSize;
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageSize) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<TripFacetRow> facetRows(TripSearchRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TripFacetRow> query = cb.createQuery(TripFacetRow.class);
+        Root<Trip> trip = query.from(Trip.class);
+        Join<Trip, Route> route = trip.join("route");
+        Join<Trip, Bus> bus = trip.join("bus");
+        Join<Trip, Operator> operator = trip.join("operator", JoinType.LEFT);
+
+        query.select(cb.construct(TripFacetRow.class,
+                        bus.get("type"), operator.get("id"), operator.get("name"),
+                        trip.get("departureTime"), trip.get("price")))
+                .where(predicates(request, cb, trip, route, bus, operator));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public long countRows(TripSearchRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Trip> trip = query.from(Trip.class);
+        Join<Trip, Route> route = trip.join("route");
+        Join<Trip, Bus> bus = trip.join("bus");
+        Join<Trip, Operator> operator = trip.join("operator", JoinType.LEFT);
+
+        query.select(cb.count(trip))
+                .where(predicates(request, cb, trip, route, bus, operator));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate[] predicates(TripSearchRequest request, CriteriaBuilder cb, Root<Trip> trip,
+                                   Join<Trip, Route> route, Join<Trip, Bus> bus, Join<Trip, Operator> operator) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        // Cancelled trips are never offered
+        predicates.add(cb.notEqual(trip.get("status"), Trip.TripStatus.CANCELLED));
+
+        // 1. Origin
+        if (request.getOrigin() != null && !request.getOrigin().isEmpty()) {
+            String originPattern = "%" + request.getOrigin().toLowerCase() + "%";
+            predicates.add(cb.like(cb.lower(route.get("origin")), originPattern));
+        }
+
+        // 2. Destination
+        if (request.getDestination() != null && !request.getDestination().isEmpty()) {
+            String destPattern = "%" + request.getDestination().toLowerCase() + "%";
+            predicates.add(cb.like(cb.lower(route.get("destination")), destPattern));
+        }
+
+        // 3. Date (Specific Day)
+        if (request.getDate() != null) {
+            LocalDateTime startOfDay = request.getDate().atStartOfDay();
+            LocalDateTime endOfDay = request.getDate().atTime(LocalTime.MAX);
+            predicates.add(cb.between(trip.get("departureTime"), startOfDay, endOfDay));
+        }
+
+        // 4. Passenger Capacity
+        if (request.getPassengers() != null && request.getPassengers() > 0) {
+            predicates.add(cb.greaterThanOrEqualTo(trip.get("availableSeats"), request.getPassengers()));
+        }
+
+        // 5. Bus Type
+        if (request.getBusType() != null && !request.getBusType().isEmpty()) {
+            predicates.add(cb.equal(cb.lower(bus.get("type")), request.getBusType().toLowerCase()));
+        }
+
+        // 6. Price Range
+        if (request.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(trip.get("price"), request.getMinPrice()));
+        }
+        if (request.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(trip.get("price"), request.getMaxPrice()));
+        }
+
+        // 7. Operator Filter
+        if (request.getOperatorId() != null) {
+            predicates.add(cb.equal(operator.get("id"), request.getOperatorId()));
+        }
+
+        // 8. Departure Time Slots
+        if (request.getDepartureTime() != null && request.getDate() != null) {
+            LocalDateTime baseDate = request.getDate().atStartOfDay();
+            LocalDateTime startTime = null;
+            LocalDateTime endTime = null;
+
+            switch (request.getDepartureTime().toLowerCase()) {
+                case "morning": // 06:00 - 11:59
+                    startTime = baseDate.withHour(6);
+                    endTime = baseDate.withHour(11).withMinute(59);
+                    break;
+                case "afternoon": // 12:00 - 17:59
+                    startTime = baseDate.withHour(12);
+                    endTime = baseDate.withHour(17).withMinute(59);
+                    break;
+                case "evening": // 18:00 - 20:59
+                    startTime = baseDate.withHour(18);
+                    endTime = baseDate.withHour(20).withMinute(59);
+                    break;
+                case "night": // 21:00 - 23:59
+                    startTime = baseDate.withHour(21);
+                    endTime = baseDate.withHour(23).withMinute(59);
+                    break;
+            }
+
+            if (startTime != null) {
+                predicates.add(cb.between(trip.get("departureTime"), startTime, endTime));
+            }
+        }
+
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * "Row comes after the cursor" for the given sort, expanded into plain comparisons
+     * on the same keys as {@link #orders}.
+     */
+    private Predicate seekPredicate(TripSearchCursor after, TripSearchSort sort, CriteriaBuilder cb,
+                                    Root<Trip> trip, Join<Trip, Operator> operator) {
+        Expression<LocalDateTime> departure = trip.get("departureTime");
+        Expression<UUID> id = trip.get("id");
+        LocalDateTime lastDeparture = after.departureTime();
+        UUID lastId = after.tripId();
+
+        switch (sort) {
+            case LATEST:
+                return cb.or(
+                        cb.lessThan(departure, lastDeparture),
+                        cb.and(cb.equal(departure, lastDeparture), cb.lessThan(id, lastId)));
+            case LOWEST_PRICE: {
+                Expression<BigDecimal> price = trip.get("price");
+                return cb.or(
+                        cb.greaterThan(price, after.price()),
+                        cb.and(cb.equal(price, after.price()), cb.greaterThan(departure, lastDeparture)),
+                        cb.and(cb.equal(price, after.price()), cb.equal(departure, lastDeparture),
+                                cb.greaterThan(id, lastId)));
+            }
+            case HIGHEST_RATING: {
+                Expression<Double> rating = cb.coalesce(operator.<Double>get("rating"), -1.0);
+                double lastRating = after.rating() == null ? -1.0 : after.rating();
+                return cb.or(
+                        cb.lessThan(rating, lastRating),
+                        cb.and(cb.equal(rating, lastRating), cb.greaterThan(departure, lastDeparture)),
+                        cb.and(cb.equal(rating, lastRating), cb.equal(departure, lastDeparture),
+                                cb.greaterThan(id, lastId)));
+            }
+            case EARLIEST:
+            default:
+                return cb.or(
+                        cb.greaterThan(departure, lastDeparture),
+                        cb.and(cb.equal(departure, lastDeparture), cb.greaterThan(id, lastId)));
+        }
+    }
+
+    private List<Order> orders(TripSearchSort sort, CriteriaBuilder cb, Root<Trip> trip, Join<Trip, Operator> operator) {
+        // Trip id is always the last key so that pages are stable between requests
+        switch (sort) {
+            case LATEST:
+                return List.of(cb.desc(trip.get("departureTime")), cb.desc(trip.get("id")));
+            case LOWEST_PRICE:
+                return List.of(cb.asc(trip.get("price")), cb.asc(trip.get("departureTime")), cb.asc(trip.get("id")));
+            case HIGHEST_RATING:
+                // Unrated operators go last, same as the in-memory ordering
+                return List.of(cb.desc(cb.coalesce(operator.<Double>get("rating"), -1.0)),
+                        cb.asc(trip.get("departureTime")), cb.asc(trip.get("id")));
+            case EARLIEST:
+            default:
+                return List.of(cb.asc(trip.get("departureTime")), cb.asc(trip.get("id")));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.booking.bookingService.scheduler;
+
+import com.booking.bookingService.seat.HoldExpiryWheel;
+import com.booking.bookingService.service.SeatHoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drives seat hold expiry: advances the timer wheel every tick and releases what came due
+ * in batches, plus a slower database sweep for holds the wheel does not know about.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HoldExpiryScheduler {
+
+    private final HoldExpiryWheel holdExpiryWheel;
+    private final SeatHoldService seatHoldService;
+
+    @Value("${booking.holds.release-batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int holds = seatHoldService.scheduleActiveHolds();
+        log.info("Re-armed {} live seat holds", holds);
+    }
+
+    @Scheduled(fixedRateString = "${booking.holds.tick-ms:1000}")
+    public void expireDueHolds() {
+        List<UUID> due = holdExpiryWheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<UUID> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                seatHoldService.releaseExpired(batch);
+            } catch (RuntimeException e) {
+                // The sweep below picks these up on its next run
+                log.warn("Releasing {} expired holds failed: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.holds.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        int released;
+        do {
+            released = seatHoldService.releaseAllExpired(batchSize);
+        } while (released == batchSize);
+    }
+}
@@ -0,0 +1,36 @@
+package com.booking.bookingService.scheduler;
+
+import com.booking.bookingService.service.TripService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes the leftover seat rows of cancelled trips in bounded chunks, one short transaction
+ * each, so a bulk cancellation never turns into one long delete.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TripPurgeScheduler {
+
+    private final TripService tripService;
+
+    @Value("${booking.trips.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${booking.trips.purge-interval-ms:60000}")
+    public void purgeCancelledTrips() {
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = tripService.purgeCancelled(batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+        if (purged > 0) {
+            log.info("Purged {} seat rows of cancelled trips", purged);
+        }
+    }
+}
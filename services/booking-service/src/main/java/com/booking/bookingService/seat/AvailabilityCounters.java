@@ -0,0 +1,298 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.event.AvailabilityFlushedEvent;
+import com.booking.bookingService.event.SeatAvailabilityChangedEvent;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live available-seat counts per trip, kept off the trip row.
+ *
+ * Seat changes add to a per-trip LongAdder (striped, so concurrent holds on one hot trip do not
+ * contend) and the accumulated deltas are written to trip.available_seats in one JDBC batch per
+ * flush. Deltas are relative, so flushes from several nodes compose. Counters are refreshed from
+ * the trip rows periodically, so other nodes' changes show up here, and dropped once their trip has
+ * departed or was cancelled. A reconciliation pass recomputes the counts from seat_status and
+ * repairs drift that survives two consecutive runs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityCounters {
+
+    private final TripRepository tripRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+    // Reconciliation: trip -> recomputed count that disagreed on the previous run
+    private final Map<UUID, Integer> suspects = new HashMap<>();
+
+    /**
+     * Current count, including changes not yet flushed. Null if the trip does not exist.
+     */
+    public Integer get(UUID tripId) {
+        Counter counter = counterFor(tripId);
+        return counter != null ? counter.current() : null;
+    }
+
+    /**
+     * Tracked count if this node has one, otherwise the given (database) value.
+     */
+    public int overlay(UUID tripId, int persisted) {
+        Counter counter = counters.get(tripId);
+        return counter != null ? counter.current() : persisted;
+    }
+
+    /**
+     * Applies a seat count change made by the current transaction and announces the new count
+     * once it commits. Undone if the transaction rolls back.
+     */
+    public void add(UUID tripId, int delta) {
+        Counter counter = counterFor(tripId);
+        if (counter == null || delta == 0) return;
+
+        counter.add(delta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.pending.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        counter.add(-delta);
+                    }
+                    counter.pending.decrementAndGet();
+                }
+            });
+        }
+        eventPublisher.publishEvent(new SeatAvailabilityChangedEvent(tripId, counter.current()));
+    }
+
+    /**
+     * Changes the count of every upcoming, non-cancelled trip of the buses using the layout by
+     * {@code delta}, e.g. after seats were added to or removed from it. Written to the trip rows directly in
+     * the current transaction (one UPDATE); tracked counters follow, and are undone on rollback.
+     */
+    public void addToUpcomingTrips(UUID layoutId, int delta) {
+        if (delta == 0) return;
+        List<Object[]> rows = jdbcTemplate.query(
+                "UPDATE trip SET available_seats = available_seats + ? " +
+                "WHERE bus_id IN (SELECT id FROM bus WHERE layout_id = ?) AND status <> 'CANCELLED' AND departure_time > ? " +
+                "RETURNING id, available_seats",
+                (rs, i) -> new Object[]{rs.getObject(1, UUID.class), rs.getInt(2)},
+                delta, layoutId, Timestamp.valueOf(LocalDateTime.now()));
+
+        List<Counter> tracked = new ArrayList<>();
+        for (Object[] row : rows) {
+            UUID tripId = (UUID) row[0];
+            Counter counter = counters.get(tripId);
+            if (counter != null) {
+                // Only the value: the row already has this change, it must not be flushed again
+                counter.value.add(delta);
+                tracked.add(counter);
+            }
+            eventPublisher.publishEvent(new SeatAvailabilityChangedEvent(tripId,
+                    counter != null ? counter.current() : (int) row[1]));
+        }
+        if (!tracked.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        tracked.forEach(counter -> counter.value.add(-delta));
+                    }
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.availability.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        Map<UUID, Long> taken = new HashMap<>();
+        counters.forEach((tripId, counter) -> {
+            long delta = counter.unflushed.sumThenReset();
+            if (delta != 0) {
+                taken.put(tripId, delta);
+                batch.add(new Object[]{delta, tripId});
+            }
+        });
+        if (batch.isEmpty()) return;
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE trip SET available_seats = available_seats + ? WHERE id = ?", batch);
+        } catch (RuntimeException e) {
+            // Put the deltas back; the next flush retries them
+            taken.forEach((tripId, delta) -> counters.get(tripId).unflushed.add(delta));
+            log.warn("Flushing {} seat counters failed: {}", batch.size(), e.getMessage());
+            return;
+        }
+        eventPublisher.publishEvent(new AvailabilityFlushedEvent(Set.copyOf(taken.keySet())));
+    }
+
+    /**
+     * Reloads the tracked counters from the trip rows, which carry the flushed changes of every
+     * node, and drops the ones of departed, cancelled or deleted trips.
+     */
+    @Scheduled(initialDelayString = "${booking.availability.refresh-interval-ms:10000}",
+               fixedDelayString = "${booking.availability.refresh-interval-ms:10000}")
+    public synchronized void refresh() {
+        flush();
+        if (counters.isEmpty()) return;
+        Object[] tripIds = counters.keySet().toArray();
+        Map<UUID, Integer> persisted = new HashMap<>();
+        Set<UUID> ended = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT id, available_seats, status = 'CANCELLED' OR departure_time <= ? FROM trip WHERE id = ANY (?)",
+                ps -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("uuid", tripIds));
+                },
+                rs -> {
+                    UUID tripId = rs.getObject(1, UUID.class);
+                    persisted.put(tripId, rs.getInt(2));
+                    if (rs.getBoolean(3)) ended.add(tripId);
+                });
+
+        int evicted = 0;
+        for (Object id : tripIds) {
+            UUID tripId = (UUID) id;
+            Counter counter = counters.get(tripId);
+            if (counter == null) continue;
+            // Changes since the flush above stay with the counter until the next one
+            long unflushed = counter.unflushed.sum();
+            Integer row = persisted.get(tripId);
+            if ((row == null || ended.contains(tripId)) && counter.idle()) {
+                counters.remove(tripId, counter);
+                evicted++;
+            } else if (row != null) {
+                counter.value.add(row + unflushed - counter.value.sum());
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Dropped {} seat counters of departed or cancelled trips", evicted);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${booking.availability.reconcile-interval-ms:300000}",
+               fixedDelayString = "${booking.availability.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        flush();
+        // seat_status may be sparse, so count from the bus's layout seats minus the ones taken
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT t.id, t.available_seats, seats.total - COALESCE(taken.n, 0) " +
+                "FROM trip t " +
+                "JOIN bus b ON b.id = t.bus_id " +
+                "JOIN (SELECT layout_id, COUNT(*) AS total FROM seat GROUP BY layout_id) seats ON seats.layout_id = b.layout_id " +
+                "LEFT JOIN (SELECT trip_id, COUNT(*) AS n FROM seat_status WHERE state <> 'AVAILABLE' GROUP BY trip_id) taken " +
+                "  ON taken.trip_id = t.id " +
+                "WHERE t.departure_time >= ?",
+                (rs, i) -> new Object[]{rs.getObject(1, UUID.class), rs.getInt(2), rs.getInt(3)},
+                Timestamp.valueOf(LocalDate.now().atStartOfDay()));
+
+        Set<UUID> seen = new HashSet<>();
+        int repaired = 0;
+        for (Object[] row : rows) {
+            UUID tripId = (UUID) row[0];
+            int actual = (int) row[2];
+            Counter counter = counters.get(tripId);
+            int believed = counter != null ? counter.current() : (int) row[1];
+            if (believed == actual) continue;
+
+            seen.add(tripId);
+            // A change may sit between its seat_status commit and its counter update; only
+            // repair when the same disagreement shows up twice in a row
+            if (!Integer.valueOf(actual).equals(suspects.get(tripId))) {
+                suspects.put(tripId, actual);
+                continue;
+            }
+            // Relative to the value read, so changes flushed by other nodes meanwhile are kept
+            long unflushed = counter != null ? counter.unflushed.sum() : 0;
+            jdbcTemplate.update("UPDATE trip SET available_seats = available_seats + ? WHERE id = ?",
+                    actual - unflushed - (int) row[1], tripId);
+            if (counter != null) {
+                counter.value.add(actual - believed);
+            }
+            eventPublisher.publishEvent(new SeatAvailabilityChangedEvent(tripId, actual));
+            repaired++;
+        }
+        suspects.keySet().retainAll(seen);
+        if (repaired > 0) {
+            log.warn("Availability reconciliation repaired {} trips", repaired);
+            eventPublisher.publishEvent(new AvailabilityFlushedEvent(Set.copyOf(seen)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTripChanged(TripChangedEvent event) {
+        if (event.isDeleted() || event.current().status() == Trip.TripStatus.CANCELLED) {
+            Counter counter = counters.get(event.tripId());
+            // Otherwise kept until flushed; refresh drops it afterwards
+            if (counter != null && counter.idle()) {
+                counters.remove(event.tripId(), counter);
+            }
+        }
+    }
+
+    private Counter counterFor(UUID tripId) {
+        Counter counter = counters.get(tripId);
+        if (counter == null) {
+            Integer persisted = tripRepository.findAvailableSeatsById(tripId).orElse(null);
+            if (persisted == null) return null;
+            Counter loaded = new Counter(persisted);
+            counter = counters.putIfAbsent(tripId, loaded);
+            if (counter == null) counter = loaded;
+        }
+        return counter;
+    }
+
+    // value is what readers see; unflushed is the part of it the trip row does not have yet;
+    // pending counts open transactions that may still undo a change
+    private static final class Counter {
+        final LongAdder value = new LongAdder();
+        final LongAdder unflushed = new LongAdder();
+        final AtomicInteger pending = new AtomicInteger();
+
+        Counter(int persisted) {
+            value.add(persisted);
+        }
+
+        void add(int delta) {
+            value.add(delta);
+            unflushed.add(delta);
+        }
+
+        int current() {
+            return (int) value.sum();
+        }
+
+        // Nothing left to flush or undo, so the counter can be dropped without losing a change
+        boolean idle() {
+            return pending.get() == 0 && unflushed.sum() == 0;
+        }
+    }
+}
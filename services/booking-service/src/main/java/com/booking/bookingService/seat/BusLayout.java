@@ -0,0 +1,183 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.model.Seat;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable physical seat layout, shared by every bus built from the same layout template.
+ *
+ * Seats are numbered 0..size-1 by (deck, row, col, code); that ordinal is the index used by
+ * every per-trip seat structure. Columns are stored as parallel arrays so readers do not touch
+ * Seat entities once the layout is built.
+ *
+ * Because of that order each physical row (deck, row) is a contiguous ordinal range; those ranges
+ * and which neighbouring ordinals sit directly side by side are precomputed for seat allocation.
+ */
+public final class BusLayout {
+
+    private static final Comparator<Seat> SEAT_ORDER = Comparator
+            .comparingInt(Seat::getDeckNumber)
+            .thenComparingInt(Seat::getGridRow)
+            .thenComparingInt(Seat::getGridCol)
+            .thenComparing(Seat::getSeatCode, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final UUID layoutId;
+    private final long layoutVersion;
+    private final UUID[] seatIds;
+    private final String[] seatIdStrings;
+    private final String[] seatCodes;
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] decks;
+    private final Map<UUID, Integer> ordinals;
+    private final int gridRows;
+    private final int gridColumns;
+    private final int totalDecks;
+    // Start ordinal of every (deck, row), plus size() as the last entry
+    private final int[] rowStarts;
+    // Bit i: seat i+1 is in the same row, one column to the right (no aisle in between)
+    private final BitSet besideNext;
+
+    private BusLayout(UUID layoutId, long layoutVersion, List<Seat> seats) {
+        int size = seats.size();
+        this.layoutId = layoutId;
+        this.layoutVersion = layoutVersion;
+        this.seatIds = new UUID[size];
+        this.seatIdStrings = new String[size];
+        this.seatCodes = new String[size];
+        this.rows = new int[size];
+        this.cols = new int[size];
+        this.decks = new int[size];
+        this.ordinals = new HashMap<>(size * 2);
+
+        int maxRow = 0;
+        int maxCol = 0;
+        int maxDeck = 1;
+        for (int i = 0; i < size; i++) {
+            Seat seat = seats.get(i);
+            seatIds[i] = seat.getId();
+            seatIdStrings[i] = seat.getId().toString();
+            seatCodes[i] = seat.getSeatCode();
+            rows[i] = seat.getGridRow();
+            cols[i] = seat.getGridCol();
+            decks[i] = seat.getDeckNumber();
+            ordinals.put(seat.getId(), i);
+            maxRow = Math.max(maxRow, rows[i]);
+            maxCol = Math.max(maxCol, cols[i]);
+            maxDeck = Math.max(maxDeck, decks[i]);
+        }
+        this.gridRows = maxRow;
+        this.gridColumns = maxCol;
+        this.totalDecks = maxDeck;
+
+        this.besideNext = new BitSet(size);
+        int[] starts = new int[size + 1];
+        int rowCount = 0;
+        for (int i = 0; i < size; i++) {
+            boolean sameRow = i > 0 && decks[i] == decks[i - 1] && rows[i] == rows[i - 1];
+            if (!sameRow) {
+                starts[rowCount++] = i;
+            } else if (cols[i] == cols[i - 1] + 1) {
+                besideNext.set(i - 1);
+            }
+        }
+        starts[rowCount] = size;
+        this.rowStarts = Arrays.copyOf(starts, rowCount + 1);
+    }
+
+    public static BusLayout of(UUID layoutId, long layoutVersion, List<Seat> seats) {
+        List<Seat> ordered = seats.stream().sorted(SEAT_ORDER).toList();
+        return new BusLayout(layoutId, layoutVersion, ordered);
+    }
+
+    public UUID layoutId() {
+        return layoutId;
+    }
+
+    public long layoutVersion() {
+        return layoutVersion;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    /**
+     * Ordinal of the seat in this layout, or -1 if the seat does not belong to the layout.
+     */
+    public int ordinalOf(UUID seatId) {
+        Integer ordinal = ordinals.get(seatId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public UUID seatId(int ordinal) {
+        return seatIds[ordinal];
+    }
+
+    public String seatIdString(int ordinal) {
+        return seatIdStrings[ordinal];
+    }
+
+    public String seatCode(int ordinal) {
+        return seatCodes[ordinal];
+    }
+
+    public int row(int ordinal) {
+        return rows[ordinal];
+    }
+
+    public int col(int ordinal) {
+        return cols[ordinal];
+    }
+
+    public int deck(int ordinal) {
+        return decks[ordinal];
+    }
+
+    public int gridRows() {
+        return gridRows;
+    }
+
+    public int gridColumns() {
+        return gridColumns;
+    }
+
+    public int totalDecks() {
+        return totalDecks;
+    }
+
+    /**
+     * Number of physical rows across all decks.
+     */
+    public int rowCount() {
+        return rowStarts.length - 1;
+    }
+
+    /**
+     * First ordinal of the physical row with the given index (rows ordered by deck, then row).
+     */
+    public int rowStart(int rowIndex) {
+        return rowStarts[rowIndex];
+    }
+
+    /**
+     * Ordinal one past the last seat of the physical row with the given index.
+     */
+    public int rowEnd(int rowIndex) {
+        return rowStarts[rowIndex + 1];
+    }
+
+    /**
+     * True if seat {@code ordinal + 1} sits directly to the right of seat {@code ordinal}.
+     */
+    public boolean besideNext(int ordinal) {
+        return besideNext.get(ordinal);
+    }
+}
@@ -0,0 +1,66 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.event.BusLayoutChangedEvent;
+import com.booking.bookingService.exception.ResourceNotFoundException;
+import com.booking.bookingService.repository.BusRepository;
+import com.booking.bookingService.repository.SeatLayoutRepository;
+import com.booking.bookingService.repository.SeatRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seat layouts built once from the seat table per layout template and shared by every trip of
+ * every bus using that template. A layout is only replaced when its version moves (a seat map
+ * change); a bus only maps to its template id, so a large fleet of one model holds one layout.
+ */
+@Component
+@RequiredArgsConstructor
+public class BusLayoutCache {
+
+    private final BusRepository busRepository;
+    private final SeatLayoutRepository seatLayoutRepository;
+    private final SeatRepository seatRepository;
+    private final Map<UUID, UUID> busLayouts = new ConcurrentHashMap<>();
+    private final Map<UUID, BusLayout> layouts = new ConcurrentHashMap<>();
+
+    public BusLayout get(UUID busId) {
+        UUID layoutId = busLayouts.get(busId);
+        if (layoutId == null) {
+            layoutId = busRepository.findLayoutIdById(busId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Bus not found"));
+            busLayouts.put(busId, layoutId);
+        }
+        return getLayout(layoutId);
+    }
+
+    public BusLayout getLayout(UUID layoutId) {
+        BusLayout layout = layouts.get(layoutId);
+        if (layout == null) {
+            // Version first: if the seats change in between, the newer event evicts this entry again
+            long version = seatLayoutRepository.findVersionById(layoutId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Seat layout not found"));
+            layout = BusLayout.of(layoutId, version, seatRepository.findByLayoutId(layoutId));
+            layout = layouts.merge(layoutId, layout,
+                    (existing, loaded) -> existing.layoutVersion() >= loaded.layoutVersion() ? existing : loaded);
+        }
+        return layout;
+    }
+
+    // Runs before the seat state store drops the trips built on the old layout
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBusLayoutChanged(BusLayoutChangedEvent event) {
+        if (event.busId() != null) {
+            busLayouts.remove(event.busId());
+        }
+        if (event.layoutId() != null) {
+            layouts.remove(event.layoutId());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.booking.bookingService.seat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timer wheel of hold expiries.
+ *
+ * A hold lands in slot (expiry tick mod slots); holds further out than one rotation simply stay
+ * in their slot until a later pass finds them due. Scheduling is O(1) and lock-free, and each
+ * {@link #advance} hands back every hold that came due since the previous call as one batch,
+ * instead of one scheduled task per hold.
+ */
+@Component
+public class HoldExpiryWheel {
+
+    private final long tickMs;
+    private final Queue<Entry>[] slots;
+    // Last tick whose slot has been processed
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    public HoldExpiryWheel(@Value("${booking.holds.tick-ms:1000}") long tickMs,
+                           @Value("${booking.holds.wheel-slots:1024}") int slotCount) {
+        this.tickMs = tickMs;
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.processedTick = System.currentTimeMillis() / tickMs;
+    }
+
+    public void schedule(UUID holdId, long expiresAtMillis) {
+        // Never into a slot the current pass has already left behind
+        long tick = Math.max(expiresAtMillis / tickMs, processedTick + 1);
+        slots[slotOf(tick)].add(new Entry(holdId, expiresAtMillis));
+    }
+
+    /**
+     * Returns the holds that expired at or before {@code nowMillis}.
+     */
+    public synchronized List<UUID> advance(long nowMillis) {
+        long target = nowMillis / tickMs;
+        // After a long pause every slot is visited once, which is enough to see every entry
+        long from = Math.max(processedTick + 1, target - slots.length + 1);
+
+        List<UUID> due = new ArrayList<>();
+        List<Entry> notYet = new ArrayList<>();
+        for (long tick = from; tick <= target; tick++) {
+            Queue<Entry> slot = slots[slotOf(tick)];
+            Entry entry;
+            while ((entry = slot.poll()) != null) {
+                if (entry.expiresAtMillis <= nowMillis) {
+                    due.add(entry.holdId);
+                } else {
+                    notYet.add(entry);
+                }
+            }
+            // Entries for a later rotation go back to the slot they came from
+            slot.addAll(notYet);
+            notYet.clear();
+        }
+        processedTick = Math.max(processedTick, target);
+        return due;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Queue<Entry> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private int slotOf(long tick) {
+        return (int) (tick % slots.length);
+    }
+
+    private record Entry(UUID holdId, long expiresAtMillis) {
+    }
+}
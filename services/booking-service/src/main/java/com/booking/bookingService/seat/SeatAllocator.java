@@ -0,0 +1,154 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.model.SeatStatus.SeatState;
+
+/**
+ * Picks the best block of free seats for a group travelling together.
+ *
+ * Preference order: neighbouring seats in one row (fewest aisle crossings, then front rows first),
+ * then the fewest nearby rows of one deck, then whatever is free in seat order. Works only on the
+ * layout's precomputed rows and the trip's state bitset, so a call is a couple of linear scans.
+ */
+public final class SeatAllocator {
+
+    private SeatAllocator() {
+    }
+
+    /**
+     * Ordinals of {@code count} AVAILABLE seats, or null if the trip has fewer than that left.
+     * The result is a snapshot; claiming the seats can still lose to a concurrent hold.
+     */
+    public static int[] allocate(TripSeatStates states, int count) {
+        if (count <= 0 || states.count(SeatState.AVAILABLE) < count) {
+            return null;
+        }
+        int[] seats = sameRow(states, count);
+        if (seats == null) {
+            seats = nearbyRows(states, count);
+        }
+        if (seats == null) {
+            seats = inSeatOrder(states, count);
+        }
+        return seats;
+    }
+
+    // count consecutive free seats of one row; an aisle between two of them counts as a gap
+    private static int[] sameRow(TripSeatStates states, int count) {
+        BusLayout layout = states.layout();
+        int bestStart = -1;
+        int bestGaps = Integer.MAX_VALUE;
+        for (int r = 0; r < layout.rowCount() && bestGaps > 0; r++) {
+            int runStart = layout.rowStart(r);
+            for (int i = runStart; i < layout.rowEnd(r); i++) {
+                if (states.get(i) != SeatState.AVAILABLE) {
+                    runStart = i + 1;
+                    continue;
+                }
+                int start = i - count + 1;
+                if (start < runStart) continue;
+
+                int gaps = 0;
+                for (int j = start; j < i; j++) {
+                    if (!layout.besideNext(j)) gaps++;
+                }
+                if (gaps < bestGaps) {
+                    bestGaps = gaps;
+                    bestStart = start;
+                    if (gaps == 0) break;
+                }
+            }
+        }
+        if (bestStart < 0) return null;
+
+        int[] seats = new int[count];
+        for (int k = 0; k < count; k++) {
+            seats[k] = bestStart + k;
+        }
+        return seats;
+    }
+
+    // Smallest row span on one deck holding count free seats: every free seat of the leading rows,
+    // topped up from the last row with the seats closest to the columns already taken
+    private static int[] nearbyRows(TripSeatStates states, int count) {
+        BusLayout layout = states.layout();
+        int bestFirst = -1;
+        int bestLast = -1;
+        int bestSpan = Integer.MAX_VALUE;
+        for (int first = 0; first < layout.rowCount(); first++) {
+            int firstSeat = layout.rowStart(first);
+            int free = 0;
+            for (int last = first; last < layout.rowCount(); last++) {
+                int lastSeat = layout.rowStart(last);
+                int span = layout.row(lastSeat) - layout.row(firstSeat);
+                if (layout.deck(lastSeat) != layout.deck(firstSeat) || span >= bestSpan) break;
+
+                free += available(states, last);
+                if (free >= count) {
+                    bestFirst = first;
+                    bestLast = last;
+                    bestSpan = span;
+                    break;
+                }
+            }
+        }
+        if (bestFirst < 0) return null;
+
+        int[] seats = new int[count];
+        int taken = 0;
+        long colSum = 0;
+        for (int r = bestFirst; r < bestLast; r++) {
+            for (int i = layout.rowStart(r); i < layout.rowEnd(r); i++) {
+                if (states.get(i) == SeatState.AVAILABLE) {
+                    seats[taken++] = i;
+                    colSum += layout.col(i);
+                }
+            }
+        }
+
+        int[] candidates = new int[available(states, bestLast)];
+        int n = 0;
+        for (int i = layout.rowStart(bestLast); i < layout.rowEnd(bestLast); i++) {
+            if (states.get(i) == SeatState.AVAILABLE) candidates[n++] = i;
+        }
+        // Candidates are in column order, so the best pick is a window of them: closest to the
+        // seats above, or the tightest one if this row is all there is
+        int need = count - taken;
+        double target = taken > 0 ? (double) colSum / taken : 0;
+        int bestWindow = 0;
+        double bestScore = Double.MAX_VALUE;
+        for (int w = 0; w + need <= candidates.length; w++) {
+            double score = 0;
+            if (taken > 0) {
+                for (int k = w; k < w + need; k++) {
+                    score += Math.abs(layout.col(candidates[k]) - target);
+                }
+            } else {
+                score = layout.col(candidates[w + need - 1]) - layout.col(candidates[w]);
+            }
+            if (score < bestScore) {
+                bestScore = score;
+                bestWindow = w;
+            }
+        }
+        System.arraycopy(candidates, bestWindow, seats, taken, need);
+        return seats;
+    }
+
+    private static int[] inSeatOrder(TripSeatStates states, int count) {
+        int[] seats = new int[count];
+        int taken = 0;
+        for (int i = 0; i < states.layout().size() && taken < count; i++) {
+            if (states.get(i) == SeatState.AVAILABLE) seats[taken++] = i;
+        }
+        return taken == count ? seats : null;
+    }
+
+    private static int available(TripSeatStates states, int rowIndex) {
+        BusLayout layout = states.layout();
+        int free = 0;
+        for (int i = layout.rowStart(rowIndex); i < layout.rowEnd(rowIndex); i++) {
+            if (states.get(i) == SeatState.AVAILABLE) free++;
+        }
+        return free;
+    }
+}
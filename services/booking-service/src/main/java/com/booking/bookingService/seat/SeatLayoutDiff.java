@@ -0,0 +1,163 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.dto.SeatDefinition;
+import com.booking.bookingService.exception.BadRequestException;
+import com.booking.bookingService.model.Seat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Difference between a layout's current seats and a submitted seat map, matched by seat code.
+ *
+ * A code in both with another position is a move, a code only in the submission an insert and a
+ * code only in the layout a delete; a delete and an insert at the same position are folded into a
+ * rename. Moved and renamed seats keep their ids, so the seat statuses of every trip pointing at
+ * them stay valid. Duplicate codes and two seats on one (deck, row, col) are rejected; positions
+ * are checked against a bitset over the submitted grid.
+ */
+public final class SeatLayoutDiff {
+
+    // Upper bound on decks x rows x cols of a submitted grid, to keep the bitset small
+    private static final int MAX_GRID_CELLS = 1 << 16;
+
+    private final List<Seat> seats;
+    private final List<Seat> inserts;
+    private final List<Seat> updates;
+    private final List<Seat> deletes;
+
+    private SeatLayoutDiff(List<Seat> seats, List<Seat> inserts, List<Seat> updates, List<Seat> deletes) {
+        this.seats = seats;
+        this.inserts = inserts;
+        this.updates = updates;
+        this.deletes = deletes;
+    }
+
+    /**
+     * @throws BadRequestException if the submission repeats a code or a position
+     */
+    public static SeatLayoutDiff of(List<Seat> current, List<SeatDefinition> submitted) {
+        checkGrid(submitted);
+
+        Map<String, Seat> byCode = new LinkedHashMap<>();
+        List<Seat> deletes = new ArrayList<>();
+        for (Seat seat : current) {
+            if (byCode.putIfAbsent(seat.getSeatCode(), seat) != null) {
+                deletes.add(seat);  // legacy duplicate code
+            }
+        }
+
+        List<Seat> seats = new ArrayList<>(submitted.size());
+        List<Seat> updates = new ArrayList<>();
+        List<Seat> added = new ArrayList<>();
+        for (SeatDefinition definition : submitted) {
+            Seat existing = byCode.remove(definition.getSeatCode());
+            Seat seat = Seat.builder()
+                    .id(existing != null ? existing.getId() : null)
+                    .layout(existing != null ? existing.getLayout() : null)
+                    .seatCode(definition.getSeatCode())
+                    .gridRow(definition.getRow())
+                    .gridCol(definition.getCol())
+                    .deckNumber(definition.getDeck())
+                    .build();
+            seats.add(seat);
+            if (existing == null) {
+                added.add(seat);
+            } else if (position(existing) != position(seat)) {
+                updates.add(seat);
+            }
+        }
+
+        // A seat whose code was changed in place: keep its id instead of deleting and re-adding it
+        Map<Long, Seat> removedAt = new HashMap<>();
+        byCode.values().forEach(seat -> removedAt.putIfAbsent(position(seat), seat));
+        Set<UUID> renamedIds = new HashSet<>();
+        List<Seat> inserts = new ArrayList<>();
+        for (Seat seat : added) {
+            Seat renamed = removedAt.remove(position(seat));
+            if (renamed != null) {
+                seat.setId(renamed.getId());
+                seat.setLayout(renamed.getLayout());
+                renamedIds.add(renamed.getId());
+                updates.add(seat);
+            } else {
+                seat.setId(UUID.randomUUID());
+                inserts.add(seat);
+            }
+        }
+        byCode.values().stream().filter(seat -> !renamedIds.contains(seat.getId())).forEach(deletes::add);
+
+        return new SeatLayoutDiff(seats, inserts, updates, deletes);
+    }
+
+    /**
+     * The submitted seats in submission order, with the id each one has after the change.
+     */
+    public List<Seat> seats() {
+        return seats;
+    }
+
+    public List<Seat> inserts() {
+        return inserts;
+    }
+
+    /**
+     * Existing seats (by id) that get a new position, a new code or both.
+     */
+    public List<Seat> updates() {
+        return updates;
+    }
+
+    public List<Seat> deletes() {
+        return deletes;
+    }
+
+    public boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+    }
+
+    private static void checkGrid(List<SeatDefinition> submitted) {
+        int maxDeck = 1;
+        int maxRow = 1;
+        int maxCol = 1;
+        Set<String> codes = new HashSet<>();
+        for (SeatDefinition definition : submitted) {
+            if (definition.getSeatCode() == null || definition.getSeatCode().isBlank()) {
+                throw new BadRequestException("Seat code is required");
+            }
+            if (definition.getDeck() < 1 || definition.getRow() < 1 || definition.getCol() < 1) {
+                throw new BadRequestException("Seat " + definition.getSeatCode() + " has an invalid position");
+            }
+            if (!codes.add(definition.getSeatCode())) {
+                throw new BadRequestException("Duplicate seat code " + definition.getSeatCode());
+            }
+            maxDeck = Math.max(maxDeck, definition.getDeck());
+            maxRow = Math.max(maxRow, definition.getRow());
+            maxCol = Math.max(maxCol, definition.getCol());
+        }
+        if ((long) maxDeck * maxRow * maxCol > MAX_GRID_CELLS) {
+            throw new BadRequestException("Seat grid is too large");
+        }
+
+        BitSet taken = new BitSet(maxDeck * maxRow * maxCol);
+        for (SeatDefinition definition : submitted) {
+            int cell = ((definition.getDeck() - 1) * maxRow + definition.getRow() - 1) * maxCol + definition.getCol() - 1;
+            if (taken.get(cell)) {
+                throw new BadRequestException("Seat " + definition.getSeatCode() + " overlaps another seat at deck "
+                        + definition.getDeck() + ", row " + definition.getRow() + ", column " + definition.getCol());
+            }
+            taken.set(cell);
+        }
+    }
+
+    private static long position(Seat seat) {
+        return ((long) seat.getDeckNumber() << 42) | ((long) seat.getGridRow() << 21) | seat.getGridCol();
+    }
+}
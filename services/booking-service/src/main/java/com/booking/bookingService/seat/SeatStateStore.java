@@ -0,0 +1,349 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.dto.SeatStateRow;
+import com.booking.bookingService.event.BusLayoutChangedEvent;
+import com.booking.bookingService.event.SeatStateChangedEvent;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.exception.ResourceNotFoundException;
+import com.booking.bookingService.exception.SeatUnavailableException;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.repository.SeatStatusRepository;
+import com.booking.bookingService.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-memory seat states of the trips currently being looked at or booked.
+ *
+ * A trip is loaded from seat_status on first access and kept as a {@link TripSeatStates} bitset;
+ * seats without a row start out AVAILABLE, so sparse and dense trips load the same way.
+ * State transitions are applied to the bitset and written through to seat_status in the caller's
+ * transaction; if the database disagrees or the transaction rolls back, the trip is dropped and
+ * reloaded on next access, so seat_status stays the source of truth.
+ *
+ * Other nodes change seat_status too, so loaded trips are revalidated against the table on a
+ * schedule (see {@link #revalidate}); seats that differ are corrected and announced like any other
+ * transition, which also moves the ETag and feeds the seat streams.
+ *
+ * Every load and change of a trip takes a fresh number from one node-wide counter, so together with
+ * the node's start time and the seat layout version it forms a strong validator for the seat map.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatStateStore {
+
+    private static final int REVALIDATE_BATCH = 500;
+
+    private final TripRepository tripRepository;
+    private final SeatStatusRepository seatStatusRepository;
+    private final BusLayoutCache busLayoutCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<UUID, TripSeatStates> trips = new ConcurrentHashMap<>();
+    // Striped per-trip locks for multi-seat transitions; never a global lock
+    private final ReentrantLock[] stripes = newStripes(256);
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong versions = new AtomicLong();
+
+    @Value("${booking.seat-store.idle-eviction-ms:3600000}")
+    private long idleEvictionMs;
+
+    public TripSeatStates get(UUID tripId) {
+        TripSeatStates states = trips.get(tripId);
+        if (states == null) {
+            UUID busId = tripRepository.findBusIdById(tripId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
+            states = load(tripId, busId);
+        }
+        states.touch();
+        return states;
+    }
+
+    /**
+     * Same as {@link #get(UUID)} when the caller already knows the trip's bus.
+     */
+    public TripSeatStates get(UUID tripId, UUID busId) {
+        TripSeatStates states = trips.get(tripId);
+        if (states == null || states.layout() != busLayoutCache.get(busId)) {
+            states = load(tripId, busId);
+        }
+        states.touch();
+        return states;
+    }
+
+    /**
+     * Strong ETag for the trip's seat map. Answered from memory once the trip is loaded.
+     */
+    public String eTag(UUID tripId) {
+        TripSeatStates states = get(tripId);
+        return "\"" + Long.toHexString(epoch) + "-" + states.layout().layoutVersion() + "-" + states.version() + "\"";
+    }
+
+    public int count(UUID tripId, SeatState state) {
+        return get(tripId).count(state);
+    }
+
+    /**
+     * Moves all given seats from {@code from} to {@code to}, or none of them.
+     *
+     * The in-memory check-and-set runs under the trip's lock stripe, so competing requests for the
+     * same trip are decided without touching the database; only the winner calls {@code persist},
+     * which must apply the same transition in SQL and return the number of rows it changed.
+     *
+     * @throws SeatUnavailableException if any seat is not in {@code from}
+     */
+    @Transactional
+    public void transitionAll(UUID tripId, List<UUID> seatIds, SeatState from, SeatState to,
+                              ToIntFunction<List<UUID>> persist) {
+        TripSeatStates states = get(tripId);
+        int[] ordinals = new int[seatIds.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = states.layout().ordinalOf(seatIds.get(i));
+            if (ordinals[i] < 0) {
+                throw new ResourceNotFoundException("Seat not found on this trip");
+            }
+        }
+
+        ReentrantLock lock = stripeFor(tripId);
+        lock.lock();
+        try {
+            // Marked in flight before the check-and-set, so revalidation leaves these seats alone
+            for (int ordinal : ordinals) {
+                states.begin(ordinal);
+            }
+            for (int i = 0; i < ordinals.length; i++) {
+                if (!states.compareAndSet(ordinals[i], from, to)) {
+                    for (int j = 0; j < i; j++) {
+                        states.compareAndSet(ordinals[j], to, from);
+                    }
+                    for (int ordinal : ordinals) {
+                        states.end(ordinal);
+                    }
+                    throw new SeatUnavailableException(
+                            "Seat " + states.layout().seatCode(ordinals[i]) + " is no longer " + from.name().toLowerCase());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long version = versions.incrementAndGet();
+        states.setVersion(version);
+        track(states, ordinals, version);
+        if (persist.applyAsInt(seatIds) != seatIds.size()) {
+            evict(tripId);
+            throw new SeatUnavailableException("Seats changed concurrently, please try again");
+        }
+        seatIds.forEach(seatId -> eventPublisher.publishEvent(new SeatStateChangedEvent(tripId, seatId, to, version)));
+    }
+
+    /**
+     * Mirrors a transition that was already written to seat_status (e.g. a bulk expiry) into memory.
+     * Trips that are not loaded are left alone; they will read the new state when loaded.
+     */
+    public void applyCommitted(UUID tripId, List<UUID> seatIds, SeatState from, SeatState to) {
+        TripSeatStates states = trips.get(tripId);
+        long version = versions.incrementAndGet();
+        if (states != null) {
+            int[] ordinals = new int[seatIds.size()];
+            int applied = 0;
+            for (UUID seatId : seatIds) {
+                int ordinal = states.layout().ordinalOf(seatId);
+                if (ordinal < 0) {
+                    evict(tripId);
+                    break;
+                }
+                states.begin(ordinal);
+                ordinals[applied++] = ordinal;
+                if (!states.compareAndSet(ordinal, from, to)) {
+                    // Memory drifted from the table; reload on next access
+                    evict(tripId);
+                    break;
+                }
+            }
+            states.setVersion(version);
+            track(states, Arrays.copyOf(ordinals, applied), version);
+        }
+        seatIds.forEach(seatId -> eventPublisher.publishEvent(new SeatStateChangedEvent(tripId, seatId, to, version)));
+    }
+
+    public void evict(UUID tripId) {
+        trips.remove(tripId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(TripChangedEvent event) {
+        // Deleted, or moved to another bus (different layout and seat rows)
+        if (event.isDeleted() || event.previous() == null
+                || !event.previous().busId().equals(event.current().busId())) {
+            evict(event.tripId());
+            return;
+        }
+        // Price and other trip fields are part of the seat map too
+        TripSeatStates states = trips.get(event.tripId());
+        if (states != null) {
+            states.setVersion(versions.incrementAndGet());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBusLayoutChanged(BusLayoutChangedEvent event) {
+        if (event.layoutId() != null) {
+            trips.values().removeIf(states -> states.layout().layoutId().equals(event.layoutId()));
+        }
+    }
+
+    /**
+     * Brings the loaded trips in line with seat_status, picking up holds, releases and bookings
+     * made by other nodes. Seats with a local transition in flight, or one that started after the
+     * table was read, are skipped; the next run sees them settled.
+     */
+    @Scheduled(fixedDelayString = "${booking.seat-store.revalidate-interval-ms:2000}")
+    public void revalidate() {
+        if (trips.isEmpty()) return;
+        long readFrom = versions.get();
+        Map<UUID, TripSeatStates> loaded = new HashMap<>(trips);
+        // Seats already in flight when the table is read may commit after it
+        Map<UUID, boolean[]> settled = new HashMap<>();
+        loaded.forEach((tripId, states) -> {
+            boolean[] quiet = new boolean[states.layout().size()];
+            for (int i = 0; i < quiet.length; i++) {
+                quiet[i] = states.settled(i);
+            }
+            settled.put(tripId, quiet);
+        });
+
+        Map<UUID, Map<UUID, SeatState>> persisted = new HashMap<>();
+        List<UUID> tripIds = new ArrayList<>(loaded.keySet());
+        for (int from = 0; from < tripIds.size(); from += REVALIDATE_BATCH) {
+            List<UUID> batch = tripIds.subList(from, Math.min(from + REVALIDATE_BATCH, tripIds.size()));
+            for (Object[] row : seatStatusRepository.findStatesByTripIds(batch)) {
+                persisted.computeIfAbsent((UUID) row[0], id -> new HashMap<>()).put((UUID) row[1], (SeatState) row[2]);
+            }
+        }
+
+        int corrected = 0;
+        for (Map.Entry<UUID, TripSeatStates> entry : loaded.entrySet()) {
+            UUID tripId = entry.getKey();
+            TripSeatStates states = entry.getValue();
+            if (trips.get(tripId) != states) continue;
+            Map<UUID, SeatState> rows = persisted.getOrDefault(tripId, Map.of());
+            boolean[] quiet = settled.get(tripId);
+            List<UUID> changedSeats = new ArrayList<>();
+            List<SeatState> changedStates = new ArrayList<>();
+
+            ReentrantLock lock = stripeFor(tripId);
+            lock.lock();
+            try {
+                for (int ordinal = 0; ordinal < quiet.length; ordinal++) {
+                    if (!quiet[ordinal] || !states.settled(ordinal) || states.changedAt(ordinal) > readFrom) continue;
+                    UUID seatId = states.layout().seatId(ordinal);
+                    SeatState actual = rows.getOrDefault(seatId, SeatState.AVAILABLE);
+                    if (states.get(ordinal) != actual) {
+                        states.set(ordinal, actual);
+                        changedSeats.add(seatId);
+                        changedStates.add(actual);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (changedSeats.isEmpty()) continue;
+
+            long version = versions.incrementAndGet();
+            states.setVersion(version);
+            for (int i = 0; i < changedSeats.size(); i++) {
+                eventPublisher.publishEvent(new SeatStateChangedEvent(tripId, changedSeats.get(i), changedStates.get(i), version));
+            }
+            corrected += changedSeats.size();
+        }
+        if (corrected > 0) {
+            log.debug("Revalidation corrected {} seats changed elsewhere", corrected);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.seat-store.idle-eviction-ms:3600000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMs;
+        int before = trips.size();
+        trips.values().removeIf(states -> states.lastAccess() < cutoff);
+        int evicted = before - trips.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle trips from the seat state store", evicted);
+        }
+    }
+
+    private TripSeatStates load(UUID tripId, UUID busId) {
+        BusLayout layout = busLayoutCache.get(busId);
+        TripSeatStates states = new TripSeatStates(tripId, layout);
+        states.setVersion(versions.incrementAndGet());
+        for (SeatStateRow row : seatStatusRepository.findStatesByTripId(tripId)) {
+            int ordinal = layout.ordinalOf(row.seatId());
+            if (ordinal >= 0 && row.state() != null) {
+                states.set(ordinal, row.state());
+            }
+        }
+        TripSeatStates raced = trips.putIfAbsent(tripId, states);
+        if (raced != null && raced.layout() == layout) {
+            return raced;
+        }
+        trips.put(tripId, states);
+        return states;
+    }
+
+    private ReentrantLock stripeFor(UUID tripId) {
+        return stripes[(tripId.hashCode() & 0x7fffffff) % stripes.length];
+    }
+
+    private static ReentrantLock[] newStripes(int count) {
+        ReentrantLock[] locks = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    // Keeps the seats in flight until the transaction completes; drops the trip if it rolls back
+    private void track(TripSeatStates states, int[] ordinals, long version) {
+        for (int ordinal : ordinals) {
+            states.changed(ordinal, version);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (int ordinal : ordinals) {
+                states.end(ordinal);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    evict(states.tripId());
+                }
+                for (int ordinal : ordinals) {
+                    states.end(ordinal);
+                }
+            }
+        });
+    }
+}
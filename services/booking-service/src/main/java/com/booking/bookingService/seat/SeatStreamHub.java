@@ -0,0 +1,237 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.event.SeatStateChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Server-sent seat map updates per trip.
+ *
+ * A subscriber first receives one {@code snapshot} event (the full seat map) and then a
+ * {@code delta} event (seatId, state, version) for every seat change committed after it subscribed.
+ *
+ * Publishing never blocks: each frame is serialized once and offered to every subscriber's bounded
+ * queue, and each queue is drained onto its connection by a virtual thread of its own, so a slow
+ * socket only ever holds up its own subscriber. A subscriber whose queue is full, or whose send has
+ * not returned within the send timeout, is disconnected, and its EventSource reconnects and starts
+ * over from a fresh snapshot.
+ */
+@Component
+@Slf4j
+public class SeatStreamHub {
+
+    private static final long NOT_SENDING = -1;
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final ExecutorService dispatcher;
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder slowConsumerEvictions = new LongAdder();
+
+    public SeatStreamHub(ObjectMapper objectMapper,
+                         @Value("${booking.seat-stream.buffer-size:64}") int bufferSize,
+                         @Value("${booking.seat-stream.timeout-ms:1800000}") long timeoutMs,
+                         @Value("${booking.seat-stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.dispatcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("seat-stream-", 0).factory());
+    }
+
+    /**
+     * Opens a stream for the trip. The snapshot is taken after the subscriber is registered,
+     * so no change committed in between is lost; deltas already contained in it are harmless
+     * to re-apply.
+     */
+    public SseEmitter subscribe(UUID tripId, Supplier<Object> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(tripId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        // Add and remove go through compute so an emptied set is never dropped while being joined
+        subscribers.compute(tripId, (id, audience) -> {
+            Set<Subscriber> joined = audience != null ? audience : ConcurrentHashMap.newKeySet();
+            joined.add(subscriber);
+            return joined;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot.get(), MediaType.APPLICATION_JSON));
+        } catch (IOException | RuntimeException e) {
+            remove(subscriber);
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscriber.ready = true;
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStateChanged(SeatStateChangedEvent event) {
+        Set<Subscriber> audience = subscribers.get(event.tripId());
+        if (audience == null || audience.isEmpty()) return;
+
+        Set<ResponseBodyEmitter.DataWithMediaType> frame;
+        try {
+            String json = objectMapper.writeValueAsString(new SeatDelta(
+                    event.seatId().toString(), event.state().name().toLowerCase(Locale.ROOT), event.version()));
+            frame = SseEmitter.event().name("delta").id(Long.toString(event.version()))
+                    .data(json, MediaType.APPLICATION_JSON).build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize seat delta for trip {}: {}", event.tripId(), e.getMessage());
+            return;
+        }
+        audience.forEach(subscriber -> offer(subscriber, frame));
+    }
+
+    // Keeps idle connections open through proxies and surfaces dead ones
+    @Scheduled(fixedDelayString = "${booking.seat-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscriberCount.get() == 0) return;
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(audience -> audience.forEach(subscriber -> offer(subscriber, frame)));
+    }
+
+    // A send blocked on a socket that stopped reading would hold its subscriber forever
+    @Scheduled(fixedDelayString = "${booking.seat-stream.send-check-ms:1000}")
+    public void dropStalledSubscribers() {
+        if (subscriberCount.get() == 0) return;
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(audience -> audience.forEach(subscriber -> {
+            long since = subscriber.sendingSince;
+            if (since != NOT_SENDING && now - since > sendTimeoutMs) {
+                disconnect(subscriber);
+                Thread sender = subscriber.sender;
+                if (sender != null) {
+                    sender.interrupt();
+                }
+            }
+        }));
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "subscribers", (long) subscriberCount.get(),
+                "trips", (long) subscribers.size(),
+                "slowConsumerEvictions", slowConsumerEvictions.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private void offer(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            disconnect(subscriber);
+            return;
+        }
+        if (subscriber.ready) {
+            schedule(subscriber);
+        }
+    }
+
+    // At most one drain task per subscriber, so frames stay in order without locking
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        subscriber.sender = Thread.currentThread();
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while ((frame = subscriber.queue.poll()) != null) {
+                subscriber.sendingSince = System.currentTimeMillis();
+                subscriber.emitter.send(frame);
+                subscriber.sendingSince = NOT_SENDING;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, the emitter already completed, or the send timed out
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.sendingSince = NOT_SENDING;
+            subscriber.sender = null;
+            subscriber.draining.set(false);
+        }
+        // A frame offered after our last poll but before the flag was cleared would otherwise wait
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    // Slow consumer: drop it and close the stream. complete() waits for a send in progress, so it
+    // runs on a thread of its own and neither the publisher nor the send check ever blocks on it.
+    private void disconnect(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            slowConsumerEvictions.increment();
+            dispatcher.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscriber.tripId, (id, audience) -> {
+            if (audience.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+                removed[0] = true;
+            }
+            return audience.isEmpty() ? null : audience;
+        });
+        return removed[0];
+    }
+
+    private record SeatDelta(String seatId, String state, long version) {
+    }
+
+    private static final class Subscriber {
+        final UUID tripId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean ready;
+        volatile long sendingSince = NOT_SENDING;
+        volatile Thread sender;
+
+        Subscriber(UUID tripId, SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.tripId = tripId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
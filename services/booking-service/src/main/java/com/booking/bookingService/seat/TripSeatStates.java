@@ -0,0 +1,156 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.model.SeatStatus.SeatState;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seat states of one trip packed two bits per seat (32 seats per long), indexed by layout ordinal.
+ *
+ * Transitions are lock-free CAS on the containing word; counts are popcounts over the words,
+ * so reads allocate nothing.
+ */
+public final class TripSeatStates {
+
+    private static final int BITS_PER_SEAT = 2;
+    private static final int SEATS_PER_WORD = Long.SIZE / BITS_PER_SEAT;
+    private static final long SEAT_MASK = 0b11L;
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    private static final SeatState[] STATES = SeatState.values();
+    private static final String[] STATE_NAMES = new String[STATES.length];
+
+    static {
+        for (SeatState state : STATES) {
+            STATE_NAMES[state.ordinal()] = state.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final UUID tripId;
+    private final BusLayout layout;
+    private final AtomicLongArray words;
+    // Per seat: local transitions not committed yet, and the version of the latest one
+    private final AtomicIntegerArray pending;
+    private final AtomicLongArray changedAt;
+    private volatile long lastAccess = System.currentTimeMillis();
+    // Globally monotonic (per node) version of what the seat map shows, see SeatStateStore#eTag
+    private volatile long version;
+
+    TripSeatStates(UUID tripId, BusLayout layout) {
+        this.tripId = tripId;
+        this.layout = layout;
+        this.words = new AtomicLongArray((layout.size() + SEATS_PER_WORD - 1) / SEATS_PER_WORD);
+        this.pending = new AtomicIntegerArray(layout.size());
+        this.changedAt = new AtomicLongArray(layout.size());
+    }
+
+    public UUID tripId() {
+        return tripId;
+    }
+
+    public BusLayout layout() {
+        return layout;
+    }
+
+    public SeatState get(int ordinal) {
+        return STATES[code(ordinal)];
+    }
+
+    /**
+     * Lower-case state name for API responses, without allocating.
+     */
+    public String stateName(int ordinal) {
+        return STATE_NAMES[code(ordinal)];
+    }
+
+    /**
+     * Atomically moves one seat from {@code expected} to {@code next}; false if it was in another state.
+     */
+    public boolean compareAndSet(int ordinal, SeatState expected, SeatState next) {
+        int word = ordinal / SEATS_PER_WORD;
+        int shift = (ordinal % SEATS_PER_WORD) * BITS_PER_SEAT;
+        while (true) {
+            long current = words.get(word);
+            if (((current >>> shift) & SEAT_MASK) != expected.ordinal()) {
+                return false;
+            }
+            long updated = (current & ~(SEAT_MASK << shift)) | ((long) next.ordinal() << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    void set(int ordinal, SeatState state) {
+        int word = ordinal / SEATS_PER_WORD;
+        int shift = (ordinal % SEATS_PER_WORD) * BITS_PER_SEAT;
+        while (true) {
+            long current = words.get(word);
+            long updated = (current & ~(SEAT_MASK << shift)) | ((long) state.ordinal() << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    public int count(SeatState state) {
+        int locked = 0;
+        int booked = 0;
+        for (int i = 0; i < words.length(); i++) {
+            long w = words.get(i);
+            long low = w & LOW_BITS;
+            long high = (w >>> 1) & LOW_BITS;
+            locked += Long.bitCount(low & ~high);   // 01
+            booked += Long.bitCount(high & ~low);   // 10
+        }
+        return switch (state) {
+            case LOCKED -> locked;
+            case BOOKED -> booked;
+            case AVAILABLE -> layout.size() - locked - booked;
+        };
+    }
+
+    void begin(int ordinal) {
+        pending.incrementAndGet(ordinal);
+    }
+
+    void changed(int ordinal, long version) {
+        changedAt.set(ordinal, version);
+    }
+
+    void end(int ordinal) {
+        pending.decrementAndGet(ordinal);
+    }
+
+    boolean settled(int ordinal) {
+        return pending.get(ordinal) == 0;
+    }
+
+    long changedAt(int ordinal) {
+        return changedAt.get(ordinal);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    private int code(int ordinal) {
+        int shift = (ordinal % SEATS_PER_WORD) * BITS_PER_SEAT;
+        return (int) ((words.get(ordinal / SEATS_PER_WORD) >>> shift) & SEAT_MASK);
+    }
+}
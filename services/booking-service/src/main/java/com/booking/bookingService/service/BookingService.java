@@ -0,0 +1,97 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.BookingRequest;
+import com.booking.bookingService.dto.BookingResult;
+import com.booking.bookingService.exception.BadRequestException;
+import com.booking.bookingService.exception.SeatUnavailableException;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.repository.SeatStatusRepository;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.SeatStateStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Booking confirmation as one set-based, conditional statement (see SeatStatusRepository#bookSeats):
+ * no entity read-modify-write, no retries, and row locks only for the duration of that statement's
+ * transaction. Either every requested seat is booked or none is and the conflicts are reported.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingService {
+
+    private final SeatStatusRepository seatStatusRepository;
+    private final SeatStateStore seatStateStore;
+    private final AvailabilityCounters availabilityCounters;
+
+    @Value("${booking.holds.max-seats:10}")
+    private int maxSeatsPerBooking;
+
+    @Transactional
+    public BookingResult confirm(UUID tripId, BookingRequest request, String buyer) {
+        List<UUID> seatIds = request.getSeatIds();
+        if (seatIds == null || seatIds.isEmpty()) {
+            throw new BadRequestException("At least one seat is required");
+        }
+        if (seatIds.size() > maxSeatsPerBooking) {
+            throw new BadRequestException("A booking can contain at most " + maxSeatsPerBooking + " seats");
+        }
+        if (new HashSet<>(seatIds).size() != seatIds.size()) {
+            throw new BadRequestException("Duplicate seats in booking request");
+        }
+
+        UUID bookingId = UUID.randomUUID();
+        List<Object[]> rows = seatStatusRepository.bookSeats(
+                tripId, seatIds, seatIds.size(), request.getHoldId(), buyer, bookingId);
+
+        Set<UUID> bookable = new HashSet<>();
+        List<UUID> wereAvailable = new ArrayList<>();
+        List<UUID> wereHeld = new ArrayList<>();
+        for (Object[] row : rows) {
+            UUID seatId = (UUID) row[0];
+            bookable.add(seatId);
+            if (SeatState.AVAILABLE.name().equals(row[1])) {
+                wereAvailable.add(seatId);
+            } else {
+                wereHeld.add(seatId);
+            }
+        }
+        boolean allBookable = !rows.isEmpty() && Boolean.TRUE.equals(rows.get(0)[2]);
+
+        if (!allBookable) {
+            List<UUID> conflicts = seatIds.stream().filter(id -> !bookable.contains(id)).toList();
+            return BookingResult.builder()
+                    .tripId(tripId)
+                    .confirmed(false)
+                    .seatIds(List.of())
+                    .conflicts(conflicts)
+                    .build();
+        }
+        if (((Number) rows.get(0)[3]).intValue() != seatIds.size()) {
+            // A seat with no row was claimed by someone else in the meantime; undo the rest
+            throw new SeatUnavailableException("Seats changed concurrently, please try again");
+        }
+
+        seatStateStore.applyCommitted(tripId, wereAvailable, SeatState.AVAILABLE, SeatState.BOOKED);
+        seatStateStore.applyCommitted(tripId, wereHeld, SeatState.LOCKED, SeatState.BOOKED);
+        // Held seats were already taken off the count when the hold was placed
+        availabilityCounters.add(tripId, -wereAvailable.size());
+
+        return BookingResult.builder()
+                .bookingId(bookingId)
+                .tripId(tripId)
+                .confirmed(true)
+                .seatIds(seatIds)
+                .conflicts(List.of())
+                .remainingSeats(availabilityCounters.get(tripId))
+                .build();
+    }
+}
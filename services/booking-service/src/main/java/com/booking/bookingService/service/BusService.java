@@ -2,18 +2,31 @@ package com.booking.bookingService.service;
 
 import com.booking.bookingService.dto.BusRequest;
 import com.booking.bookingService.dto.SeatDefinition;
+import com.booking.bookingService.event.BusLayoutChangedEvent;
+import com.booking.bookingService.exception.BadRequestException;
 import com.booking.bookingService.exception.ResourceNotFoundException;
+import com.booking.bookingService.exception.SeatUnavailableException;
 import com.booking.bookingService.model.Bus;
 import com.booking.bookingService.model.Operator;
 import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
 import com.booking.bookingService.repository.BusRepository;
 import com.booking.bookingService.repository.OperatorRepository;
+import com.booking.bookingService.repository.SeatLayoutRepository;
 import com.booking.bookingService.repository.SeatRepository;
+import com.booking.bookingService.repository.TripRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,18 +35,36 @@ import java.util.stream.Collectors;
 public class BusService {
     private final BusRepository busRepository;
     private final OperatorRepository operatorRepository;
+    private final SeatLayoutRepository seatLayoutRepository;
     private final SeatRepository seatRepository;
+    private final SeatLayoutService seatLayoutService;
+    private final TripRepository tripRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public Bus createBus(BusRequest request) {
         Operator operator = operatorRepository.findById(request.getOperatorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Operator not found"));
 
+        // A template gives the bus its seats; without one it starts with an empty layout of its own.
+        // The capacity is always the layout's seat count, so trips start with the seats they really have.
+        SeatLayout layout;
+        int seatCapacity = 0;
+        if (request.getLayoutId() != null) {
+            layout = seatLayoutRepository.findById(request.getLayoutId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Seat layout not found"));
+            seatCapacity = seatRepository.findByLayoutId(layout.getId()).size();
+        } else {
+            layout = seatLayoutRepository.save(SeatLayout.builder().name(request.getModel()).build());
+        }
+
         Bus bus = Bus.builder()
                 .operator(operator)
                 .plateNumber(request.getPlateNumber())
                 .model(request.getModel())
                 .type(request.getType())
-                .seatCapacity(request.getSeatCapacity())
+                .seatCapacity(seatCapacity)
+                .layout(layout)
                 .build();
         return busRepository.save(bus);
     }
@@ -47,6 +78,23 @@ public class BusService {
         return busRepository.findAll();
     }
 
+    /**
+     * The operator's buses with no non-cancelled trip overlapping [from, to), answered by one
+     * index query so trips changed on other nodes count at once.
+     */
+    public List<Bus> findFreeBuses(UUID operatorId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("End of the window must be after its start");
+        }
+        Map<UUID, Bus> buses = busRepository.findByOperatorId(operatorId).stream()
+                .collect(Collectors.toMap(Bus::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        if (buses.isEmpty()) return List.of();
+        Set<UUID> busy = new HashSet<>(tripRepository.findBusyBusIds(buses.keySet(), from, to));
+        return buses.values().stream()
+                .filter(bus -> !busy.contains(bus.getId()))
+                .toList();
+    }
+
     public Bus updateBus(UUID id, BusRequest request) {
         Bus bus = getBus(id);
         if (!bus.getOperator().getId().equals(request.getOperatorId())) {
@@ -57,40 +105,36 @@ public class BusService {
         bus.setPlateNumber(request.getPlateNumber());
         bus.setModel(request.getModel());
         bus.setType(request.getType());
-        bus.setSeatCapacity(request.getSeatCapacity());
+        // Capacity follows the seat map (see SeatLayoutService#applySeatMap), never the request
         return busRepository.save(bus);
     }
 
     public void deleteBus(UUID id) {
         if (!busRepository.existsById(id)) throw new ResourceNotFoundException("Bus not found");
         busRepository.deleteById(id);
+        eventPublisher.publishEvent(new BusLayoutChangedEvent(id, null));
     }
 
     /**
      * SAVES A FULLY CUSTOM SEAT MAP
+     *
+     * The seats belong to the bus's layout template (see {@link SeatLayoutService#applySeatMap}).
+     * When other buses share that template, this bus first moves onto its own copy of it, so the
+     * change does not reach their trips.
      */
     @Transactional
     public List<Seat> saveCustomSeatMap(UUID busId, List<SeatDefinition> seatDefinitions) {
-        Bus bus = getBus(busId);
-
-        // Clear existing seats
-        List<Seat> existingSeats = seatRepository.findByBusId(busId);
-        seatRepository.deleteAll(existingSeats);
-
-        // Map DTOs to Entities
-        List<Seat> newSeats = seatDefinitions.stream().map(def -> {
-            return Seat.builder()
-                .bus(bus)
-                .seatCode(def.getSeatCode())
-                .gridRow(def.getRow())
-                .gridCol(def.getCol())
-                .deckNumber(def.getDeck())
-                .build();
-        }).collect(Collectors.toList());
-
-        bus.setSeatCapacity(newSeats.size());
-        busRepository.save(bus);
-
-        return seatRepository.saveAll(newSeats);
+        UUID layoutId = busRepository.findLayoutIdById(busId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bus not found"));
+        // Layout before buses, the same order as a template change
+        seatLayoutRepository.lockById(layoutId);
+        List<UUID> sharing = busRepository.lockIdsByLayoutId(layoutId);
+        if (!sharing.contains(busId)) {
+            throw new SeatUnavailableException("The bus's seat layout changed concurrently, please try again");
+        }
+        if (sharing.size() > 1) {
+            layoutId = seatLayoutService.detach(getBus(busId));
+        }
+        return seatLayoutService.applySeatMap(layoutId, seatDefinitions);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.FareCalendarDay;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.event.AvailabilityFlushedEvent;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.exception.BadRequestException;
+import com.booking.bookingService.repository.RouteDailyFareRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lowest-fare calendar backed by the per (route, day) aggregate in route_daily_fare.
+ * Aggregates are refreshed for exactly the affected (route, day) after each trip or seat change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FareCalendarService {
+
+    private static final int MAX_DAYS = 90;
+
+    private final RouteDailyFareRepository routeDailyFareRepository;
+
+    public List<FareCalendarDay> getCalendar(String origin, String destination, LocalDate from, int days) {
+        if (origin == null || origin.isBlank() || destination == null || destination.isBlank()) {
+            throw new BadRequestException("Origin and destination are required");
+        }
+        if (days < 1 || days > MAX_DAYS) {
+            throw new BadRequestException("Days must be between 1 and " + MAX_DAYS);
+        }
+        LocalDate to = from.plusDays(days - 1L);
+
+        Map<LocalDate, FareCalendarDay> stored = routeDailyFareRepository
+                .findCalendar(origin.trim(), destination.trim(), from, to).stream()
+                .collect(Collectors.toMap(FareCalendarDay::date, Function.identity()));
+
+        // One entry per day so the client can render the grid directly
+        List<FareCalendarDay> calendar = new ArrayList<>(days);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            calendar.add(stored.getOrDefault(day, FareCalendarDay.empty(day)));
+        }
+        return calendar;
+    }
+
+    // Runs on every replica start, so it corrects the table in place instead of emptying it:
+    // readers and the per-change refreshes keep working on the current aggregates throughout
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        LocalDate from = LocalDate.now();
+        int updated = routeDailyFareRepository.upsertFrom(from);
+        int deleted = routeDailyFareRepository.deleteStale(from);
+        if (updated > 0 || deleted > 0) {
+            log.info("Fare calendar rebuilt: {} (route, day) aggregates updated, {} removed", updated, deleted);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTripChanged(TripChangedEvent event) {
+        TripSearchRow previous = event.previous();
+        TripSearchRow current = event.current();
+        if (previous != null) {
+            routeDailyFareRepository.refresh(previous.routeId(), previous.departureTime().toLocalDate());
+        }
+        if (current != null && (previous == null
+                || !current.routeId().equals(previous.routeId())
+                || !current.departureTime().toLocalDate().equals(previous.departureTime().toLocalDate()))) {
+            routeDailyFareRepository.refresh(current.routeId(), current.departureTime().toLocalDate());
+        }
+    }
+
+    // Seat changes can also change the minimum (a sold-out trip stops counting). The aggregate is
+    // computed from trip.available_seats, so refresh once the counters have been flushed there.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAvailabilityFlushed(AvailabilityFlushedEvent event) {
+        event.tripIds().forEach(routeDailyFareRepository::refreshForTrip);
+    }
+}
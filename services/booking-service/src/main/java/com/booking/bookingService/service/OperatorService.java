@@ -5,6 +5,7 @@ import com.booking.bookingService.exception.ResourceNotFoundException;
 import com.booking.bookingService.model.Operator;
 import com.booking.bookingService.repository.OperatorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.UUID;
@@ -27,6 +28,18 @@ public class OperatorService {
         return operatorRepository.findAll();
     }
 
+    /**
+     * The operator whose trips the caller may manage, or null for an admin (all operators).
+     *
+     * @throws AccessDeniedException if the caller is not an admin and no operator has their email
+     */
+    public UUID scopeFor(String email, boolean admin) {
+        if (admin) return null;
+        return operatorRepository.findByContactEmail(email)
+                .map(Operator::getId)
+                .orElseThrow(() -> new AccessDeniedException("No operator account for " + email));
+    }
+
     public Operator getOperator(UUID id) {
         return operatorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Operator not found"));
@@ -1,12 +1,15 @@
 package com.booking.bookingService.service;
 
 import com.booking.bookingService.dto.RouteRequest;
+import com.booking.bookingService.event.RouteChangedEvent;
 import com.booking.bookingService.exception.ResourceNotFoundException;
+import com.booking.bookingService.index.PlaceSuggestionIndex;
 import com.booking.bookingService.model.Operator;
 import com.booking.bookingService.model.Route;
 import com.booking.bookingService.repository.OperatorRepository;
 import com.booking.bookingService.repository.RouteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +19,8 @@ import java.util.UUID;
 public class RouteService {
     private final RouteRepository routeRepository;
     private final OperatorRepository operatorRepository;
+    private final PlaceSuggestionIndex placeSuggestionIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Route createRoute(RouteRequest request) {
         Operator operator = operatorRepository.findById(request.getOperatorId())
@@ -28,7 +33,10 @@ public class RouteService {
                 .distanceKm(request.getDistanceKm())
                 .estimatedMinutes(request.getEstimatedMinutes())
                 .build();
-        return routeRepository.save(route);
+        Route savedRoute = routeRepository.save(route);
+        eventPublisher.publishEvent(new RouteChangedEvent(savedRoute.getId(),
+                null, null, savedRoute.getOrigin(), savedRoute.getDestination()));
+        return savedRoute;
     }
 
     public List<Route> getAllRoutes() {
@@ -42,6 +50,8 @@ public class RouteService {
 
     public Route updateRoute(UUID id, RouteRequest request) {
         Route route = getRoute(id);
+        String previousOrigin = route.getOrigin();
+        String previousDestination = route.getDestination();
         // If operator changes
         if (!route.getOperator().getId().equals(request.getOperatorId())) {
              Operator operator = operatorRepository.findById(request.getOperatorId())
@@ -52,11 +62,21 @@ public class RouteService {
         route.setDestination(request.getDestination());
         route.setDistanceKm(request.getDistanceKm());
         route.setEstimatedMinutes(request.getEstimatedMinutes());
-        return routeRepository.save(route);
+        Route savedRoute = routeRepository.save(route);
+        eventPublisher.publishEvent(new RouteChangedEvent(savedRoute.getId(),
+                previousOrigin, previousDestination, savedRoute.getOrigin(), savedRoute.getDestination()));
+        return savedRoute;
     }
 
     public void deleteRoute(UUID id) {
-        if (!routeRepository.existsById(id)) throw new ResourceNotFoundException("Route not found");
-        routeRepository.deleteById(id);
+        Route route = getRoute(id);
+        routeRepository.delete(route);
+        eventPublisher.publishEvent(new RouteChangedEvent(route.getId(),
+                route.getOrigin(), route.getDestination(), null, null));
+    }
+
+    // --- Place autocomplete (served from memory) ---
+    public List<String> suggestPlaces(String query, int limit) {
+        return placeSuggestionIndex.suggest(query, limit);
     }
 }
\ No newline at end of file
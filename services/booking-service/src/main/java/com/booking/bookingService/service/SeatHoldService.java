@@ -0,0 +1,190 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.SeatHoldRequest;
+import com.booking.bookingService.dto.SeatHoldResponse;
+import com.booking.bookingService.exception.BadRequestException;
+import com.booking.bookingService.exception.ResourceNotFoundException;
+import com.booking.bookingService.exception.SeatUnavailableException;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.repository.SeatStatusRepository;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.BusLayout;
+import com.booking.bookingService.seat.HoldExpiryWheel;
+import com.booking.bookingService.seat.SeatAllocator;
+import com.booking.bookingService.seat.SeatStateStore;
+import com.booking.bookingService.seat.TripSeatStates;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Checkout holds: seats go AVAILABLE -> LOCKED for a limited time, all or nothing.
+ *
+ * Contention on a hot trip is decided in memory by {@link SeatStateStore} under the trip's lock
+ * stripe; only winning attempts touch the database (one upsert on seat_status). The trip's seat
+ * count goes through {@link AvailabilityCounters}. Expiry is driven by {@link HoldExpiryWheel}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatHoldService {
+
+    private final SeatStatusRepository seatStatusRepository;
+    private final SeatStateStore seatStateStore;
+    private final AvailabilityCounters availabilityCounters;
+    private final HoldExpiryWheel holdExpiryWheel;
+
+    @Value("${booking.holds.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    @Value("${booking.holds.max-seats:10}")
+    private int maxSeatsPerHold;
+
+    // Dense storage writes released seats back as AVAILABLE rows; sparse storage deletes them
+    @Value("${booking.seat-status.dense:false}")
+    private boolean denseSeatStatus;
+
+    @Transactional
+    public SeatHoldResponse hold(UUID tripId, SeatHoldRequest request, String userEmail) {
+        List<UUID> seatIds = request.getSeatIds();
+        if (seatIds == null || seatIds.isEmpty()) {
+            throw new BadRequestException("At least one seat is required");
+        }
+        if (seatIds.size() > maxSeatsPerHold) {
+            throw new BadRequestException("A hold can contain at most " + maxSeatsPerHold + " seats");
+        }
+        if (new HashSet<>(seatIds).size() != seatIds.size()) {
+            throw new BadRequestException("Duplicate seats in hold request");
+        }
+        return placeHold(tripId, seatIds, userEmail);
+    }
+
+    /**
+     * Holds the best block of free seats for a group, chosen by {@link SeatAllocator} from the
+     * trip's in-memory states. If another buyer takes one of them first the hold fails with 409
+     * like a hand-picked one would, and the client simply asks again.
+     */
+    @Transactional
+    public SeatHoldResponse holdBestAvailable(UUID tripId, int passengers, String userEmail) {
+        if (passengers > maxSeatsPerHold) {
+            throw new BadRequestException("A hold can contain at most " + maxSeatsPerHold + " seats");
+        }
+        TripSeatStates states = seatStateStore.get(tripId);
+        int[] ordinals = SeatAllocator.allocate(states, passengers);
+        if (ordinals == null) {
+            throw new SeatUnavailableException("Not enough seats left on this trip");
+        }
+        List<UUID> seatIds = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            seatIds.add(states.layout().seatId(ordinal));
+        }
+        return placeHold(tripId, seatIds, userEmail);
+    }
+
+    private SeatHoldResponse placeHold(UUID tripId, List<UUID> seatIds, String userEmail) {
+        UUID holdId = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(holdTtlSeconds);
+
+        seatStateStore.transitionAll(tripId, seatIds, SeatState.AVAILABLE, SeatState.LOCKED,
+                ids -> seatStatusRepository.lockSeats(tripId, ids, holdId, userEmail, expiresAt));
+        availabilityCounters.add(tripId, -seatIds.size());
+
+        // If this transaction rolls back the entry expires later and finds nothing to release
+        holdExpiryWheel.schedule(holdId, toMillis(expiresAt));
+
+        BusLayout layout = seatStateStore.get(tripId).layout();
+        return SeatHoldResponse.builder()
+                .holdId(holdId)
+                .tripId(tripId)
+                .seatIds(seatIds)
+                .seatCodes(seatIds.stream().map(seatId -> layout.seatCode(layout.ordinalOf(seatId))).toList())
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Transactional
+    public void release(UUID tripId, UUID holdId, String userEmail) {
+        List<UUID> seatIds = seatStatusRepository.findHeldSeatIds(tripId, holdId, userEmail);
+        if (seatIds.isEmpty()) {
+            throw new ResourceNotFoundException("Hold not found");
+        }
+
+        seatStateStore.transitionAll(tripId, seatIds, SeatState.LOCKED, SeatState.AVAILABLE,
+                ids -> denseSeatStatus
+                        ? seatStatusRepository.releaseSeats(tripId, ids, holdId)
+                        : seatStatusRepository.deleteReleasedSeats(tripId, ids, holdId));
+        availabilityCounters.add(tripId, seatIds.size());
+    }
+
+    /**
+     * Releases the given holds if they are still LOCKED and past their expiry. Returns seats released.
+     */
+    @Transactional
+    public int releaseExpired(Collection<UUID> holdIds) {
+        if (holdIds.isEmpty()) return 0;
+        LocalDateTime now = LocalDateTime.now();
+        return applyReleased(denseSeatStatus
+                ? seatStatusRepository.releaseExpiredHolds(holdIds, now)
+                : seatStatusRepository.deleteExpiredHolds(holdIds, now));
+    }
+
+    /**
+     * Releases up to {@code batchSize} expired seats regardless of which node created the hold.
+     */
+    @Transactional
+    public int releaseAllExpired(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return applyReleased(denseSeatStatus
+                ? seatStatusRepository.releaseAllExpired(now, batchSize)
+                : seatStatusRepository.deleteAllExpired(now, batchSize));
+    }
+
+    /**
+     * Re-arms the timer wheel with every live hold, e.g. after a restart.
+     */
+    @Transactional(readOnly = true)
+    public int scheduleActiveHolds() {
+        List<Object[]> holds = seatStatusRepository.findActiveHolds();
+        for (Object[] hold : holds) {
+            holdExpiryWheel.schedule((UUID) hold[0], toMillis(toLocalDateTime(hold[1])));
+        }
+        return holds.size();
+    }
+
+    // rows are (trip_id, seat_id) of seats already set back to AVAILABLE (or deleted)
+    private int applyReleased(List<Object[]> rows) {
+        Map<UUID, List<UUID>> seatsByTrip = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            seatsByTrip.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((UUID) row[1]);
+        }
+        seatsByTrip.forEach((tripId, seatIds) -> {
+            seatStateStore.applyCommitted(tripId, seatIds, SeatState.LOCKED, SeatState.AVAILABLE);
+            availabilityCounters.add(tripId, seatIds.size());
+        });
+        if (!rows.isEmpty()) {
+            log.debug("Released {} expired held seats on {} trips", rows.size(), seatsByTrip.size());
+        }
+        return rows.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,201 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.SeatDefinition;
+import com.booking.bookingService.dto.SeatLayoutRequest;
+import com.booking.bookingService.event.BusLayoutChangedEvent;
+import com.booking.bookingService.exception.ResourceNotFoundException;
+import com.booking.bookingService.exception.SeatUnavailableException;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.repository.BusRepository;
+import com.booking.bookingService.repository.SeatLayoutRepository;
+import com.booking.bookingService.repository.SeatRepository;
+import com.booking.bookingService.repository.SeatStatusRepository;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.SeatLayoutDiff;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Seat layout templates: one set of seat rows per bus model, referenced by every bus of that model.
+ *
+ * Seat statuses point at the template's seats, so a change to a template applies to the upcoming
+ * trips of all its buses at once. A bus that needs seats of its own gets a private copy of its
+ * template first (see {@link #detach}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatLayoutService {
+    private static final String UPDATE_SEAT =
+            "UPDATE seat SET seat_code = ?, grid_row = ?, grid_col = ?, deck_number = ? WHERE id = ?";
+    private static final String DELETE_SEAT = "DELETE FROM seat WHERE id = ?";
+    private static final String INSERT_SEAT =
+            "INSERT INTO seat (id, layout_id, seat_code, grid_row, grid_col, deck_number) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_UPCOMING_SEAT_STATUSES =
+            "INSERT INTO seat_status (id, trip_id, seat_id, state) " +
+            "SELECT gen_random_uuid(), t.id, s.id, 'AVAILABLE' FROM trip t JOIN bus b ON b.id = t.bus_id CROSS JOIN seat s " +
+            "WHERE b.layout_id = ? AND t.status <> 'CANCELLED' AND t.departure_time > ? AND s.id = ANY (?)";
+    private static final String UPDATE_BUS_CAPACITY = "UPDATE bus SET seat_capacity = ? WHERE layout_id = ?";
+    private static final String COPY_SEATS =
+            "INSERT INTO seat (id, layout_id, seat_code, grid_row, grid_col, deck_number) " +
+            "SELECT gen_random_uuid(), ?, seat_code, grid_row, grid_col, deck_number FROM seat WHERE layout_id = ?";
+    // The bus's own trips follow it onto the copy; the seats are matched by code and position
+    private static final String MOVE_BUS_SEAT_STATUSES =
+            "UPDATE seat_status ss SET seat_id = copy.id " +
+            "FROM seat old JOIN seat copy ON copy.layout_id = ? AND copy.seat_code IS NOT DISTINCT FROM old.seat_code " +
+            "  AND copy.deck_number = old.deck_number AND copy.grid_row = old.grid_row AND copy.grid_col = old.grid_col " +
+            "WHERE ss.seat_id = old.id AND old.layout_id = ? " +
+            "  AND ss.trip_id IN (SELECT id FROM trip WHERE bus_id = ?)";
+
+    private final SeatLayoutRepository seatLayoutRepository;
+    private final SeatRepository seatRepository;
+    private final BusRepository busRepository;
+    private final SeatStatusRepository seatStatusRepository;
+    private final AvailabilityCounters availabilityCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${booking.seat-map.batch-size:500}")
+    private int batchSize;
+
+    @Value("${booking.seat-status.dense:false}")
+    private boolean denseSeatStatus;
+
+    @Transactional
+    public SeatLayout createLayout(SeatLayoutRequest request) {
+        // Validates the seats the same way as a seat map change
+        List<Seat> seats = SeatLayoutDiff.of(List.of(), request.getSeats()).seats();
+        SeatLayout layout = seatLayoutRepository.save(SeatLayout.builder().name(request.getName()).build());
+        seats.forEach(seat -> {
+            seat.setId(null);
+            seat.setLayout(layout);
+        });
+        layout.setSeats(seatRepository.saveAll(seats));
+        return layout;
+    }
+
+    public SeatLayout getLayout(UUID id) {
+        return seatLayoutRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat layout not found"));
+    }
+
+    public List<SeatLayout> getAllLayouts() {
+        return seatLayoutRepository.findAll();
+    }
+
+    /**
+     * Applies a seat map to the template, for every bus using it.
+     *
+     * Only the difference to the current seats is written (see {@link SeatLayoutDiff}): seats
+     * keep their ids when moved or renamed, so trips already selling are unaffected, and upcoming
+     * trips of all the template's buses get statuses and counts for the seats added or removed.
+     * Removing a seat that is held or booked on any of those trips is refused.
+     */
+    @Transactional
+    public List<Seat> applySeatMap(UUID layoutId, List<SeatDefinition> seatDefinitions) {
+        seatLayoutRepository.lockById(layoutId)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat layout not found"));
+        // Same locks as trip scheduling, so no trip is created against a half-changed layout
+        List<UUID> busIds = busRepository.lockIdsByLayoutId(layoutId);
+        SeatLayout layout = getLayout(layoutId);
+        SeatLayoutDiff diff = SeatLayoutDiff.of(seatRepository.findByLayoutId(layoutId), seatDefinitions);
+        if (diff.isEmpty()) {
+            return diff.seats();
+        }
+
+        List<UUID> removed = diff.deletes().stream().map(Seat::getId).toList();
+        if (!removed.isEmpty()) {
+            List<UUID> taken = seatStatusRepository.findTakenOnUpcomingTrips(removed, LocalDateTime.now());
+            if (!taken.isEmpty()) {
+                String codes = diff.deletes().stream()
+                        .filter(seat -> taken.contains(seat.getId()))
+                        .map(Seat::getSeatCode)
+                        .collect(Collectors.joining(", "));
+                throw new SeatUnavailableException("Seats " + codes + " are held or booked on upcoming trips");
+            }
+            seatStatusRepository.deleteAvailableForSeats(removed);
+            seatStatusRepository.detachSeats(removed);
+        }
+
+        write(UPDATE_SEAT, diff.updates(), (ps, seat) -> {
+            ps.setString(1, seat.getSeatCode());
+            ps.setInt(2, seat.getGridRow());
+            ps.setInt(3, seat.getGridCol());
+            ps.setInt(4, seat.getDeckNumber());
+            ps.setObject(5, seat.getId());
+        });
+        write(DELETE_SEAT, diff.deletes(), (ps, seat) -> ps.setObject(1, seat.getId()));
+        write(INSERT_SEAT, diff.inserts(), (ps, seat) -> {
+            ps.setObject(1, seat.getId());
+            ps.setObject(2, layoutId);
+            ps.setString(3, seat.getSeatCode());
+            ps.setInt(4, seat.getGridRow());
+            ps.setInt(5, seat.getGridCol());
+            ps.setInt(6, seat.getDeckNumber());
+        });
+
+        // Upcoming trips: new seats start out free, removed ones were free (checked above)
+        if (denseSeatStatus && !diff.inserts().isEmpty()) {
+            Object[] seatIds = diff.inserts().stream().map(Seat::getId).toArray();
+            jdbcTemplate.update(INSERT_UPCOMING_SEAT_STATUSES, ps -> {
+                ps.setObject(1, layoutId);
+                ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setArray(3, ps.getConnection().createArrayOf("uuid", seatIds));
+            });
+        }
+        availabilityCounters.addToUpcomingTrips(layoutId, diff.inserts().size() - diff.deletes().size());
+        jdbcTemplate.update(UPDATE_BUS_CAPACITY, diff.seats().size(), layoutId);
+
+        layout.setVersion(layout.getVersion() + 1);
+        seatLayoutRepository.save(layout);
+
+        log.info("Seat layout {} ({} buses): {} added, {} moved or renamed, {} removed", layoutId, busIds.size(),
+                diff.inserts().size(), diff.updates().size(), diff.deletes().size());
+        eventPublisher.publishEvent(new BusLayoutChangedEvent(null, layoutId));
+        return diff.seats();
+    }
+
+    /**
+     * Moves the bus onto a private copy of its shared layout, with the seat statuses of its trips,
+     * so that its seats can be changed without touching the other buses. Returns the copy's id.
+     * The caller must hold the locks of {@link #applySeatMap} on the current layout.
+     */
+    @Transactional
+    public UUID detach(Bus bus) {
+        SeatLayout shared = bus.getLayout();
+        SeatLayout copy = seatLayoutRepository.saveAndFlush(SeatLayout.builder()
+                .name(shared.getName() + " (" + bus.getPlateNumber() + ")")
+                .version(shared.getVersion())
+                .build());
+        jdbcTemplate.update(COPY_SEATS, copy.getId(), shared.getId());
+        int moved = jdbcTemplate.update(MOVE_BUS_SEAT_STATUSES, copy.getId(), shared.getId(), bus.getId());
+
+        bus.setLayout(copy);
+        busRepository.saveAndFlush(bus);
+
+        log.info("Bus {} moved from shared seat layout {} to its own copy {} ({} seat statuses)",
+                bus.getId(), shared.getId(), copy.getId(), moved);
+        // The trips loaded on the shared layout include this bus's, whose seats are now the copy's
+        eventPublisher.publishEvent(new BusLayoutChangedEvent(bus.getId(), shared.getId()));
+        return copy.getId();
+    }
+
+    private void write(String sql, List<Seat> seats, ParameterizedPreparedStatementSetter<Seat> setter) {
+        if (seats.isEmpty()) return;
+        jdbcTemplate.batchUpdate(sql, seats, batchSize, setter);
+    }
+}
@@ -0,0 +1,195 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.SeatRemapResult;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.BusLayout;
+import com.booking.bookingService.seat.BusLayoutCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves a trip's seat statuses onto the layout of the bus it is being switched to.
+ *
+ * Booked seats, then held ones, go to the seat with the same code on the new bus, failing that to
+ * the seat in the same deck/row/column. Existing rows are re-pointed in place (one batched UPDATE
+ * of seat_id), so a trip that is already selling keeps its row ids, holds and bookings; only rows
+ * with no place on the new bus are deleted, and in dense storage mode only the new bus's extra
+ * seats get AVAILABLE rows. Passengers whose seats were released are returned to the caller.
+ *
+ * Buses built from the same layout template share their seat rows, so a swap between them keeps
+ * every row as it is and only reports what was kept.
+ *
+ * Runs in the caller's transaction, which must hold the trip's row lock (TripRepository#lockById)
+ * and also move the trip to the new bus.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatRemapService {
+
+    private static final String SELECT_ROWS =
+            "SELECT id, seat_id, state, hold_id, booking_id, booked_by, locked_by FROM seat_status WHERE trip_id = ?";
+    private static final String MOVE_ROW = "UPDATE seat_status SET seat_id = ? WHERE id = ?";
+    private static final String COUNT_TAKEN =
+            "SELECT COUNT(*) FROM seat_status WHERE trip_id = ? AND seat_id IS NOT NULL AND state <> 'AVAILABLE'";
+    private static final String DELETE_ROW = "DELETE FROM seat_status WHERE id = ?";
+    private static final String INSERT_AVAILABLE =
+            "INSERT INTO seat_status (id, trip_id, seat_id, state) VALUES (?, ?, ?, 'AVAILABLE')";
+
+    private final BusLayoutCache busLayoutCache;
+    private final AvailabilityCounters availabilityCounters;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${booking.seat-remap.batch-size:500}")
+    private int batchSize;
+
+    @Value("${booking.seat-status.dense:false}")
+    private boolean denseSeatStatus;
+
+    @Transactional
+    public SeatRemapResult remap(UUID tripId, UUID fromBusId, UUID toBusId) {
+        BusLayout from = busLayoutCache.get(fromBusId);
+        BusLayout to = busLayoutCache.get(toBusId);
+        if (from.layoutId().equals(to.layoutId())) {
+            int kept = jdbcTemplate.queryForObject(COUNT_TAKEN, Integer.class, tripId);
+            return SeatRemapResult.builder()
+                    .tripId(tripId)
+                    .previousBusId(fromBusId)
+                    .busId(toBusId)
+                    .remappedByCode(kept)
+                    .availableSeats(to.size() - kept)
+                    .unmapped(List.of())
+                    .build();
+        }
+
+        Map<String, Integer> byCode = new HashMap<>();
+        Map<Position, Integer> byPosition = new HashMap<>();
+        for (int ordinal = 0; ordinal < to.size(); ordinal++) {
+            byCode.putIfAbsent(to.seatCode(ordinal), ordinal);
+            byPosition.putIfAbsent(new Position(to.deck(ordinal), to.row(ordinal), to.col(ordinal)), ordinal);
+        }
+
+        List<Row> taken = new ArrayList<>();
+        List<Row> available = new ArrayList<>();
+        for (Row row : jdbcTemplate.query(SELECT_ROWS, (rs, i) -> new Row(
+                rs.getObject("id", UUID.class),
+                rs.getObject("seat_id", UUID.class),
+                SeatState.valueOf(rs.getString("state")),
+                rs.getObject("hold_id", UUID.class),
+                rs.getObject("booking_id", UUID.class),
+                rs.getString("booked_by"),
+                rs.getString("locked_by")), tripId)) {
+            (row.state() == SeatState.AVAILABLE ? available : taken).add(row);
+        }
+        // Booked passengers get first pick of the contested seats, then holds
+        taken.sort(Comparator.comparing(Row::state).reversed());
+
+        BitSet claimed = new BitSet(to.size());
+        int[] targets = new int[taken.size()];
+        int remappedByCode = 0;
+        int remappedByPosition = 0;
+        for (int i = 0; i < taken.size(); i++) {
+            int ordinal = from.ordinalOf(taken.get(i).seatId());
+            Integer target = ordinal < 0 ? null : byCode.get(from.seatCode(ordinal));
+            targets[i] = claim(claimed, target);
+            if (targets[i] >= 0) remappedByCode++;
+        }
+        for (int i = 0; i < taken.size(); i++) {
+            if (targets[i] >= 0) continue;
+            int ordinal = from.ordinalOf(taken.get(i).seatId());
+            Integer target = ordinal < 0 ? null
+                    : byPosition.get(new Position(from.deck(ordinal), from.row(ordinal), from.col(ordinal)));
+            targets[i] = claim(claimed, target);
+            if (targets[i] >= 0) remappedByPosition++;
+        }
+
+        List<Object[]> moves = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<SeatRemapResult.Unmapped> unmapped = new ArrayList<>();
+        for (int i = 0; i < taken.size(); i++) {
+            Row row = taken.get(i);
+            if (targets[i] >= 0) {
+                moves.add(new Object[]{to.seatId(targets[i]), row.id()});
+            } else {
+                deletes.add(new Object[]{row.id()});
+                int ordinal = from.ordinalOf(row.seatId());
+                unmapped.add(new SeatRemapResult.Unmapped(ordinal >= 0 ? from.seatCode(ordinal) : null,
+                        row.state(), row.bookingId(), row.holdId(),
+                        row.state() == SeatState.BOOKED ? row.bookedBy() : row.lockedBy()));
+            }
+        }
+
+        // AVAILABLE rows (dense mode) are interchangeable: reuse them for the remaining seats
+        int next = claimed.nextClearBit(0);
+        for (Row row : available) {
+            if (denseSeatStatus && next < to.size()) {
+                moves.add(new Object[]{to.seatId(next), row.id()});
+                next = claimed.nextClearBit(next + 1);
+            } else {
+                deletes.add(new Object[]{row.id()});
+            }
+        }
+        if (denseSeatStatus) {
+            for (; next < to.size(); next = claimed.nextClearBit(next + 1)) {
+                inserts.add(new Object[]{UUID.randomUUID(), tripId, to.seatId(next)});
+            }
+        }
+
+        write(DELETE_ROW, deletes);
+        write(MOVE_ROW, moves);
+        write(INSERT_AVAILABLE, inserts);
+
+        int availableSeats = to.size() - (taken.size() - unmapped.size());
+        Integer current = availabilityCounters.get(tripId);
+        if (current != null) {
+            availabilityCounters.add(tripId, availableSeats - current);
+        }
+
+        if (!unmapped.isEmpty()) {
+            log.warn("Trip {} moved from bus {} to {}: {} held or booked seats could not be remapped",
+                    tripId, fromBusId, toBusId, unmapped.size());
+        }
+        return SeatRemapResult.builder()
+                .tripId(tripId)
+                .previousBusId(fromBusId)
+                .busId(toBusId)
+                .remappedByCode(remappedByCode)
+                .remappedByPosition(remappedByPosition)
+                .availableSeats(availableSeats)
+                .unmapped(unmapped)
+                .build();
+    }
+
+    private static int claim(BitSet claimed, Integer target) {
+        if (target == null || claimed.get(target)) return -1;
+        claimed.set(target);
+        return target;
+    }
+
+    private void write(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+
+    private record Position(int deck, int row, int col) {
+    }
+
+    private record Row(UUID id, UUID seatId, SeatState state, UUID holdId, UUID bookingId,
+                       String bookedBy, String lockedBy) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.TripSearchResponse;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.exception.BadRequestException;
+import com.booking.bookingService.repository.TripRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bulk NDJSON export of trip inventory for partners.
+ *
+ * Rows are read through a JDBC cursor as flat projections (nothing enters the persistence context)
+ * and written to the response one line at a time, so memory use does not depend on result size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripExportService {
+
+    private static final byte NEWLINE = '\n';
+    private static final int FLUSH_EVERY = 500;
+
+    private final TripRepository tripRepository;
+    private final TripService tripService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    public void validate(LocalDate from, LocalDate to) {
+        if (to != null && from != null && !to.isAfter(from)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+    }
+
+    /**
+     * Writes every trip departing in [from, to) (to is open-ended when null) as one JSON object per line.
+     */
+    public void export(UUID operatorId, LocalDate from, LocalDate to, OutputStream out) {
+        LocalDateTime start = (from != null ? from : LocalDate.now()).atStartOfDay();
+        LocalDateTime end = to != null ? to.atStartOfDay() : null;
+        ObjectWriter writer = objectMapper.writerFor(TripSearchResponse.class);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        long exported = transaction.execute(status -> {
+            long count = 0;
+            try (Stream<TripSearchRow> rows = tripRepository.streamExportRows(start, end, operatorId)) {
+                var iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(tripService.mapToTripResponse(iterator.next())));
+                    out.write(NEWLINE);
+                    if (++count % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                // Typically the partner disconnected mid-export
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        log.info("Exported {} trips (operator={}, from={}, to={})", exported, operatorId, start, end);
+    }
+}
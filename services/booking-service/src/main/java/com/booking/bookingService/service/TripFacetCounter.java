@@ -0,0 +1,90 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.TripFacetRow;
+import com.booking.bookingService.dto.TripSearchFacets;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Accumulates every facet in a single pass over the matching trips.
+ */
+class TripFacetCounter {
+
+    private final BigDecimal priceBucketSize;
+
+    private final Map<String, Long> busTypes = new TreeMap<>();
+    private final Map<UUID, Long> operatorCounts = new HashMap<>();
+    private final Map<UUID, String> operatorNames = new HashMap<>();
+    private final Map<String, Long> timeSlots = new LinkedHashMap<>();
+    private final TreeMap<Long, Long> priceBuckets = new TreeMap<>();
+
+    TripFacetCounter(BigDecimal priceBucketSize) {
+        this.priceBucketSize = priceBucketSize;
+        timeSlots.put("morning", 0L);
+        timeSlots.put("afternoon", 0L);
+        timeSlots.put("evening", 0L);
+        timeSlots.put("night", 0L);
+    }
+
+    void accept(TripFacetRow row) {
+        if (row.busType() != null) {
+            busTypes.merge(row.busType(), 1L, Long::sum);
+        }
+        if (row.operatorId() != null) {
+            operatorCounts.merge(row.operatorId(), 1L, Long::sum);
+            operatorNames.putIfAbsent(row.operatorId(), row.operatorName());
+        }
+
+        String slot = timeSlot(row.departureTime().getHour());
+        if (slot != null) {
+            timeSlots.merge(slot, 1L, Long::sum);
+        }
+
+        long bucket = row.price().divide(priceBucketSize, 0, RoundingMode.FLOOR).longValue();
+        priceBuckets.merge(bucket, 1L, Long::sum);
+    }
+
+    TripSearchFacets build() {
+        List<TripSearchFacets.OperatorFacet> operators = new ArrayList<>();
+        operatorCounts.forEach((id, count) -> operators.add(TripSearchFacets.OperatorFacet.builder()
+                .operatorId(id)
+                .name(operatorNames.get(id))
+                .count(count)
+                .build()));
+        operators.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+
+        List<TripSearchFacets.PriceBucket> histogram = new ArrayList<>();
+        priceBuckets.forEach((bucket, count) -> {
+            BigDecimal from = priceBucketSize.multiply(BigDecimal.valueOf(bucket));
+            histogram.add(TripSearchFacets.PriceBucket.builder()
+                    .from(from)
+                    .to(from.add(priceBucketSize))
+                    .count(count)
+                    .build());
+        });
+
+        return TripSearchFacets.builder()
+                .busTypes(busTypes)
+                .operators(operators)
+                .timeSlots(timeSlots)
+                .priceHistogram(histogram)
+                .build();
+    }
+
+    // Same slots as the departureTime search filter; departures before 06:00 fall in none
+    private static String timeSlot(int hour) {
+        if (hour >= 6 && hour < 12) return "morning";
+        if (hour >= 12 && hour < 18) return "afternoon";
+        if (hour >= 18 && hour < 21) return "evening";
+        if (hour >= 21) return "night";
+        return null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.TripScheduleRequest;
+import com.booking.bookingService.dto.TripScheduleResult;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.exception.BadRequestException;
+import com.booking.bookingService.exception.ResourceNotFoundException;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.repository.BusRepository;
+import com.booking.bookingService.repository.RouteRepository;
+import com.booking.bookingService.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Creates a whole recurring timetable in one transaction.
+ *
+ * The bus's existing trips in the schedule window are read once and every occurrence is checked
+ * against them (and against the occurrences accepted before it) in memory. Occurrences that
+ * clash or lie in the past are reported back and skipped; the rest are written with one JDBC
+ * batch for the trips per chunk. Seat statuses are only written in dense storage mode, with one
+ * set-based INSERT ... SELECT per chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripScheduleService {
+
+    private static final String INSERT_TRIP =
+            "INSERT INTO trip (id, operator_id, route_id, bus_id, departure_time, arrival_time, price, available_seats, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'SCHEDULED')";
+
+    private static final String INSERT_SEAT_STATUSES =
+            "INSERT INTO seat_status (id, trip_id, seat_id, state) " +
+            "SELECT gen_random_uuid(), t.id, s.id, 'AVAILABLE' " +
+            "FROM trip t JOIN bus b ON b.id = t.bus_id JOIN seat s ON s.layout_id = b.layout_id " +
+            "WHERE t.id = ANY (?)";
+
+    private final BusRepository busRepository;
+    private final RouteRepository routeRepository;
+    private final TripRepository tripRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${booking.schedules.max-days:366}")
+    private int maxDays;
+
+    @Value("${booking.schedules.batch-size:500}")
+    private int batchSize;
+
+    @Value("${booking.seat-status.dense:false}")
+    private boolean denseSeatStatus;
+
+    /**
+     * {@code operatorScope} is the caller's operator, or null for admins; operator staff can only
+     * schedule their own operator's buses.
+     */
+    @Transactional
+    public TripScheduleResult createSchedule(TripScheduleRequest request, UUID operatorScope) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new BadRequestException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) >= maxDays) {
+            throw new BadRequestException("A schedule can span at most " + maxDays + " days");
+        }
+
+        busRepository.lockById(request.getBusId());
+        Bus bus = busRepository.findById(request.getBusId())
+                .orElseThrow(() -> new ResourceNotFoundException("Bus not found"));
+        if (operatorScope != null && (bus.getOperator() == null || !operatorScope.equals(bus.getOperator().getId()))) {
+            throw new AccessDeniedException("Bus belongs to another operator");
+        }
+        Route route = routeRepository.findById(request.getRouteId())
+                .orElseThrow(() -> new ResourceNotFoundException("Route not found"));
+        long durationMinutes = request.getDurationMinutes() != null
+                ? request.getDurationMinutes() : route.getEstimatedMinutes();
+
+        List<LocalDateTime> departures = new ArrayList<>();
+        for (LocalDate day = request.getStartDate(); !day.isAfter(request.getEndDate()); day = day.plusDays(1)) {
+            if (request.getDaysOfWeek().contains(day.getDayOfWeek())) {
+                departures.add(day.atTime(request.getDepartureTime()));
+            }
+        }
+        if (departures.isEmpty()) {
+            throw new BadRequestException("No dates in the range fall on the selected days of week");
+        }
+
+        // Busy intervals of the bus keyed by start; they never overlap each other, so the one
+        // starting last before an occurrence ends is the only one that can clash with it
+        LocalDateTime windowStart = departures.get(0);
+        LocalDateTime windowEnd = departures.get(departures.size() - 1).plusMinutes(durationMinutes);
+        TreeMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+        for (Object[] interval : tripRepository.findBusyIntervals(bus.getId(), windowStart, windowEnd)) {
+            busy.put((LocalDateTime) interval[0], (LocalDateTime) interval[1]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Trip> accepted = new ArrayList<>();
+        List<TripScheduleResult.Failure> failures = new ArrayList<>();
+        for (LocalDateTime departure : departures) {
+            LocalDateTime arrival = departure.plusMinutes(durationMinutes);
+            if (!departure.isAfter(now)) {
+                failures.add(new TripScheduleResult.Failure(departure, "Departure time is in the past"));
+                continue;
+            }
+            Map.Entry<LocalDateTime, LocalDateTime> before = busy.lowerEntry(arrival);
+            if (before != null && before.getValue().isAfter(departure)) {
+                failures.add(new TripScheduleResult.Failure(departure, "The selected bus is already booked for this time slot."));
+                continue;
+            }
+            busy.put(departure, arrival);
+            accepted.add(Trip.builder()
+                    .id(UUID.randomUUID())
+                    .bus(bus)
+                    .route(route)
+                    .operator(bus.getOperator())
+                    .departureTime(departure)
+                    .arrivalTime(arrival)
+                    .price(request.getBasePrice())
+                    .status(Trip.TripStatus.SCHEDULED)
+                    .availableSeats(bus.getSeatCapacity())
+                    .build());
+        }
+
+        for (int from = 0; from < accepted.size(); from += batchSize) {
+            insert(accepted.subList(from, Math.min(from + batchSize, accepted.size())));
+        }
+        accepted.forEach(trip -> eventPublisher.publishEvent(TripChangedEvent.created(TripSearchRow.of(trip))));
+        log.info("Schedule for bus {} on route {}: {} trips created, {} skipped",
+                bus.getId(), route.getId(), accepted.size(), failures.size());
+
+        return TripScheduleResult.builder()
+                .requested(departures.size())
+                .created(accepted.size())
+                .tripIds(accepted.stream().map(Trip::getId).toList())
+                .failures(failures)
+                .build();
+    }
+
+    private void insert(List<Trip> trips) {
+        jdbcTemplate.batchUpdate(INSERT_TRIP, trips, trips.size(), (ps, trip) -> {
+            ps.setObject(1, trip.getId());
+            ps.setObject(2, trip.getOperator() != null ? trip.getOperator().getId() : null);
+            ps.setObject(3, trip.getRoute().getId());
+            ps.setObject(4, trip.getBus().getId());
+            ps.setTimestamp(5, Timestamp.valueOf(trip.getDepartureTime()));
+            ps.setTimestamp(6, Timestamp.valueOf(trip.getArrivalTime()));
+            ps.setBigDecimal(7, trip.getPrice());
+            ps.setInt(8, trip.getAvailableSeats());
+        });
+
+        if (!denseSeatStatus) return;
+        Object[] tripIds = trips.stream().map(Trip::getId).toArray();
+        jdbcTemplate.update(INSERT_SEAT_STATUSES,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", tripIds)));
+    }
+}
@@ -1,20 +1,32 @@
 package com.booking.bookingService.service;
 
 import com.booking.bookingService.dto.*;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.index.RouteGraph;
+import com.booking.bookingService.index.TripSearchCache;
+import com.booking.bookingService.index.TripSearchIndex;
 import com.booking.bookingService.model.*;
 import com.booking.bookingService.repository.*;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.BusLayout;
+import com.booking.bookingService.seat.SeatStateStore;
+import com.booking.bookingService.seat.TripSeatStates;
+import com.booking.bookingService.exception.BadRequestException;
 import com.booking.bookingService.exception.ResourceNotFoundException;
-import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,7 +39,24 @@ public class TripService {
     private final SeatRepository seatRepository;
     private final RouteRepository routeRepository;
     private final SeatStatusRepository seatStatusRepository;
+    private final TripSearchIndex tripSearchIndex;
+    private final TripSearchCache tripSearchCache;
+    private final RouteGraph routeGraph;
+    private final SeatStateStore seatStateStore;
+    private final AvailabilityCounters availabilityCounters;
+    private final SeatRemapService seatRemapService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Value("${booking.search.facets.price-bucket-size:100000}")
+    private BigDecimal facetPriceBucketSize;
+
+    @Value("${booking.seat-status.dense:false}")
+    private boolean denseSeatStatus;
+
+    @Value("${booking.trips.cancel-batch-size:1000}")
+    private int cancelBatchSize;
+
+    @Transactional
     public Trip createTrip(TripRequest request) {
         validateBusAvailability(request.getBusId(), request.getDepartureTime(), request.getArrivalTime(), null);
         Bus bus = busRepository.findById(request.getBusId())
@@ -52,35 +81,40 @@ public class TripService {
         
         Trip savedTrip = tripRepository.save(trip);
 
-        // Initialize Seat Statuses
-        List<Seat> physicalSeats = seatRepository.findByBusId(bus.getId());
-        List<SeatStatus> statuses = physicalSeats.stream().map(seat -> 
-            SeatStatus.builder()
-                .trip(savedTrip)
-                .seat(seat)
-                .state(SeatStatus.SeatState.AVAILABLE)
-                .build()
-        ).collect(Collectors.toList());
-        
-        seatStatusRepository.saveAll(statuses);
+        // Initialize Seat Statuses (sparse storage: no row means AVAILABLE, nothing to write)
+        if (denseSeatStatus) {
+            List<Seat> physicalSeats = seatRepository.findByLayoutId(bus.getLayout().getId());
+            List<SeatStatus> statuses = physicalSeats.stream().map(seat ->
+                SeatStatus.builder()
+                    .trip(savedTrip)
+                    .seat(seat)
+                    .state(SeatStatus.SeatState.AVAILABLE)
+                    .build()
+            ).collect(Collectors.toList());
+
+            seatStatusRepository.saveAll(statuses);
+        }
 
+        eventPublisher.publishEvent(TripChangedEvent.created(TripSearchRow.of(savedTrip)));
         return trip;
     }
 
     // --- Update Trip ---
+    @Transactional
     public Trip updateTrip(UUID tripId, TripRequest request) {
-        validateBusAvailability(request.getBusId(), request.getDepartureTime(), request.getArrivalTime(), tripId);
         Trip trip = tripRepository.findById(tripId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
+        // A bus change can release held and booked seats; changeBus reports those, so it is the only way
+        if (!trip.getBus().getId().equals(request.getBusId())) {
+            throw new BadRequestException("Use PUT /trips/" + tripId + "/bus to move the trip to another bus");
+        }
+        validateBusAvailability(request.getBusId(), request.getDepartureTime(), request.getArrivalTime(), tripId);
+        TripSearchRow previous = TripSearchRow.of(trip);
 
-        Bus bus = busRepository.findById(request.getBusId())
-                .orElseThrow(() -> new ResourceNotFoundException("Bus not found"));
         Route route = routeRepository.findById(request.getRouteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Route not found"));
 
-        trip.setBus(bus);
         trip.setRoute(route);
-        trip.setOperator(bus.getOperator());
         trip.setDepartureTime(request.getDepartureTime());
         trip.setArrivalTime(request.getArrivalTime());
         trip.setPrice(request.getBasePrice());
@@ -93,164 +127,296 @@ public class TripService {
             }
         }
 
-        // NOTE: If bus changes, we technically need to regenerate SeatStatuses. 
-        // This complexity is omitted for brevity but important in production.
+        Trip savedTrip = tripRepository.save(trip);
+        publishUpdated(previous, savedTrip);
+        return savedTrip;
+    }
+
+    // --- Change Bus ---
+    @Transactional
+    public SeatRemapResult changeBus(UUID tripId, UUID busId, UUID operatorScope) {
+        // No hold or booking can commit on the old seats between the remap's read and the bus update
+        tripRepository.lockById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
+        if (operatorScope != null && !operatorScope.equals(trip.getOperator().getId())) {
+            throw new AccessDeniedException("Trip belongs to another operator");
+        }
+        if (trip.getBus().getId().equals(busId)) {
+            throw new BadRequestException("The trip already uses this bus");
+        }
+        Bus bus = busRepository.findById(busId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bus not found"));
+        if (operatorScope != null && (bus.getOperator() == null || !operatorScope.equals(bus.getOperator().getId()))) {
+            throw new AccessDeniedException("Bus belongs to another operator");
+        }
+        validateBusAvailability(busId, trip.getDepartureTime(), trip.getArrivalTime(), tripId);
+        TripSearchRow previous = TripSearchRow.of(trip);
+
+        SeatRemapResult result = seatRemapService.remap(tripId, trip.getBus().getId(), busId);
+        trip.setBus(bus);
+        trip.setOperator(bus.getOperator());
+        publishUpdated(previous, tripRepository.save(trip));
+        return result;
+    }
+
+    // --- Cancel Trip ---
+    // Takes effect at once (search, conflict checks, new holds); seat rows are purged later
+    @Transactional
+    public void cancelTrip(UUID tripId, UUID operatorScope) {
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
+        if (operatorScope != null && !operatorScope.equals(trip.getOperator().getId())) {
+            throw new AccessDeniedException("Trip belongs to another operator");
+        }
+        if (trip.getStatus() == Trip.TripStatus.CANCELLED) return;
+        if (trip.getStatus() == Trip.TripStatus.COMPLETED) {
+            throw new BadRequestException("A completed trip cannot be cancelled");
+        }
+        // Same rule as cancelTrips: trips that already departed are never cancelled
+        if (!trip.getDepartureTime().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("A trip that already departed cannot be cancelled");
+        }
+        TripSearchRow previous = TripSearchRow.of(trip);
+        trip.setStatus(Trip.TripStatus.CANCELLED);
+        publishUpdated(previous, tripRepository.save(trip));
+    }
+
+    @Transactional
+    public TripCancelResult cancelTrips(TripCancelRequest request, UUID operatorScope) {
+        if (operatorScope != null) {
+            if (request.getOperatorId() != null && !operatorScope.equals(request.getOperatorId())) {
+                throw new AccessDeniedException("Trips of another operator cannot be cancelled");
+            }
+            request.setOperatorId(operatorScope);
+        }
+        if (request.getBusId() == null && (request.getFrom() == null || request.getTo() == null)) {
+            throw new BadRequestException("Either a bus or a date range is required");
+        }
+        if (request.getFrom() != null && request.getTo() != null && request.getTo().isBefore(request.getFrom())) {
+            throw new BadRequestException("End date must not be before start date");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = request.getFrom() != null && request.getFrom().atStartOfDay().isAfter(now)
+                ? request.getFrom().atStartOfDay() : now;
+        LocalDateTime to = request.getTo() != null ? request.getTo().plusDays(1).atStartOfDay() : null;
+
+        List<TripSearchRow> rows = tripRepository.findSearchRowsToCancel(from, to, request.getBusId(), request.getOperatorId());
+        List<UUID> tripIds = rows.stream().map(TripSearchRow::tripId).toList();
+        for (int start = 0; start < tripIds.size(); start += cancelBatchSize) {
+            tripRepository.cancelAll(tripIds.subList(start, Math.min(start + cancelBatchSize, tripIds.size())));
+        }
+        rows.forEach(row -> eventPublisher.publishEvent(
+                TripChangedEvent.updated(row, row.withStatus(Trip.TripStatus.CANCELLED))));
+
+        return TripCancelResult.builder()
+                .cancelled(tripIds.size())
+                .tripIds(tripIds)
+                .build();
+    }
+
+    /**
+     * Deletes up to {@code batchSize} leftover seat rows (holds, dense AVAILABLE rows) of cancelled
+     * trips. A short chunk means the pending trips are drained, so the ones with nothing left are
+     * marked purged. Returns the number of rows deleted.
+     */
+    @Transactional
+    public int purgeCancelled(int batchSize) {
+        List<UUID> tripIds = seatStatusRepository.purgeCancelledTrips(batchSize);
+        new HashSet<>(tripIds).forEach(seatStateStore::evict);
+        if (tripIds.size() < batchSize) {
+            tripRepository.markCancelledTripsPurged();
+        }
+        return tripIds.size();
+    }
 
-        return tripRepository.save(trip);
+    private void publishUpdated(TripSearchRow previous, Trip trip) {
+        // The entity's seat count is the one it was loaded with; the counters have the live one
+        TripSearchRow current = TripSearchRow.of(trip)
+                .withAvailableSeats(availabilityCounters.overlay(trip.getId(), trip.getAvailableSeats()));
+        eventPublisher.publishEvent(TripChangedEvent.updated(previous, current));
     }
 
     // --- Delete Trip ---
+    @Transactional
     public void deleteTrip(UUID tripId) {
         Trip trip = tripRepository.findById(tripId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
         
-        // Soft delete (Cancel) or Hard delete?
-        // Let's do hard delete for CRUD simplicity, but clean up child records first
-        List<SeatStatus> statuses = seatStatusRepository.findByTripId(tripId);
-        seatStatusRepository.deleteAll(statuses);
-        
+        // Hard delete; cancelTrip is the soft alternative. Child rows go in one set-based DELETE
+        seatStatusRepository.deleteAllForTrip(tripId);
+
         tripRepository.delete(trip);
+        eventPublisher.publishEvent(TripChangedEvent.deleted(TripSearchRow.of(trip)));
     }
 
-    public Page<TripSearchResponse> searchTrips(TripSearchRequest request) {
-        // 1. Setup Sorting & Pagination
-        Sort sort = Sort.by(Sort.Direction.ASC, "departureTime"); // Default: Sớm nhất trước
-
-        if (request.getSort() != null && !request.getSort().isEmpty()) {
-            switch (request.getSort()) {
-                case "earliest":
-                    sort = Sort.by(Sort.Direction.ASC, "departureTime");
-                    break;
-                case "latest":
-                    sort = Sort.by(Sort.Direction.DESC, "departureTime");
-                    break;
-                case "lowest_price":
-                    sort = Sort.by(Sort.Direction.ASC, "price");
-                    break;
-                case "highest_rating":
-                    // Lưu ý: Đảm bảo Entity Operator có trường "rating"
-                    sort = Sort.by(Sort.Direction.DESC, "operator.rating"); 
-                    break;
-                default:
-                    // Fallback về default nếu gửi sort linh tinh
-                    sort = Sort.by(Sort.Direction.ASC, "departureTime");
-            }
+    public TripSearchResult searchTrips(TripSearchRequest request) {
+        // Identical searches dominate peak traffic; serve repeats from the result cache
+        TripSearchCache.Key cacheKey = TripSearchCache.Key.of(request);
+        long generation = tripSearchCache.generation(cacheKey);
+        TripSearchResult cached = tripSearchCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
         }
-        Pageable pageable = PageRequest.of(request.getPage() - 1, request.getLimit(), sort);
-
-        Specification<Trip> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            
-            // Joins
-            var routeJoin = root.join("route");
-            var busJoin = root.join("bus"); 
-            var operatorJoin = root.join("operator"); 
-
-            // 1. Origin
-            if (request.getOrigin() != null && !request.getOrigin().isEmpty()) {
-                String originPattern = "%" + request.getOrigin().toLowerCase() + "%";
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(routeJoin.get("origin")), 
-                    originPattern
-                ));
-            }
 
-            // 2. Destination
-            if (request.getDestination() != null && !request.getDestination().isEmpty()) {
-                String destPattern = "%" + request.getDestination().toLowerCase() + "%";
-                predicates.add(criteriaBuilder.like(
-                    criteriaBuilder.lower(routeJoin.get("destination")), 
-                    destPattern
-                ));
-            }
+        TripSearchResult result = executeSearch(request);
+        tripSearchCache.put(cacheKey, generation, result);
+        return result;
+    }
 
-            // 3. Date (Specific Day)
-            if (request.getDate() != null) {
-                LocalDateTime startOfDay = request.getDate().atStartOfDay();
-                LocalDateTime endOfDay = request.getDate().atTime(LocalTime.MAX);
-                predicates.add(criteriaBuilder.between(root.get("departureTime"), startOfDay, endOfDay));
-            }
+    public Map<String, Long> getSearchCacheStats() {
+        return tripSearchCache.stats();
+    }
 
-            // 4. Passenger Capacity (using new availableSeats field)
-            if (request.getPassengers() != null && request.getPassengers() > 0) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                    root.get("availableSeats"), 
-                    request.getPassengers()
-                ));
-            }
+    /**
+     * Itineraries of up to maxTransfers + 1 legs, earliest arrival first.
+     */
+    public List<ConnectionItinerary> searchConnections(ConnectionSearchRequest request) {
+        if (request.getOrigin() == null || request.getOrigin().isBlank()
+                || request.getDestination() == null || request.getDestination().isBlank()
+                || request.getDate() == null) {
+            throw new BadRequestException("Origin, destination and date are required");
+        }
+        if (request.getDate().isBefore(LocalDate.now())) {
+            return List.of();
+        }
+        // Parameters sent empty (e.g. ?passengers=) bind as null and fall back to the defaults
+        request.setPassengers(Math.max(1, Objects.requireNonNullElse(request.getPassengers(), 1)));
+        request.setMaxTransfers(Math.min(Math.max(0, Objects.requireNonNullElse(request.getMaxTransfers(), 1)), 3));
+        request.setLimit(Math.min(Math.max(1, Objects.requireNonNullElse(request.getLimit(), 10)), 20));
+        request.setMinConnectionMinutes(Math.max(0, Objects.requireNonNullElse(request.getMinConnectionMinutes(), 30)));
+        request.setMaxConnectionMinutes(Math.max(request.getMinConnectionMinutes(),
+                Objects.requireNonNullElse(request.getMaxConnectionMinutes(), 720)));
+
+        return routeGraph.search(request).stream()
+                .map(legs -> {
+                    TripSearchRow first = legs.get(0);
+                    TripSearchRow last = legs.get(legs.size() - 1);
+                    return ConnectionItinerary.builder()
+                            .legs(mapToTripResponses(legs))
+                            .transfers(legs.size() - 1)
+                            .departureTime(first.departureTime())
+                            .arrivalTime(last.arrivalTime())
+                            .durationMinutes(Duration.between(first.departureTime(), last.arrivalTime()).toMinutes())
+                            .totalPrice(legs.stream().map(TripSearchRow::price).reduce(BigDecimal.ZERO, BigDecimal::add))
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
 
-            // 5. Bus Type (using new type field on Bus)
-            if (request.getBusType() != null && !request.getBusType().isEmpty()) {
-                predicates.add(criteriaBuilder.equal(
-                    criteriaBuilder.lower(busJoin.get("type")), 
-                    request.getBusType().toLowerCase()
-                ));
-            }
+    private TripSearchResult executeSearch(TripSearchRequest request) {
+        TripSearchResult result = request.getCursor() != null
+                ? searchTripsAfterCursor(request, TripSearchSort.from(request.getSort()))
+                : searchTripsByPage(request);
+        if (Boolean.TRUE.equals(request.getFacets())) {
+            result.setFacets(computeFacets(request));
+        }
+        return result;
+    }
 
-            // 6. Price Range (using new price field)
-            if (request.getMinPrice() != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                    root.get("price"), 
-                    request.getMinPrice()
-                ));
-            }
-            if (request.getMaxPrice() != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(
-                    root.get("price"), 
-                    request.getMaxPrice()
-                ));
-            }
+    private TripSearchResult searchTripsByPage(TripSearchRequest request) {
+        // 1. Setup Sorting & Pagination
+        TripSearchSort sortOption = TripSearchSort.from(request.getSort());
+        Pageable pageable = PageRequest.of(request.getPage() - 1, request.getLimit());
+
+        // 2. Serve from the in-memory index when it covers the requested day
+        Optional<List<TripSearchRow>> indexed = tripSearchIndex.search(request);
+        if (indexed.isPresent()) {
+            List<TripSearchRow> rows = indexed.get();
+            rows.sort(sortOption.comparator());
+            int from = (int) Math.min(pageable.getOffset(), rows.size());
+            int to = Math.min(from + pageable.getPageSize(), rows.size());
+            return TripSearchResult.builder()
+                    .trips(mapToTripResponses(rows.subList(from, to)))
+                    .hasNext(to < rows.size())
+                    .total((long) rows.size())
+                    .build();
+        }
 
-            // 7. Operator Filter (using new direct operator relationship)
-            if (request.getOperatorId() != null) {
-                predicates.add(criteriaBuilder.equal(
-                    operatorJoin.get("id"), 
-                    request.getOperatorId()
-                ));
-            }
+        // 3. Fall back to the database: one flat projection query per page,
+        // plus a count only when the caller asks for the total
+        Slice<TripSearchRow> slice = tripRepository.searchRows(request, sortOption, pageable);
+        Long total = Boolean.FALSE.equals(request.getIncludeTotal()) ? null : tripRepository.countRows(request);
 
-            // 8. Departure Time Slots
-            if (request.getDepartureTime() != null && request.getDate() != null) {
-                LocalDateTime baseDate = request.getDate().atStartOfDay();
-                String timeSlot = request.getDepartureTime().toLowerCase();
-                
-                LocalDateTime startTime = null;
-                LocalDateTime endTime = null;
-
-                switch (timeSlot) {
-                    case "morning": // 06:00 - 11:59
-                        startTime = baseDate.withHour(6);
-                        endTime = baseDate.withHour(11).withMinute(59);
-                        break;
-                    case "afternoon": // 12:00 - 17:59
-                        startTime = baseDate.withHour(12);
-                        endTime = baseDate.withHour(17).withMinute(59);
-                        break;
-                    case "evening": // 18:00 - 20:59
-                        startTime = baseDate.withHour(18);
-                        endTime = baseDate.withHour(20).withMinute(59);
-                        break;
-                    case "night": // 21:00 - 23:59
-                        startTime = baseDate.withHour(21);
-                        endTime = baseDate.withHour(23).withMinute(59);
-                        break;
-                }
+        return TripSearchResult.builder()
+                .trips(mapToTripResponses(slice.getContent()))
+                .hasNext(slice.hasNext())
+                .total(total)
+                .build();
+    }
 
-                if (startTime != null && endTime != null) {
-                    predicates.add(criteriaBuilder.between(
-                        root.get("departureTime"), 
-                        startTime, 
-                        endTime
-                    ));
+    /**
+     * Keyset (seek) pagination: resumes strictly after the last row of the previous page,
+     * so page 30 costs the same as page 1. Never computes a total.
+     */
+    private TripSearchResult searchTripsAfterCursor(TripSearchRequest request, TripSearchSort sortOption) {
+        TripSearchCursor after = request.getCursor().isBlank() ? null : TripSearchCursor.decode(request.getCursor());
+        if (after != null && after.sort() != sortOption) {
+            throw new BadRequestException("Search cursor was issued for a different sort order");
+        }
+        int limit = request.getLimit();
+
+        List<TripSearchRow> page;
+        boolean hasNext;
+        Optional<List<TripSearchRow>> indexed = tripSearchIndex.search(request);
+        if (indexed.isPresent()) {
+            List<TripSearchRow> rows = indexed.get();
+            Comparator<TripSearchRow> comparator = sortOption.comparator();
+            rows.sort(comparator);
+            int from = 0;
+            if (after != null) {
+                // Binary search for the first row strictly after the cursor
+                TripSearchRow probe = after.toProbeRow();
+                int hi = rows.size();
+                while (from < hi) {
+                    int mid = (from + hi) >>> 1;
+                    if (comparator.compare(rows.get(mid), probe) <= 0) from = mid + 1;
+                    else hi = mid;
                 }
             }
+            int to = Math.min(from + limit, rows.size());
+            page = rows.subList(from, to);
+            hasNext = to < rows.size();
+        } else {
+            Slice<TripSearchRow> slice = tripRepository.seekRows(request, sortOption, after, limit);
+            page = slice.getContent();
+            hasNext = slice.hasNext();
+        }
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+        String nextCursor = hasNext && !page.isEmpty()
+                ? TripSearchCursor.after(sortOption, page.get(page.size() - 1)).encode()
+                : null;
 
-        return tripRepository.findAll(spec, pageable).map(this::mapToTripResponse);
+        return TripSearchResult.builder()
+                .trips(mapToTripResponses(page))
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
     }
     
+    /**
+     * One pass over the trips matching the non-sidebar filters: from the index when it
+     * covers the day, otherwise from a single narrow projection query.
+     */
+    private TripSearchFacets computeFacets(TripSearchRequest request) {
+        TripSearchRequest base = TripSearchRequest.builder()
+                .origin(request.getOrigin())
+                .destination(request.getDestination())
+                .date(request.getDate())
+                .passengers(request.getPassengers())
+                .build();
+
+        TripFacetCounter counter = new TripFacetCounter(facetPriceBucketSize);
+        Optional<List<TripSearchRow>> indexed = tripSearchIndex.search(base);
+        if (indexed.isPresent()) {
+            indexed.get().forEach(row -> counter.accept(TripFacetRow.of(row)));
+        } else {
+            tripRepository.facetRows(base).forEach(counter::accept);
+        }
+        return counter.build();
+    }
+
     // --- Get Detail ---
     public TripSearchResponse getTripById(UUID tripId) {
         Trip trip = tripRepository.findById(tripId)
@@ -258,100 +424,90 @@ public class TripService {
         return mapToTripResponse(trip);
     }
 
+    public String getSeatMapETag(UUID tripId) {
+        return seatStateStore.eTag(tripId);
+    }
+
     // --- Get Seat Map ---
     public SeatMapResponse getSeatMap(UUID tripId) {
         Trip trip = tripRepository.findById(tripId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
 
-        // 1. Get all physical seats
-        List<Seat> physicalSeats = seatRepository.findByBusId(trip.getBus().getId());
-
-        // 2. Get current statuses
-        List<SeatStatus> seatStatuses = seatStatusRepository.findByTripId(tripId);
-        Map<UUID, SeatStatus.SeatState> statusMap = seatStatuses.stream()
-                .collect(Collectors.toMap(
-                        s -> s.getSeat().getId(),
-                        SeatStatus::getState
-                ));
-
-        // Calculate the grid dimensions by finding the highest row/col/deck in the list
-        int maxRows = physicalSeats.stream()
-                .mapToInt(Seat::getGridRow)
-                .max().orElse(0);
-        
-        int maxCols = physicalSeats.stream()
-                .mapToInt(Seat::getGridCol)
-                .max().orElse(0);
-        
-        int totalDecks = physicalSeats.stream()
-                .mapToInt(Seat::getDeckNumber)
-                .max().orElse(1);
-
-        // 3. Map to DTOs
-        List<SeatMapResponse.SeatDto> seatDtos = physicalSeats.stream().map(seat -> {
-            String status = statusMap.getOrDefault(seat.getId(), SeatStatus.SeatState.AVAILABLE).name().toLowerCase();
-            
-            return SeatMapResponse.SeatDto.builder()
-                    .seatId(seat.getId().toString())
-                    .seatCode(seat.getSeatCode())
-                    // Safe check for seat type name
-                    .deck(seat.getDeckNumber())
-                    .price(trip.getPrice()) 
-                    .status(status)
-                    .row(seat.getGridRow())
-                    .col(seat.getGridCol())
-                    .build();
-        }).collect(Collectors.toList());
+        // Layout (shared per bus) and packed seat states (per trip) come from memory
+        TripSeatStates states = seatStateStore.get(tripId, trip.getBus().getId());
+        BusLayout layout = states.layout();
+
+        List<SeatMapResponse.SeatDto> seatDtos = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            seatDtos.add(SeatMapResponse.SeatDto.builder()
+                    .seatId(layout.seatIdString(i))
+                    .seatCode(layout.seatCode(i))
+                    .deck(layout.deck(i))
+                    .price(trip.getPrice())
+                    .status(states.stateName(i))
+                    .row(layout.row(i))
+                    .col(layout.col(i))
+                    .build());
+        }
 
         return SeatMapResponse.builder()
                 .tripId(tripId)
-                // 4. Set the calculated fields
-                .gridRows(maxRows) 
-                .gridColumns(maxCols)   
-                .totalDecks(totalDecks) 
+                .gridRows(layout.gridRows())
+                .gridColumns(layout.gridColumns())
+                .totalDecks(layout.totalDecks())
                 .seats(seatDtos)
                 .build();
     }
 
     // --- Helper Mapper ---
     private TripSearchResponse mapToTripResponse(Trip trip) {
+        return mapToTripResponse(TripSearchRow.of(trip));
+    }
+
+    private List<TripSearchResponse> mapToTripResponses(List<TripSearchRow> rows) {
+        return rows.stream().map(this::mapToTripResponse).collect(Collectors.toList());
+    }
+
+    TripSearchResponse mapToTripResponse(TripSearchRow row) {
         return TripSearchResponse.builder()
-                .tripId(trip.getId())
-                .status(trip.getStatus().name())
+                .tripId(row.tripId())
+                .status(row.status().name())
                 .route(TripSearchResponse.RouteDto.builder()
-                        .origin(trip.getRoute().getOrigin())
-                        .destination(trip.getRoute().getDestination())
-                        .durationMinutes(trip.getRoute().getEstimatedMinutes())
+                        .origin(row.origin())
+                        .destination(row.destination())
+                        .durationMinutes(row.durationMinutes())
                         .build())
                 .operator(TripSearchResponse.OperatorDto.builder()
-                        .name(trip.getOperator().getName())
+                        .name(row.operatorName())
                         .build())
                 .bus(TripSearchResponse.BusDto.builder()
-                        .model(trip.getBus().getModel())
-                        .type(trip.getBus().getType()) 
+                        .model(row.busModel())
+                        .type(row.busType())
                         .build())
                 .schedule(TripSearchResponse.ScheduleDto.builder()
-                        .departureTime(trip.getDepartureTime())
-                        .arrivalTime(trip.getArrivalTime())
+                        .departureTime(row.departureTime())
+                        .arrivalTime(row.arrivalTime())
                         .build())
                 .pricing(TripSearchResponse.PricingDto.builder()
-                        .basePrice(trip.getPrice()) 
+                        .basePrice(row.price())
                         .currency("VND")
                         .build())
                 .availability(TripSearchResponse.AvailabilityDto.builder()
-                        .totalSeats(trip.getBus().getSeatCapacity())
-                        .availableSeats(trip.getAvailableSeats())
+                        .totalSeats(row.seatCapacity())
+                        // Live count when this node tracks the trip; the column lags by one flush
+                        .availableSeats(availabilityCounters.overlay(row.tripId(), row.availableSeats()))
                         .build())
                 .build();
     }
 
     private void validateBusAvailability(UUID busId, LocalDateTime start, LocalDateTime end, UUID excludeTripId) {
+        // Serializes schedule changes per bus. The table is the authority here: the in-memory
+        // schedule index may lag other replicas' writes
+        busRepository.lockById(busId);
         List<Trip> conflicts = tripRepository.findConflictingTrips(busId, start, end);
-        
         if (excludeTripId != null) {
             conflicts.removeIf(t -> t.getId().equals(excludeTripId));
         }
-
         if (!conflicts.isEmpty()) {
             throw new IllegalStateException("The selected bus is already booked for this time slot.");
         }
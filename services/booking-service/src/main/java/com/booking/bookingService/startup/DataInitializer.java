@@ -1,223 +1,303 @@
 package com.booking.bookingService.startup;
 
-import com.booking.bookingService.model.*;
-import com.booking.bookingService.repository.*;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
 
 /**
- * Bootstraps the application with initial data.
- * UPDATED: Removed cleanup for non-existent 'seat_type' table.
+ * Bootstraps the application with the seed data set in data/initial_data.json.
+ *
+ * Seeding is idempotent: the SHA-256 of the file is kept in seed_metadata and a boot that finds
+ * the same checksum skips seeding altogether. Otherwise the tables are cleared once and the file
+ * is stream-parsed section by section, with rows written in JDBC batches rather than one entity
+ * at a time, so boot time stays flat as the data set grows.
+ *
+ * booking.seed.mode: checksum (default), always (clear and reload on every boot) or off.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
 
-    private final OperatorRepository operatorRepository;
-    private final BusRepository busRepository;
-    private final RouteRepository routeRepository;
-    private final TripRepository tripRepository;
-    private final SeatRepository seatRepository;
-    private final SeatStatusRepository seatStatusRepository;
+    private static final String SEED_NAME = "initial_data";
+    // Part of the checksum: bump when the rows derived from the file change, so databases reload
+    private static final String SEED_FORMAT = "3";
+    private static final String[] SEAT_COLUMNS = {"A", "B", "C"};
+
+    private static final String INSERT_OPERATOR =
+            "INSERT INTO operator (id, name, contact_email, contact_phone, rating) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_LAYOUT = "INSERT INTO seat_layout (id, name, version) VALUES (?, ?, 0)";
+    private static final String INSERT_BUS =
+            "INSERT INTO bus (id, operator_id, plate_number, model, type, seat_capacity, layout_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SEAT =
+            "INSERT INTO seat (id, layout_id, seat_code, grid_row, grid_col, deck_number) VALUES (?, ?, ?, ?, ?, 1)";
+    private static final String INSERT_ROUTE =
+            "INSERT INTO route (id, operator_id, origin, destination, distance_km, estimated_minutes) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRIP =
+            "INSERT INTO trip (id, operator_id, route_id, bus_id, departure_time, arrival_time, price, available_seats, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'SCHEDULED')";
+    private static final String INSERT_SEAT_STATUS =
+            "INSERT INTO seat_status (id, trip_id, seat_id, state) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Value("${booking.seed.mode:checksum}")
+    private String seedMode;
+
+    @Value("${booking.seed.location:data/initial_data.json}")
+    private String seedLocation;
+
+    @Value("${booking.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${booking.seat-status.dense:false}")
+    private boolean denseSeatStatus;
 
     @Override
     @Transactional
     public void run(String... args) throws Exception {
-        // --- 1. CLEAN UP EXISTING DATA ---
-        log.info("Cleaning up existing data to ensure a fresh start...");
-        
-        // Use native SQL to avoid entity loading issues
-        try {
-            entityManager.createNativeQuery("TRUNCATE TABLE seat_status CASCADE").executeUpdate();
-            entityManager.createNativeQuery("TRUNCATE TABLE trip CASCADE").executeUpdate();
-            entityManager.createNativeQuery("TRUNCATE TABLE seat CASCADE").executeUpdate();
-            entityManager.createNativeQuery("TRUNCATE TABLE route CASCADE").executeUpdate();
-            entityManager.createNativeQuery("TRUNCATE TABLE bus CASCADE").executeUpdate();
-            // REMOVED: entityManager.createNativeQuery("TRUNCATE TABLE seat_type CASCADE").executeUpdate();
-            entityManager.createNativeQuery("TRUNCATE TABLE operator CASCADE").executeUpdate();
-            entityManager.flush();
-        } catch (Exception e) {
-            log.warn("Could not truncate tables (might be first run): {}", e.getMessage());
-            // If truncate fails, try delete (slower but works if schema doesn't exist yet)
-            entityManager.createNativeQuery("DELETE FROM seat_status").executeUpdate();
-            entityManager.createNativeQuery("DELETE FROM trip").executeUpdate();
-            entityManager.createNativeQuery("DELETE FROM seat").executeUpdate();
-            entityManager.createNativeQuery("DELETE FROM route").executeUpdate();
-            entityManager.createNativeQuery("DELETE FROM bus").executeUpdate();
-            // REMOVED: entityManager.createNativeQuery("DELETE FROM seat_type").executeUpdate();
-            entityManager.createNativeQuery("DELETE FROM operator").executeUpdate();
+        if ("off".equals(seedMode)) {
+            log.info("Seeding disabled (booking.seed.mode=off)");
+            return;
         }
 
-        log.info("All existing data cleared. Initializing new data from JSON file...");
+        // Replicas booting together: the first one loads, the others then see its checksum
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('booking-seed'))");
 
-        // --- 2. INITIALIZE NEW DATA ---
-        log.info("Bootstrapping database with fresh seed data...");
+        ClassPathResource resource = new ClassPathResource(seedLocation);
+        String checksum = checksum(resource);
+        if (!"always".equals(seedMode) && checksum.equals(loadedChecksum())) {
+            log.info("Seed data unchanged (sha256 {}), skipping bootstrap", checksum.substring(0, 12));
+            return;
+        }
 
-        try (InputStream inputStream = new ClassPathResource("data/initial_data.json").getInputStream()) {
-            InitialData data = objectMapper.readValue(inputStream, InitialData.class);
+        long started = System.currentTimeMillis();
+        log.info("Seed data changed, clearing existing data and loading {}", seedLocation);
+        jdbcTemplate.execute("TRUNCATE TABLE seat_status, trip, seat, route, bus, seat_layout, operator, route_daily_fare CASCADE");
 
-            // Caches to resolve relationships without repeated DB lookups
-            Map<String, Operator> operatorCache = new HashMap<>();
-            Map<String, Bus> busCache = new HashMap<>();
-            Map<String, Route> routeCache = new HashMap<>();
+        SeedLoader loader = new SeedLoader(new Random(checksum.hashCode()));
+        try (InputStream inputStream = resource.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            loader.load(parser);
+        } catch (Exception e) {
+            log.error("Critical failure during data initialization", e);
+            throw e;
+        }
 
-            // A. Create Operators
-            for (OperatorData opData : data.getOperators()) {
-                Operator op = Operator.builder()
-                        .name(opData.getName())
-                        .contactEmail(opData.getEmail())
-                        .contactPhone(opData.getPhone())
-                        .build();
-                operatorRepository.save(op);
-                operatorCache.put(opData.getKey(), op);
+        jdbcTemplate.update("INSERT INTO seed_metadata (name, checksum, loaded_at) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (name) DO UPDATE SET checksum = EXCLUDED.checksum, loaded_at = EXCLUDED.loaded_at",
+                SEED_NAME, checksum, Timestamp.valueOf(LocalDateTime.now()));
+        log.info("Bootstrap complete in {} ms: {} operators, {} buses on {} seat layouts, {} routes, {} trips ({} skipped)",
+                System.currentTimeMillis() - started, loader.operators.size(), loader.buses.size(), loader.layouts.size(),
+                loader.routes.size(), loader.trips, loader.skipped);
+    }
+
+    private String loadedChecksum() {
+        List<String> rows = jdbcTemplate.queryForList(
+                "SELECT checksum FROM seed_metadata WHERE name = ?", String.class, SEED_NAME);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static String checksum(ClassPathResource resource) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(SEED_FORMAT.getBytes(StandardCharsets.UTF_8));
+        try (InputStream inputStream = resource.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
             }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-            // B. Create Buses & Seats
-            for (BusData busData : data.getBuses()) {
-                Operator op = operatorCache.get(busData.getOperatorKey());
-                if (op == null) continue;
-
-                Bus bus = Bus.builder()
-                        .operator(op)
-                        .model(busData.getModel())
-                        .plateNumber(busData.getPlateNumber())
-                        .seatCapacity(busData.getCapacity())
-                        .type(busData.getType())
-                        .build();
-                busRepository.save(bus);
-                busCache.put(busData.getKey(), bus);
-
-                generatePhysicalSeatsForBus(bus);
+    /**
+     * One pass over the seed file. Sections must come in dependency order (operators, buses,
+     * routes, trips), as they do in the file; rows whose references are unknown are skipped.
+     */
+    private final class SeedLoader {
+        private final Random random;
+        private final Map<String, UUID> operators = new HashMap<>();
+        private final Map<String, SeededBus> buses = new HashMap<>();
+        // One layout template per bus model and capacity, shared by all those buses
+        private final Map<String, SeededLayout> layouts = new HashMap<>();
+        private final Map<String, SeededRoute> routes = new HashMap<>();
+        private int trips;
+        private int skipped;
+
+        // Flushed together, parents first, so foreign keys always resolve
+        private final List<Object[]> operatorRows = new ArrayList<>();
+        private final List<Object[]> layoutRows = new ArrayList<>();
+        private final List<Object[]> busRows = new ArrayList<>();
+        private final List<Object[]> seatRows = new ArrayList<>();
+        private final List<Object[]> routeRows = new ArrayList<>();
+        private final List<Object[]> tripRows = new ArrayList<>();
+        private final List<Object[]> seatStatusRows = new ArrayList<>();
+
+        SeedLoader(Random random) {
+            this.random = random;
+        }
+
+        void load(JsonParser parser) throws IOException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Seed data must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    switch (section) {
+                        case "operators" -> operator(objectMapper.readValue(parser, OperatorData.class));
+                        case "buses" -> bus(objectMapper.readValue(parser, BusData.class));
+                        case "routes" -> route(objectMapper.readValue(parser, RouteData.class));
+                        case "trips" -> trip(objectMapper.readValue(parser, TripData.class));
+                        default -> parser.skipChildren();
+                    }
+                }
             }
+            flush();
+        }
+
+        private void operator(OperatorData data) {
+            UUID id = UUID.randomUUID();
+            operators.put(data.getKey(), id);
+            add(operatorRows, new Object[]{id, data.getName(), data.getEmail(), data.getPhone(), data.getRating()});
+        }
 
-            // C. Create Routes
-            for (RouteData routeData : data.getRoutes()) {
-                Operator op = operatorCache.get(routeData.getOperatorKey());
-                if (op == null) continue;
-
-                Route route = Route.builder()
-                        .operator(op)
-                        .origin(routeData.getOrigin())
-                        .destination(routeData.getDestination())
-                        .distanceKm(routeData.getDistance())
-                        .estimatedMinutes(routeData.getMinutes())
-                        .build();
-                routeRepository.save(route);
-                routeCache.put(routeData.getKey(), route);
+        private void bus(BusData data) {
+            UUID operatorId = operators.get(data.getOperatorKey());
+            if (operatorId == null) {
+                skipped++;
+                return;
             }
+            SeededLayout layout = layouts.computeIfAbsent(data.getModel() + " " + data.getCapacity(),
+                    name -> layout(name, data.getCapacity()));
+            UUID id = UUID.randomUUID();
+            add(busRows, new Object[]{id, operatorId, data.getPlateNumber(), data.getModel(), data.getType(),
+                    data.getCapacity(), layout.id()});
+            buses.put(data.getKey(), new SeededBus(id, operatorId, layout.seatIds()));
+        }
 
-            // D. Create Trips & Statuses
-            for (TripData tripData : data.getTrips()) {
-                Route route = routeCache.get(tripData.getRouteKey());
-                Bus bus = busCache.get(tripData.getBusKey());
-
-                if (route == null || bus == null) continue;
-
-                LocalDateTime departure = LocalDateTime.parse(tripData.getDate());
-                LocalDateTime arrival = departure.plusMinutes(route.getEstimatedMinutes());
-
-                Trip trip = Trip.builder()
-                        .route(route)
-                        .bus(bus)
-                        .operator(bus.getOperator())
-                        .departureTime(departure)
-                        .arrivalTime(arrival)
-                        .price(tripData.getPrice())
-                        .status(Trip.TripStatus.SCHEDULED)
-                        .availableSeats(0)
-                        .build();
-                tripRepository.save(trip);
-
-                int availableSeats = initializeSeatStatusesForTrip(trip, bus);
-                trip.setAvailableSeats(availableSeats);
-                tripRepository.save(trip);
+        // Physical seats: rows of A/B/C, as many as the capacity
+        private SeededLayout layout(String name, int capacity) {
+            UUID id = UUID.randomUUID();
+            add(layoutRows, new Object[]{id, name});
+            UUID[] seatIds = new UUID[capacity];
+            for (int i = 0; i < seatIds.length; i++) {
+                int row = i / SEAT_COLUMNS.length + 1;
+                int col = i % SEAT_COLUMNS.length;
+                seatIds[i] = UUID.randomUUID();
+                add(seatRows, new Object[]{seatIds[i], id, SEAT_COLUMNS[col] + String.format("%02d", row), row, col + 1});
             }
+            return new SeededLayout(id, seatIds);
+        }
 
-            log.info("Bootstrap complete. Created {} trips.", data.getTrips().size());
+        private void route(RouteData data) {
+            UUID operatorId = operators.get(data.getOperatorKey());
+            if (operatorId == null) {
+                skipped++;
+                return;
+            }
+            UUID id = UUID.randomUUID();
+            routes.put(data.getKey(), new SeededRoute(id, data.getMinutes()));
+            add(routeRows, new Object[]{id, operatorId, data.getOrigin(), data.getDestination(),
+                    data.getDistance(), data.getMinutes()});
+        }
 
-        } catch (Exception e) {
-            log.error("Critical failure during data initialization", e);
-            throw e;
+        private void trip(TripData data) {
+            SeededRoute route = routes.get(data.getRouteKey());
+            SeededBus bus = buses.get(data.getBusKey());
+            if (route == null || bus == null) {
+                skipped++;
+                return;
+            }
+            UUID id = UUID.randomUUID();
+            LocalDateTime departure = LocalDateTime.parse(data.getDate());
+            LocalDateTime arrival = departure.plusMinutes(route.minutes());
+
+            // About one seat in ten is already sold; sparse storage only keeps rows for those
+            int available = 0;
+            List<Object[]> statuses = new ArrayList<>();
+            for (UUID seatId : bus.seatIds()) {
+                boolean isBooked = random.nextDouble() < 0.1;
+                if (!isBooked) available++;
+                if (isBooked || denseSeatStatus) {
+                    statuses.add(new Object[]{UUID.randomUUID(), id, seatId, isBooked ? "BOOKED" : "AVAILABLE"});
+                }
+            }
+            add(tripRows, new Object[]{id, bus.operatorId(), route.id(), bus.id(), Timestamp.valueOf(departure),
+                    Timestamp.valueOf(arrival), data.getPrice(), available});
+            statuses.forEach(status -> add(seatStatusRows, status));
+            trips++;
         }
-    }
 
-    private void generatePhysicalSeatsForBus(Bus bus) {
-        List<Seat> seats = new ArrayList<>();
-        String[] columns = {"A", "B", "C"};
-        int seatsPerRow = columns.length;
-        int rows = (bus.getSeatCapacity() + seatsPerRow - 1) / seatsPerRow; // ceil division
+        private void add(List<Object[]> rows, Object[] row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
 
-        if (bus.getOperator() == null) {
-            throw new IllegalStateException("Bus operator is null for bus " + bus.getId());
+        private void flush() {
+            write(INSERT_OPERATOR, operatorRows);
+            write(INSERT_LAYOUT, layoutRows);
+            write(INSERT_BUS, busRows);
+            write(INSERT_SEAT, seatRows);
+            write(INSERT_ROUTE, routeRows);
+            write(INSERT_TRIP, tripRows);
+            write(INSERT_SEAT_STATUS, seatStatusRows);
         }
 
-        for (int row = 1; row <= rows; row++) {
-            int colIdx = 1;
-            for (String col : columns) {
-                if (seats.size() >= bus.getSeatCapacity()) break;
-
-                Seat seat = Seat.builder()
-                        .bus(bus)
-                        .seatCode(col + String.format("%02d", row))
-                        .deckNumber(1)
-                        .gridRow(row)       // persist row index
-                        .gridCol(colIdx)    // persist column index
-                        .build();
-                seats.add(seat);
-                colIdx++;
-            }
+        private void write(String sql, List<Object[]> rows) {
+            if (rows.isEmpty()) return;
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
         }
-        seatRepository.saveAll(seats);
     }
 
-    private int initializeSeatStatusesForTrip(Trip trip, Bus bus) {
-        List<Seat> seats = seatRepository.findByBusId(bus.getId());
-        List<SeatStatus> statuses = new ArrayList<>();
-        int availableCount = 0;
-
-        for (Seat seat : seats) {
-            boolean isBooked = Math.random() < 0.1;
-            SeatStatus.SeatState state = isBooked ? SeatStatus.SeatState.BOOKED : SeatStatus.SeatState.AVAILABLE;
-            if (!isBooked) availableCount++;
-
-            SeatStatus status = SeatStatus.builder()
-                    .trip(trip)
-                    .seat(seat)
-                    .state(state)
-                    .build();
-            statuses.add(status);
-        }
-        seatStatusRepository.saveAll(statuses);
-        return availableCount;
+    private record SeededLayout(UUID id, UUID[] seatIds) {
     }
 
-    @Data
-    static class InitialData {
-        private List<OperatorData> operators;
-        private List<BusData> buses;
-        private List<RouteData> routes;
-        private List<TripData> trips;
+    private record SeededBus(UUID id, UUID operatorId, UUID[] seatIds) {
+    }
+
+    private record SeededRoute(UUID id, int minutes) {
     }
 
     @Data
@@ -226,6 +306,7 @@ public class DataInitializer implements CommandLineRunner {
         private String name;
         private String email;
         private String phone;
+        private Double rating;
     }
 
     @Data
@@ -255,4 +336,4 @@ public class DataInitializer implements CommandLineRunner {
         private String date;
         private BigDecimal price;
     }
-}
\ No newline at end of file
+}
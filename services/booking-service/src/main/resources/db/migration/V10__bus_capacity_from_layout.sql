@@ -0,0 +1,23 @@
+-- A bus's capacity is the seat count of its layout. Buses created without a template or edited
+-- through the bus form could carry a typed-in capacity their layout never had; resync them.
+UPDATE bus b SET seat_capacity = c.seats
+FROM (
+    SELECT bl.id, COUNT(s.id) AS seats
+    FROM bus bl
+    LEFT JOIN seat s ON s.layout_id = bl.layout_id
+    GROUP BY bl.id
+) c
+WHERE c.id = b.id AND b.seat_capacity <> c.seats;
+
+-- Upcoming trips of those buses started from the typed-in capacity too. The counter reconcile only
+-- sees layouts with seats, so recount them here, the same way: layout seats minus the ones taken.
+UPDATE trip t SET available_seats = c.seats
+FROM (
+    SELECT tr.id, b.seat_capacity - COUNT(ss.id) AS seats
+    FROM trip tr
+    JOIN bus b ON b.id = tr.bus_id
+    LEFT JOIN seat_status ss ON ss.trip_id = tr.id AND ss.state <> 'AVAILABLE'
+    WHERE tr.status = 'SCHEDULED' AND tr.departure_time > now()
+    GROUP BY tr.id, b.seat_capacity
+) c
+WHERE c.id = t.id AND t.available_seats <> c.seats;
@@ -0,0 +1,11 @@
+-- The purge of cancelled trips only has to look at trips whose seat rows are not cleared yet.
+-- purged_at is set once a cancelled trip has nothing left but its bookings, so the partial index
+-- holds the pending trips only instead of every trip ever cancelled.
+ALTER TABLE trip ADD COLUMN IF NOT EXISTS purged_at timestamp(6);
+
+UPDATE trip t SET purged_at = now()
+WHERE t.status = 'CANCELLED'
+  AND NOT EXISTS (SELECT 1 FROM seat_status s WHERE s.trip_id = t.id AND s.state <> 'BOOKED');
+
+DROP INDEX IF EXISTS idx_trip_cancelled;
+CREATE INDEX IF NOT EXISTS idx_trip_purge_pending ON trip (id) WHERE status = 'CANCELLED' AND purged_at IS NULL;
@@ -0,0 +1,65 @@
+-- Baseline schema, matching what Hibernate generated from the entities before migrations were introduced.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE operator (
+    id            uuid PRIMARY KEY,
+    name          varchar(255),
+    contact_email varchar(255),
+    contact_phone varchar(255),
+    rating        float(53)
+);
+
+CREATE TABLE bus (
+    id            uuid PRIMARY KEY,
+    operator_id   uuid REFERENCES operator (id),
+    plate_number  varchar(255),
+    model         varchar(255),
+    type          varchar(255),
+    seat_capacity integer NOT NULL
+);
+
+CREATE TABLE route (
+    id                uuid PRIMARY KEY,
+    operator_id       uuid REFERENCES operator (id),
+    origin            varchar(255),
+    destination       varchar(255),
+    distance_km       integer NOT NULL,
+    estimated_minutes integer NOT NULL
+);
+
+CREATE TABLE seat (
+    id          uuid PRIMARY KEY,
+    bus_id      uuid REFERENCES bus (id),
+    seat_code   varchar(255),
+    grid_row    integer NOT NULL,
+    grid_col    integer NOT NULL,
+    deck_number integer NOT NULL
+);
+
+CREATE TABLE trip (
+    id              uuid PRIMARY KEY,
+    operator_id     uuid REFERENCES operator (id),
+    route_id        uuid REFERENCES route (id),
+    bus_id          uuid REFERENCES bus (id),
+    departure_time  timestamp(6),
+    arrival_time    timestamp(6),
+    price           numeric(38, 2),
+    available_seats integer NOT NULL,
+    status          varchar(255) CHECK (status IN ('SCHEDULED', 'CANCELLED', 'COMPLETED'))
+);
+
+CREATE TABLE seat_status (
+    id      uuid PRIMARY KEY,
+    trip_id uuid REFERENCES trip (id),
+    seat_id uuid REFERENCES seat (id),
+    state   varchar(255) CHECK (state IN ('AVAILABLE', 'LOCKED', 'BOOKED'))
+);
+
+CREATE TABLE route_daily_fare (
+    route_id        uuid    NOT NULL,
+    travel_date     date    NOT NULL,
+    min_price       numeric(38, 2),
+    available_seats integer NOT NULL,
+    trip_count      integer NOT NULL,
+    PRIMARY KEY (route_id, travel_date)
+);
@@ -0,0 +1,26 @@
+-- Indexes for the hot read paths. IF NOT EXISTS keeps this safe on databases baselined from Hibernate DDL.
+
+-- TripRepository.findConflictingTrips: bus_id = ? AND departure_time < ? AND arrival_time > ?
+CREATE INDEX IF NOT EXISTS idx_trip_bus_departure_arrival ON trip (bus_id, departure_time, arrival_time);
+
+-- Trip search by route and day, fare calendar refresh for one (route, day)
+CREATE INDEX IF NOT EXISTS idx_trip_route_departure ON trip (route_id, departure_time);
+
+-- Departure range scans: search index rebuild, partner export, fare calendar rebuild
+CREATE INDEX IF NOT EXISTS idx_trip_departure ON trip (departure_time);
+
+-- Partner export filtered by operator
+CREATE INDEX IF NOT EXISTS idx_trip_operator_departure ON trip (operator_id, departure_time);
+
+-- SeatStatusRepository.findByTripId and per-trip state counts
+CREATE INDEX IF NOT EXISTS idx_seat_status_trip_state ON seat_status (trip_id, state);
+
+-- SeatRepository.findByBusId
+CREATE INDEX IF NOT EXISTS idx_seat_bus ON seat (bus_id);
+
+-- Origin/destination lookups (fare calendar matches case-insensitively)
+CREATE INDEX IF NOT EXISTS idx_route_origin_destination ON route (lower(origin), lower(destination));
+
+-- Operator-scoped listings: BusRepository/RouteRepository.findByOperatorId
+CREATE INDEX IF NOT EXISTS idx_bus_operator ON bus (operator_id);
+CREATE INDEX IF NOT EXISTS idx_route_operator ON route (operator_id);
@@ -0,0 +1,2 @@
+-- Incremented by BusService.saveCustomSeatMap; part of the seat map ETag
+ALTER TABLE bus ADD COLUMN IF NOT EXISTS layout_version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Checkout holds: LOCKED seats carry their hold, owner and expiry
+ALTER TABLE seat_status ADD COLUMN IF NOT EXISTS hold_id uuid;
+ALTER TABLE seat_status ADD COLUMN IF NOT EXISTS locked_by varchar(255);
+ALTER TABLE seat_status ADD COLUMN IF NOT EXISTS locked_until timestamp(6);
+
+-- Release by hold id (manual release, timer wheel expiry)
+CREATE INDEX IF NOT EXISTS idx_seat_status_hold ON seat_status (hold_id) WHERE hold_id IS NOT NULL;
+
+-- Expiry sweep and startup recovery only look at currently locked seats
+CREATE INDEX IF NOT EXISTS idx_seat_status_locked_until ON seat_status (locked_until) WHERE state = 'LOCKED';
@@ -0,0 +1,6 @@
+-- Confirmed bookings: BOOKED seats carry the booking and the buyer
+ALTER TABLE seat_status ADD COLUMN IF NOT EXISTS booking_id uuid;
+ALTER TABLE seat_status ADD COLUMN IF NOT EXISTS booked_by varchar(255);
+
+CREATE INDEX IF NOT EXISTS idx_seat_status_booking ON seat_status (booking_id) WHERE booking_id IS NOT NULL;
+
@@ -0,0 +1,10 @@
+-- Sparse seat_status: a seat without a row for the trip is AVAILABLE, so only LOCKED and BOOKED
+-- seats need rows. Existing AVAILABLE rows carry no information and are collapsed here; every
+-- reader and writer treats an AVAILABLE row and a missing row the same way.
+DELETE FROM seat_status WHERE state = 'AVAILABLE';
+
+-- Claims insert the row on first use; the unique key is what makes concurrent claims safe
+CREATE UNIQUE INDEX IF NOT EXISTS uq_seat_status_trip_seat ON seat_status (trip_id, seat_id);
+
+-- Superseded for per-trip lookups by the unique index above
+DROP INDEX IF EXISTS idx_seat_status_trip_state;
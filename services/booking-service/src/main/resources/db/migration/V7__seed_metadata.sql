@@ -0,0 +1,6 @@
+-- Checksum of the seed data set last loaded by DataInitializer; an unchanged data set is not reloaded
+CREATE TABLE IF NOT EXISTS seed_metadata (
+    name      varchar(100) PRIMARY KEY,
+    checksum  varchar(64)  NOT NULL,
+    loaded_at timestamp(6) NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Cancelled trips whose seat statuses are still to be purged; small, so the purge job finds them
+-- without scanning the whole trip table
+CREATE INDEX IF NOT EXISTS idx_trip_cancelled ON trip (id) WHERE status = 'CANCELLED';
@@ -0,0 +1,124 @@
+-- Seat layouts become templates shared by every bus with the same seats, instead of one full set
+-- of seat rows per bus. A seat belongs to a layout, a bus references its layout, and seat_status
+-- keeps pointing at seat ids, which are now the template's seats.
+CREATE TABLE IF NOT EXISTS seat_layout (
+    id      uuid PRIMARY KEY,
+    name    varchar(255) NOT NULL,
+    version bigint       NOT NULL DEFAULT 0   -- bumped on every seat change; part of the seat map ETag
+);
+
+ALTER TABLE bus ADD COLUMN IF NOT EXISTS layout_id uuid REFERENCES seat_layout (id);
+ALTER TABLE seat ADD COLUMN IF NOT EXISTS layout_id uuid REFERENCES seat_layout (id);
+
+-- Rows left on seats of another bus than the trip's (bus swaps before seat remapping existed) move
+-- to the trip's bus: the seat with the same code, failing that the one in the same position. Each
+-- row and each target seat is used once, booked rows first, and seats the trip already has a row
+-- for are skipped.
+CREATE TEMPORARY TABLE stray_status ON COMMIT DROP AS
+SELECT ss.id, ss.trip_id, ss.state, t.bus_id, s.seat_code, s.deck_number, s.grid_row, s.grid_col
+FROM seat_status ss
+JOIN seat s ON s.id = ss.seat_id
+JOIN trip t ON t.id = ss.trip_id
+WHERE s.bus_id IS DISTINCT FROM t.bus_id;
+
+WITH candidate AS (
+    SELECT st.id, st.trip_id, st.state, tgt.id AS seat_id,
+           row_number() OVER (PARTITION BY st.id ORDER BY tgt.id) AS per_row
+    FROM stray_status st
+    JOIN seat tgt ON tgt.bus_id = st.bus_id AND tgt.seat_code = st.seat_code
+    WHERE NOT EXISTS (SELECT 1 FROM seat_status o WHERE o.trip_id = st.trip_id AND o.seat_id = tgt.id)
+), matched AS (
+    SELECT id, seat_id,
+           row_number() OVER (PARTITION BY trip_id, seat_id ORDER BY state = 'BOOKED' DESC, id) AS per_seat
+    FROM candidate WHERE per_row = 1
+), moved AS (
+    UPDATE seat_status ss SET seat_id = m.seat_id FROM matched m WHERE ss.id = m.id AND m.per_seat = 1
+    RETURNING ss.id
+)
+DELETE FROM stray_status WHERE id IN (SELECT id FROM moved);
+
+WITH candidate AS (
+    SELECT st.id, st.trip_id, st.state, tgt.id AS seat_id,
+           row_number() OVER (PARTITION BY st.id ORDER BY tgt.id) AS per_row
+    FROM stray_status st
+    JOIN seat tgt ON tgt.bus_id = st.bus_id AND tgt.deck_number = st.deck_number
+        AND tgt.grid_row = st.grid_row AND tgt.grid_col = st.grid_col
+    WHERE NOT EXISTS (SELECT 1 FROM seat_status o WHERE o.trip_id = st.trip_id AND o.seat_id = tgt.id)
+), matched AS (
+    SELECT id, seat_id,
+           row_number() OVER (PARTITION BY trip_id, seat_id ORDER BY state = 'BOOKED' DESC, id) AS per_seat
+    FROM candidate WHERE per_row = 1
+), moved AS (
+    UPDATE seat_status ss SET seat_id = m.seat_id FROM matched m WHERE ss.id = m.id AND m.per_seat = 1
+    RETURNING ss.id
+)
+DELETE FROM stray_status WHERE id IN (SELECT id FROM moved);
+
+-- Whatever is left has no seat on the trip's bus: a booking on a trip yet to depart must not lose
+-- its seat, so stop and let it be resolved by hand; other rows (holds, free seats, past trips) are
+-- detached and reported
+DO $$
+DECLARE
+    booked bigint;
+    detached bigint;
+BEGIN
+    SELECT count(*) INTO booked
+    FROM stray_status st JOIN trip t ON t.id = st.trip_id
+    WHERE st.state = 'BOOKED' AND t.departure_time > now();
+    IF booked > 0 THEN
+        RAISE EXCEPTION '% booked seats on upcoming trips have no matching seat on their trip''s bus', booked;
+    END IF;
+
+    UPDATE seat_status SET seat_id = NULL WHERE id IN (SELECT id FROM stray_status);
+    GET DIAGNOSTICS detached = ROW_COUNT;
+    IF detached > 0 THEN
+        RAISE NOTICE 'Detached % seat statuses with no matching seat on their trip''s bus', detached;
+    END IF;
+END $$;
+
+-- One template per distinct seat set; its seats are those of the first bus that has the set
+CREATE TEMPORARY TABLE bus_signature ON COMMIT DROP AS
+SELECT b.id AS bus_id, b.model, b.layout_version,
+       COALESCE(string_agg(s.deck_number || ':' || s.grid_row || ':' || s.grid_col || ':' || COALESCE(s.seat_code, ''),
+                           ',' ORDER BY s.deck_number, s.grid_row, s.grid_col, s.seat_code), '') AS signature
+FROM bus b LEFT JOIN seat s ON s.bus_id = b.id
+GROUP BY b.id, b.model, b.layout_version;
+
+CREATE TEMPORARY TABLE layout_source ON COMMIT DROP AS
+SELECT DISTINCT ON (signature) signature, bus_id AS source_bus_id, model, layout_version
+FROM bus_signature
+ORDER BY signature, bus_id;
+ALTER TABLE layout_source ADD COLUMN layout_id uuid;
+UPDATE layout_source SET layout_id = gen_random_uuid();
+
+INSERT INTO seat_layout (id, name, version)
+SELECT layout_id, COALESCE(model, 'Layout'), layout_version FROM layout_source;
+
+UPDATE bus b SET layout_id = ls.layout_id
+FROM bus_signature bs JOIN layout_source ls ON ls.signature = bs.signature
+WHERE bs.bus_id = b.id;
+
+UPDATE seat s SET layout_id = ls.layout_id
+FROM layout_source ls
+WHERE s.bus_id = ls.source_bus_id;
+
+-- Statuses on the other buses' copies move to the template seat at the same place
+UPDATE seat_status ss SET seat_id = tpl.id
+FROM seat old
+JOIN bus b ON b.id = old.bus_id
+JOIN seat tpl ON tpl.layout_id = b.layout_id
+    AND tpl.deck_number = old.deck_number AND tpl.grid_row = old.grid_row AND tpl.grid_col = old.grid_col
+    AND tpl.seat_code IS NOT DISTINCT FROM old.seat_code
+WHERE ss.seat_id = old.id AND old.layout_id IS NULL;
+
+DELETE FROM seat WHERE layout_id IS NULL;
+
+DROP INDEX IF EXISTS idx_seat_bus;
+ALTER TABLE seat DROP COLUMN bus_id;
+ALTER TABLE seat ALTER COLUMN layout_id SET NOT NULL;
+ALTER TABLE bus DROP COLUMN layout_version;
+
+-- BusLayoutCache: seats of one layout
+CREATE INDEX IF NOT EXISTS idx_seat_layout ON seat (layout_id);
+-- Buses sharing a layout (capacity updates, copy-on-write of a shared layout)
+CREATE INDEX IF NOT EXISTS idx_bus_layout ON bus (layout_id);
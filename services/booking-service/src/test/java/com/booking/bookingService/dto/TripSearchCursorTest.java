@@ -0,0 +1,70 @@
+package com.booking.bookingService.dto;
+
+import com.booking.bookingService.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripSearchCursorTest {
+
+    @Test
+    void decode_EncodedCursor_RoundTripsEverySort() {
+        for (TripSearchSort sort : TripSearchSort.values()) {
+            // Arrange
+            TripSearchCursor cursor = new TripSearchCursor(sort, LocalDateTime.of(2030, 1, 15, 21, 30, 15),
+                    new BigDecimal("380000.50"), 4.25, UUID.fromString("f3a1c2d4-0000-4000-8000-00000000000a"));
+
+            // Act
+            TripSearchCursor decoded = TripSearchCursor.decode(cursor.encode());
+
+            // Assert
+            assertEquals(cursor, decoded);
+        }
+    }
+
+    @Test
+    void decode_NoRatingAndWholePrice_RoundTrips() {
+        // Arrange
+        TripSearchCursor cursor = new TripSearchCursor(TripSearchSort.HIGHEST_RATING, LocalDateTime.of(2030, 1, 15, 6, 0),
+                new BigDecimal("250000"), null, UUID.randomUUID());
+
+        // Act
+        TripSearchCursor decoded = TripSearchCursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+        assertNull(decoded.rating());
+    }
+
+    @Test
+    void decode_ProbeRow_SortsLikeTheRowItCameFrom() {
+        // Arrange
+        TripSearchRow row = new TripSearchRow(UUID.randomUUID(), UUID.randomUUID(), "Ho Chi Minh City", "Da Lat", 420,
+                UUID.randomUUID(), "Futa Bus Lines", 4.5, UUID.randomUUID(), "Thaco Mobihome", "Sleeper", 40,
+                LocalDateTime.of(2030, 1, 15, 22, 0), LocalDateTime.of(2030, 1, 16, 5, 0),
+                new BigDecimal("320000"), 12, null);
+
+        for (TripSearchSort sort : TripSearchSort.values()) {
+            // Act
+            TripSearchRow probe = TripSearchCursor.decode(TripSearchCursor.after(sort, row).encode()).toProbeRow();
+
+            // Assert
+            assertEquals(0, sort.comparator().compare(row, probe), sort.name());
+        }
+    }
+
+    @Test
+    void decode_TamperedCursor_IsBadRequest() {
+        // Arrange
+        String valid = new TripSearchCursor(TripSearchSort.EARLIEST, LocalDateTime.of(2030, 1, 15, 6, 0),
+                new BigDecimal("250000"), null, UUID.randomUUID()).encode();
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> TripSearchCursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> TripSearchCursor.decode(valid.substring(0, valid.length() / 2)));
+    }
+}
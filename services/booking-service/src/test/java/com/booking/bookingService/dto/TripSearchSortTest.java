@@ -0,0 +1,63 @@
+package com.booking.bookingService.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cursors built from in-memory results resume against the database, so the in-memory UUID order
+ * must be PostgreSQL's. UUID#compareTo compares signed halves and disagrees on ids with the high bit set.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TripSearchSortTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareIds_MatchesPostgresUuidOrder() {
+        // Arrange: random ids plus the signed/unsigned edge cases of both halves
+        Random random = new Random(7);
+        List<UUID> ids = new ArrayList<>(List.of(
+                new UUID(0L, 0L),
+                new UUID(-1L, -1L),
+                new UUID(Long.MIN_VALUE, 0L),
+                new UUID(Long.MAX_VALUE, Long.MAX_VALUE),
+                new UUID(1L, Long.MIN_VALUE),
+                new UUID(1L, 1L)));
+        for (int i = 0; i < 500; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        // Act
+        List<UUID> inMemory = new ArrayList<>(ids);
+        inMemory.sort(TripSearchSort::compareIds);
+        String array = ids.stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}"));
+        List<UUID> inPostgres = jdbcTemplate.queryForList(
+                "SELECT id FROM unnest(CAST(? AS uuid[])) AS id ORDER BY id", UUID.class, array);
+
+        // Assert
+        assertEquals(inPostgres, inMemory);
+        assertNotEquals(inPostgres, ids.stream().sorted().toList());
+    }
+}
@@ -0,0 +1,97 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.event.RouteChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceSuggestionIndexTest {
+
+    private PlaceSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Fed through route events only; the repository is needed by rebuild() alone
+        index = new PlaceSuggestionIndex(null);
+        route("Hà Nội", "Đà Nẵng");
+        route("Hà Nội", "Hải Phòng");
+        route("Hà Nội", "Hạ Long");
+        route("Hồ Chí Minh", "Đà Lạt");
+        route("Hồ Chí Minh", "Đà Nẵng");
+    }
+
+    @Test
+    void fold_StripsDiacriticsAndCollapsesWhitespace() {
+        // Assert
+        assertEquals("da nang", PlaceSuggestionIndex.fold("  Đà   Nẵng "));
+        assertEquals("ho chi minh", PlaceSuggestionIndex.fold("Hồ Chí Minh"));
+        assertEquals("", PlaceSuggestionIndex.fold(null));
+    }
+
+    @Test
+    void suggest_AccentedAndPlainQuery_FindSamePlaces() {
+        // Act
+        List<String> plain = index.suggest("da", 10);
+        List<String> accented = index.suggest("Đà", 10);
+
+        // Assert
+        assertEquals(List.of("Đà Nẵng", "Đà Lạt"), plain);
+        assertEquals(plain, accented);
+    }
+
+    @Test
+    void suggest_RanksFullNameMatchesFirstThenByRouteCount() {
+        // Act: "h" starts Ha Noi (3 routes), Ho Chi Minh (2), Hai Phong and Ha Long (1 each)
+        List<String> suggestions = index.suggest("h", 10);
+
+        // Assert
+        assertEquals(List.of("Hà Nội", "Hồ Chí Minh", "Hạ Long", "Hải Phòng"), suggestions);
+    }
+
+    @Test
+    void suggest_WordMatch_ComesAfterFullNameMatch() {
+        // Arrange: "Long" matches "Ha Long" by its second word only
+        route("Long Xuyên", "Cần Thơ");
+
+        // Act
+        List<String> suggestions = index.suggest("long", 10);
+
+        // Assert
+        assertEquals(List.of("Long Xuyên", "Hạ Long"), suggestions);
+    }
+
+    @Test
+    void suggest_RouteChanged_ReRanksAndDropsEmptyPlace() {
+        // Arrange
+        UUID routeId = route("Vũng Tàu", "Hạ Long");
+        assertEquals(List.of("Hà Nội", "Hạ Long", "Hồ Chí Minh", "Hải Phòng"), index.suggest("h", 10));
+
+        // Act: the route moves from Ha Long to Hai Phong
+        index.onRouteChanged(new RouteChangedEvent(routeId, "Vũng Tàu", "Hạ Long", "Vũng Tàu", "Hải Phòng"));
+        List<String> afterMove = index.suggest("h", 10);
+        index.onRouteChanged(new RouteChangedEvent(routeId, "Vũng Tàu", "Hải Phòng", null, null));
+
+        // Assert
+        assertEquals(List.of("Hà Nội", "Hải Phòng", "Hồ Chí Minh", "Hạ Long"), afterMove);
+        assertTrue(index.suggest("vung", 10).isEmpty());
+        assertTrue(index.suggest("tau", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_LimitAndUnknownPrefix() {
+        // Assert
+        assertEquals(List.of("Hà Nội"), index.suggest("h", 1));
+        assertTrue(index.suggest("x", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    private UUID route(String origin, String destination) {
+        UUID routeId = UUID.randomUUID();
+        index.onRouteChanged(new RouteChangedEvent(routeId, null, null, origin, destination));
+        return routeId;
+    }
+}
@@ -0,0 +1,110 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.dto.ConnectionSearchRequest;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.model.Trip;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteGraphTest {
+
+    private final LocalDate travelDate = LocalDate.now().plusDays(2);
+    private RouteGraph graph;
+
+    private TripSearchRow toDaLat;
+    private TripSearchRow direct;
+    private TripSearchRow tightConnection;
+    private TripSearchRow onward;
+    private TripSearchRow tooLate;
+
+    @BeforeEach
+    void setUp() {
+        // Fed through trip events only; the repository is needed by rebuild() alone
+        graph = new RouteGraph(null, 20_000);
+
+        // Saigon -> Da Lat arrives 06:00; onward Da Lat -> Nha Trang at 06:10 (too tight),
+        // 07:00 (fits) and 20:00 (over the 12 h wait); direct Saigon -> Nha Trang arrives 09:00
+        toDaLat = add("Ho Chi Minh City", "Da Lat", at(0, 0), at(6, 0), "300000", 20);
+        direct = add("Ho Chi Minh City", "Nha Trang", at(1, 0), at(9, 0), "350000", 20);
+        tightConnection = add("Da Lat", "Nha Trang", at(6, 10), at(10, 10), "150000", 20);
+        onward = add("Da Lat", "Nha Trang", at(7, 0), at(11, 0), "150000", 20);
+        tooLate = add("Da Lat", "Nha Trang", at(20, 0), at(23, 30), "150000", 20);
+    }
+
+    @Test
+    void search_OneTransfer_FindsConnectionAfterDirectTrip() {
+        // Act
+        List<List<TripSearchRow>> itineraries = graph.search(request().build());
+
+        // Assert: ordered by arrival; the tight and the late onward legs are not offered
+        assertEquals(List.of(List.of(direct), List.of(toDaLat, onward)), itineraries);
+    }
+
+    @Test
+    void search_NoTransfersAllowed_ReturnsDirectTripOnly() {
+        // Act
+        List<List<TripSearchRow>> itineraries = graph.search(request().maxTransfers(0).build());
+
+        // Assert
+        assertEquals(List.of(List.of(direct)), itineraries);
+    }
+
+    @Test
+    void search_OnwardLegSoldOut_UsesNextConnectionWithinWindow() {
+        // Arrange: the 07:00 leg has one seat left; shorter minimum connection makes 06:10 usable
+        graph.onTripChanged(TripChangedEvent.updated(onward, onward.withAvailableSeats(1)));
+
+        // Act
+        List<List<TripSearchRow>> itineraries = graph.search(request().passengers(2).minConnectionMinutes(10).build());
+
+        // Assert
+        assertEquals(List.of(List.of(direct), List.of(toDaLat, tightConnection)), itineraries);
+    }
+
+    @Test
+    void search_LongerWaitAllowed_OffersLaterConnection() {
+        // Act
+        List<List<TripSearchRow>> itineraries = graph.search(request().maxConnectionMinutes(15 * 60).build());
+
+        // Assert
+        assertEquals(List.of(List.of(direct), List.of(toDaLat, onward), List.of(toDaLat, tooLate)), itineraries);
+    }
+
+    @Test
+    void search_CancelledFirstLeg_DropsConnection() {
+        // Arrange
+        graph.onTripChanged(TripChangedEvent.updated(toDaLat, toDaLat.withStatus(Trip.TripStatus.CANCELLED)));
+
+        // Act
+        List<List<TripSearchRow>> itineraries = graph.search(request().build());
+
+        // Assert
+        assertEquals(List.of(List.of(direct)), itineraries);
+    }
+
+    private ConnectionSearchRequest.ConnectionSearchRequestBuilder request() {
+        return ConnectionSearchRequest.builder().origin("ho chi minh city").destination("Nha Trang").date(travelDate);
+    }
+
+    private LocalDateTime at(int hour, int minute) {
+        return travelDate.atTime(hour, minute);
+    }
+
+    private TripSearchRow add(String origin, String destination, LocalDateTime departure, LocalDateTime arrival,
+                              String price, int availableSeats) {
+        TripSearchRow row = new TripSearchRow(UUID.randomUUID(), UUID.randomUUID(), origin, destination, 0,
+                UUID.randomUUID(), "Futa Bus Lines", 4.5, UUID.randomUUID(), "Thaco Mobihome", "Sleeper", 40,
+                departure, arrival, new BigDecimal(price), availableSeats, Trip.TripStatus.SCHEDULED);
+        graph.onTripChanged(TripChangedEvent.created(row));
+        return row;
+    }
+}
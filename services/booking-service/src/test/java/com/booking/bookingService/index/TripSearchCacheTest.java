@@ -0,0 +1,117 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchResult;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.model.Trip;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripSearchCacheTest {
+
+    private final LocalDate travelDate = LocalDate.now().plusDays(3);
+    private TripSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Only seat changes consult the index; these tests deliver trip changes
+        cache = new TripSearchCache(null, 64);
+    }
+
+    @Test
+    void put_AfterMatchingInvalidation_IsDropped() {
+        // Arrange: a search reads the generation, then a trip on its route changes mid-computation
+        TripSearchCache.Key key = key("ho chi minh", "da lat", travelDate);
+        long generation = cache.generation(key);
+        cache.onTripChanged(TripChangedEvent.created(row("Ho Chi Minh City", "Da Lat", travelDate)));
+
+        // Act
+        cache.put(key, generation, result());
+
+        // Assert
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void put_UndatedSearchAfterInvalidation_IsDropped() {
+        // Arrange
+        TripSearchCache.Key key = key("ho chi minh", "", null);
+        long generation = cache.generation(key);
+        cache.onTripChanged(TripChangedEvent.created(row("Ho Chi Minh City", "Vung Tau", travelDate.plusDays(1))));
+
+        // Act
+        cache.put(key, generation, result());
+
+        // Assert
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void put_AfterClear_IsDropped() {
+        // Arrange
+        TripSearchCache.Key key = key("ha noi", "sa pa", travelDate);
+        long generation = cache.generation(key);
+        cache.clear();
+
+        // Act
+        cache.put(key, generation, result());
+
+        // Assert
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void put_InvalidationOfOtherDay_IsKept() {
+        // Arrange
+        TripSearchCache.Key key = key("ho chi minh", "da lat", travelDate);
+        long generation = cache.generation(key);
+        cache.onTripChanged(TripChangedEvent.created(row("Ho Chi Minh City", "Da Lat", travelDate.plusDays(1))));
+
+        // Act
+        TripSearchResult result = result();
+        cache.put(key, generation, result);
+
+        // Assert
+        assertSame(result, cache.get(key));
+    }
+
+    @Test
+    void onTripChanged_MatchingRouteAndDay_EvictsCachedSearch() {
+        // Arrange
+        TripSearchCache.Key matching = key("ho chi minh", "da", travelDate);
+        TripSearchCache.Key otherRoute = key("ha noi", "sa pa", travelDate);
+        cache.put(matching, cache.generation(matching), result());
+        cache.put(otherRoute, cache.generation(otherRoute), result());
+
+        // Act
+        cache.onTripChanged(TripChangedEvent.created(row("Ho Chi Minh City", "Da Nang", travelDate)));
+
+        // Assert
+        assertNull(cache.get(matching));
+        assertNotNull(cache.get(otherRoute));
+    }
+
+    private TripSearchCache.Key key(String origin, String destination, LocalDate date) {
+        return TripSearchCache.Key.of(TripSearchRequest.builder()
+                .origin(origin).destination(destination).date(date).build());
+    }
+
+    private static TripSearchResult result() {
+        return TripSearchResult.builder().trips(List.of()).hasNext(false).build();
+    }
+
+    private static TripSearchRow row(String origin, String destination, LocalDate date) {
+        return new TripSearchRow(UUID.randomUUID(), UUID.randomUUID(), origin, destination, 420,
+                UUID.randomUUID(), "Futa Bus Lines", 4.5, UUID.randomUUID(), "Thaco Mobihome", "Sleeper", 40,
+                date.atTime(22, 0), date.atTime(22, 0).plusHours(7), new BigDecimal("320000"), 40,
+                Trip.TripStatus.SCHEDULED);
+    }
+}
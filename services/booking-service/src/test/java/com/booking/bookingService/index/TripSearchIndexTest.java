@@ -0,0 +1,184 @@
+package com.booking.bookingService.index;
+
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.dto.TripSearchSort;
+import com.booking.bookingService.event.SeatAvailabilityChangedEvent;
+import com.booking.bookingService.event.TripChangedEvent;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.repository.TripRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The index must answer exactly like the SQL path it stands in for: every request is run through
+ * both and the matching trip ids compared.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TripSearchIndex.class)
+class TripSearchIndexTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private TripSearchIndex tripSearchIndex;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDate travelDate = LocalDate.now().plusDays(5);
+    private Operator futa;
+    private Operator phuongTrang;
+
+    @BeforeEach
+    void setUp() {
+        futa = Operator.builder().name("Futa Bus Lines").rating(4.5).build();
+        entityManager.persist(futa);
+        phuongTrang = Operator.builder().name("Phuong Trang").rating(4.2).build();
+        entityManager.persist(phuongTrang);
+
+        Bus sleeper = bus(futa, "Sleeper", "51B-11111");
+        Bus limousine = bus(phuongTrang, "Limousine", "51B-22222");
+        Route daLat = route(futa, "Ho Chi Minh City", "Da Lat");
+        Route daNang = route(futa, "Ho Chi Minh City", "Da Nang");
+        Route saPa = route(phuongTrang, "Ha Noi", "Sa Pa");
+
+        trip(daLat, sleeper, 7, "250000", 30, Trip.TripStatus.SCHEDULED);
+        trip(daLat, limousine, 13, "320000", 1, Trip.TripStatus.SCHEDULED);
+        trip(daLat, limousine, 19, "380000.50", 9, Trip.TripStatus.SCHEDULED);
+        trip(daNang, sleeper, 22, "450000", 0, Trip.TripStatus.SCHEDULED);
+        trip(daNang, limousine, 8, "520000", 9, Trip.TripStatus.CANCELLED);
+        trip(saPa, limousine, 21, "400000", 9, Trip.TripStatus.SCHEDULED);
+        entityManager.flush();
+        entityManager.clear();
+
+        tripSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_EveryFilter_MatchesDatabase() {
+        List<TripSearchRequest> requests = List.of(
+                request().origin("ho chi minh").destination("da").build(),
+                request().origin("Ho Chi Minh").destination("Da Lat").busType("limousine").build(),
+                request().origin("ho chi minh").destination("da").operatorId(phuongTrang.getId()).build(),
+                request().origin("ho chi minh").destination("da").passengers(2).build(),
+                request().origin("ho chi minh").destination("da").minPrice(new BigDecimal("300000"))
+                        .maxPrice(new BigDecimal("380000.50")).build(),
+                request().origin("ho chi minh").destination("da").departureTime("evening").build(),
+                request().origin("ha noi").departureTime("night").build(),
+                request().origin("ho chi minh").destination("da").busType("standard").build(),
+                request().origin("can tho").destination("da").build());
+
+        for (TripSearchRequest request : requests) {
+            // Act
+            Set<UUID> fromIndex = tripSearchIndex.search(request).orElseThrow().stream()
+                    .map(TripSearchRow::tripId)
+                    .collect(Collectors.toSet());
+
+            // Assert
+            assertEquals(fromDatabase(request), fromIndex, request.toString());
+        }
+    }
+
+    @Test
+    void search_AfterCancelAndSeatChange_StillMatchesDatabase() {
+        // Arrange
+        TripSearchRequest request = request().origin("ho chi minh").destination("da lat").passengers(5).build();
+        List<TripSearchRow> rows = tripSearchIndex.search(request).orElseThrow();
+        TripSearchRow cancelled = rows.get(0);
+        TripSearchRow soldDown = rows.get(1);
+
+        // Act: the same changes applied to the database and delivered to the index as events
+        tripRepository.cancelAll(List.of(cancelled.tripId()));
+        tripSearchIndex.onTripChanged(TripChangedEvent.updated(cancelled, cancelled.withStatus(Trip.TripStatus.CANCELLED)));
+        jdbcTemplate.update("UPDATE trip SET available_seats = 3 WHERE id = ?", soldDown.tripId());
+        tripSearchIndex.onSeatAvailabilityChanged(new SeatAvailabilityChangedEvent(soldDown.tripId(), 3));
+
+        // Assert
+        Set<UUID> fromIndex = tripSearchIndex.search(request).orElseThrow().stream()
+                .map(TripSearchRow::tripId)
+                .collect(Collectors.toSet());
+        assertEquals(2, rows.size());
+        assertTrue(fromIndex.isEmpty());
+        assertEquals(fromDatabase(request), fromIndex);
+    }
+
+    @Test
+    void search_DayBeforeIndexHorizon_FallsBackToDatabase() {
+        // Arrange
+        TripSearchRequest request = TripSearchRequest.builder().origin("ha noi").date(LocalDate.now().minusDays(1)).build();
+
+        // Act & Assert
+        assertTrue(tripSearchIndex.search(request).isEmpty());
+    }
+
+    private Set<UUID> fromDatabase(TripSearchRequest request) {
+        return tripRepository.searchRows(request, TripSearchSort.EARLIEST, PageRequest.of(0, 100)).stream()
+                .map(TripSearchRow::tripId)
+                .collect(Collectors.toSet());
+    }
+
+    private TripSearchRequest.TripSearchRequestBuilder request() {
+        return TripSearchRequest.builder().date(travelDate);
+    }
+
+    private Bus bus(Operator operator, String type, String plateNumber) {
+        Bus bus = Bus.builder().operator(operator).model(type + " 40").plateNumber(plateNumber)
+                .type(type).seatCapacity(40).build();
+        entityManager.persist(bus);
+        return bus;
+    }
+
+    private Route route(Operator operator, String origin, String destination) {
+        Route route = Route.builder().operator(operator).origin(origin).destination(destination)
+                .distanceKm(300).estimatedMinutes(420).build();
+        entityManager.persist(route);
+        return route;
+    }
+
+    private void trip(Route route, Bus bus, int hour, String price, int availableSeats, Trip.TripStatus status) {
+        entityManager.persist(Trip.builder()
+                .operator(bus.getOperator())
+                .route(route)
+                .bus(bus)
+                .departureTime(travelDate.atTime(hour, 0))
+                .arrivalTime(travelDate.atTime(hour, 0).plusHours(7))
+                .price(new BigDecimal(price))
+                .availableSeats(availableSeats)
+                .status(status)
+                .build());
+    }
+}
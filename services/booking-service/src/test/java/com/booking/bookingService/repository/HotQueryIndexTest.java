@@ -0,0 +1,146 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchSort;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot queries through EXPLAIN against the Flyway-migrated schema and checks that each one
+ * is served by its index. Sequential scans are disabled so the planner's choice does not depend on
+ * the (empty) table statistics: if no usable index exists the plan still falls back to a Seq Scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.booking.bookingService.repository.HotQueryIndexTest$CapturedSql")
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class HotQueryIndexTest {
+
+    private static final String TRIP_ID = "'00000000-0000-0000-0000-000000000001'";
+    private static final String BUS_ID = "'00000000-0000-0000-0000-000000000002'";
+    private static final String LAYOUT_ID = "'00000000-0000-0000-0000-000000000004'";
+    private static final String OPERATOR_ID = "'00000000-0000-0000-0000-000000000003'";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+    }
+
+    @Test
+    void findConflictingTrips_UsesBusDepartureArrivalIndex() {
+        String plan = explain("SELECT * FROM trip WHERE bus_id = " + BUS_ID + " AND status <> 'CANCELLED' " +
+                "AND departure_time < '2030-01-01 12:00' AND arrival_time > '2030-01-01 08:00'");
+
+        assertTrue(plan.contains("idx_trip_bus_departure_arrival"), plan);
+    }
+
+    @Test
+    void findSeatStatusByTripId_UsesTripSeatKey() {
+        String plan = explain("SELECT * FROM seat_status WHERE trip_id = " + TRIP_ID);
+
+        assertTrue(plan.contains("uq_seat_status_trip_seat"), plan);
+    }
+
+    @Test
+    void findSeatsByLayoutId_UsesLayoutIndex() {
+        String plan = explain("SELECT * FROM seat WHERE layout_id = " + LAYOUT_ID);
+
+        assertTrue(plan.contains("idx_seat_layout"), plan);
+    }
+
+    @Test
+    void searchByRouteAndDay_UsesDepartureIndex() {
+        // Arrange: the search matches origin and destination with LIKE '%x%', which no btree can
+        // serve, so the day range is what must keep the trip side off a full scan
+        TripSearchRequest request = new TripSearchRequest();
+        request.setOrigin("Ha Noi");
+        request.setDestination("Da Nang");
+        request.setDate(LocalDate.of(2030, 1, 1));
+        CapturedSql.statements.clear();
+
+        // Act: run the query TripSearchRepositoryImpl really builds, then plan it with its parameters open
+        tripRepository.searchRows(request, TripSearchSort.EARLIEST, PageRequest.of(0, 20));
+        String sql = CapturedSql.statements.stream()
+                .filter(statement -> statement.contains(" from trip "))
+                .findFirst()
+                .orElseThrow();
+        String plan = explain("(GENERIC_PLAN) " + numberParameters(sql));
+
+        // Assert
+        assertTrue(plan.matches("(?s).*idx_trip_(route_)?departure\\b.*"), plan);
+    }
+
+    @Test
+    void departureRangeScan_UsesDepartureIndex() {
+        String plan = explain("SELECT * FROM trip WHERE departure_time >= '2030-01-01'");
+
+        assertTrue(plan.contains("idx_trip_departure"), plan);
+    }
+
+    @Test
+    void exportByOperator_UsesOperatorDepartureIndex() {
+        String plan = explain("SELECT * FROM trip WHERE operator_id = " + OPERATOR_ID +
+                " AND departure_time >= '2030-01-01' ORDER BY departure_time");
+
+        assertTrue(plan.contains("idx_trip_operator_departure"), plan);
+    }
+
+    // JDBC placeholders to the $n form EXPLAIN (GENERIC_PLAN) takes
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    /** Records the SQL Hibernate sends, so the test plans the statement the repository builds. */
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String explain(String sql) {
+        List<Object> lines = entityManager.createNativeQuery("EXPLAIN " + sql).getResultList();
+        return lines.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,209 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.dto.BookingRequest;
+import com.booking.bookingService.dto.BookingResult;
+import com.booking.bookingService.exception.SeatUnavailableException;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.model.SeatStatus;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.BusLayoutCache;
+import com.booking.bookingService.seat.SeatStateStore;
+import com.booking.bookingService.service.BookingService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hundreds of buyers race for the same seats through BookingService, each in its own transaction.
+ * Half the seats have an AVAILABLE row and half have none (sparse storage), so both the update and
+ * the insert path of SeatStatusRepository#bookSeats race. Whatever the interleaving, no seat may be
+ * sold twice, and once the seat counters are flushed trip.available_seats must match the seats
+ * actually booked.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BookingService.class, SeatStateStore.class, BusLayoutCache.class, AvailabilityCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatBookingConcurrencyTest {
+
+    private static final int SEATS = 40;
+    private static final int BUYERS = 300;
+    private static final int THREADS = 32;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityCounters availabilityCounters;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private UUID tripId;
+    private List<UUID> seatIds;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Operator operator = Operator.builder().name("Phuong Trang").rating(4.2).build();
+            entityManager.persist(operator);
+
+            SeatLayout layout = SeatLayout.builder().name("Thaco Mobihome").build();
+            entityManager.persist(layout);
+            Bus bus = Bus.builder().operator(operator).model("Thaco Mobihome").plateNumber("51B-67890").layout(layout)
+                    .type("Sleeper").seatCapacity(SEATS).build();
+            entityManager.persist(bus);
+
+            Route route = Route.builder().operator(operator).origin("Ha Noi").destination("Sa Pa")
+                    .distanceKm(320).estimatedMinutes(330).build();
+            entityManager.persist(route);
+
+            Trip trip = Trip.builder().operator(operator).route(route).bus(bus)
+                    .departureTime(LocalDateTime.now().plusDays(3))
+                    .arrivalTime(LocalDateTime.now().plusDays(3).plusHours(6))
+                    .price(new BigDecimal("450000"))
+                    .availableSeats(SEATS)
+                    .status(Trip.TripStatus.SCHEDULED)
+                    .build();
+            entityManager.persist(trip);
+            tripId = trip.getId();
+
+            seatIds = new ArrayList<>();
+            for (int i = 0; i < SEATS; i++) {
+                Seat seat = Seat.builder().layout(layout).seatCode("A" + (i + 1))
+                        .gridRow(i / 4 + 1).gridCol(i % 4 + 1).deckNumber(1).build();
+                entityManager.persist(seat);
+                if (i % 2 == 0) {
+                    entityManager.persist(SeatStatus.builder().trip(trip).seat(seat)
+                            .state(SeatStatus.SeatState.AVAILABLE).build());
+                }
+                seatIds.add(seat.getId());
+            }
+        });
+    }
+
+    @Test
+    void confirm_HundredsOfParallelBuyers_NeverOversells() throws Exception {
+        // Arrange: most buyers want a seat among the first 12, so conflicts are constant
+        Random random = new Random(42);
+        List<List<UUID>> wanted = new ArrayList<>();
+        for (int b = 0; b < BUYERS; b++) {
+            List<UUID> pool = new ArrayList<>(b % 3 == 0 ? seatIds : seatIds.subList(0, 12));
+            Collections.shuffle(pool, random);
+            wanted.add(List.copyOf(pool.subList(0, 1 + random.nextInt(3))));
+        }
+
+        Map<UUID, String> soldTo = new ConcurrentHashMap<>();
+        AtomicInteger oversold = new AtomicInteger();
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int b = 0; b < BUYERS; b++) {
+            String buyer = "buyer" + b + "@example.com";
+            List<UUID> seats = wanted.get(b);
+            futures.add(executor.submit(() -> {
+                start.await();
+                BookingRequest request = new BookingRequest();
+                request.setSeatIds(seats);
+                BookingResult result;
+                try {
+                    result = bookingService.confirm(tripId, request, buyer);
+                } catch (SeatUnavailableException e) {
+                    // Lost the insert of a seat without a row; the booking rolled back
+                    rejected.incrementAndGet();
+                    return null;
+                }
+                if (!result.isConfirmed()) {
+                    rejected.incrementAndGet();
+                    return null;
+                }
+                confirmed.incrementAndGet();
+                for (UUID seatId : seats) {
+                    if (soldTo.putIfAbsent(seatId, buyer) != null) {
+                        oversold.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(0, oversold.get());
+        assertEquals(BUYERS, confirmed.get() + rejected.get());
+        assertTrue(confirmed.get() > 0);
+        assertTrue(rejected.get() > 0);
+
+        Map<UUID, String> booked = transaction.execute(status -> {
+            Map<UUID, String> rows = new HashMap<>();
+            for (Object row : entityManager.createNativeQuery(
+                            "SELECT seat_id, booked_by FROM seat_status WHERE trip_id = :tripId AND state = 'BOOKED'")
+                    .setParameter("tripId", tripId).getResultList()) {
+                Object[] columns = (Object[]) row;
+                rows.put((UUID) columns[0], (String) columns[1]);
+            }
+            return rows;
+        });
+        assertEquals(soldTo, booked);
+
+        availabilityCounters.flush();
+        Number available = transaction.execute(status -> (Number) entityManager
+                .createNativeQuery("SELECT available_seats FROM trip WHERE id = :tripId")
+                .setParameter("tripId", tripId).getSingleResult());
+        assertEquals(SEATS - booked.size(), available.intValue());
+        assertEquals(SEATS - booked.size(), availabilityCounters.get(tripId));
+    }
+}
@@ -0,0 +1,151 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.model.SeatStatus;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.model.Trip;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TripCancelPurgeTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private SeatStatusRepository seatStatusRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Trip cancelled;
+    private Trip scheduled;
+
+    @BeforeEach
+    void setUp() {
+        Operator operator = Operator.builder().name("Kumho Samco").rating(4.1).build();
+        entityManager.persist(operator);
+        SeatLayout layout = SeatLayout.builder().name("Hyundai Universe").build();
+        entityManager.persist(layout);
+        Bus bus = Bus.builder().operator(operator).model("Hyundai Universe").plateNumber("51B-24680")
+                .type("Seater").seatCapacity(6).layout(layout).build();
+        entityManager.persist(bus);
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Seat seat = Seat.builder().layout(layout).seatCode("A" + (i + 1)).gridRow(1).gridCol(i + 1).deckNumber(1).build();
+            entityManager.persist(seat);
+            seats.add(seat);
+        }
+        Route route = Route.builder().operator(operator).origin("Ho Chi Minh").destination("Vung Tau")
+                .distanceKm(95).estimatedMinutes(150).build();
+        entityManager.persist(route);
+
+        cancelled = trip(operator, route, bus, 2);
+        scheduled = trip(operator, route, bus, 3);
+        // The cancelled trip: three holds and one booking; the scheduled one: a hold
+        for (int i = 0; i < 3; i++) {
+            status(cancelled, seats.get(i), SeatState.LOCKED);
+        }
+        status(cancelled, seats.get(3), SeatState.BOOKED);
+        status(scheduled, seats.get(0), SeatState.LOCKED);
+        entityManager.flush();
+
+        tripRepository.cancelAll(List.of(cancelled.getId()));
+        entityManager.clear();
+    }
+
+    @Test
+    void purgeCancelledTrips_BoundedChunks_KeepBookingsAndLiveTrips() {
+        // Act
+        List<UUID> first = seatStatusRepository.purgeCancelledTrips(2);
+        List<UUID> second = seatStatusRepository.purgeCancelledTrips(2);
+        List<UUID> third = seatStatusRepository.purgeCancelledTrips(2);
+
+        // Assert
+        assertEquals(List.of(cancelled.getId(), cancelled.getId()), first);
+        assertEquals(List.of(cancelled.getId()), second);
+        assertTrue(third.isEmpty());
+        assertEquals(List.of(SeatState.BOOKED), states(cancelled));
+        assertEquals(List.of(SeatState.LOCKED), states(scheduled));
+    }
+
+    @Test
+    void markCancelledTripsPurged_OnlyDrainedTrips_LeavePendingSet() {
+        // Act
+        int markedWithHoldsLeft = tripRepository.markCancelledTripsPurged();
+        seatStatusRepository.purgeCancelledTrips(10);
+        int markedWhenDrained = tripRepository.markCancelledTripsPurged();
+
+        // Assert
+        assertEquals(0, markedWithHoldsLeft);
+        assertEquals(1, markedWhenDrained);
+        assertEquals(0, tripRepository.markCancelledTripsPurged());
+        assertEquals(List.of(SeatState.BOOKED), states(cancelled));
+    }
+
+    @Test
+    void findSearchRowsDepartingFrom_CancelledTrip_IsLeftOut() {
+        // Act
+        List<UUID> tripIds = tripRepository.findSearchRowsDepartingFrom(LocalDateTime.now()).stream()
+                .map(row -> row.tripId())
+                .toList();
+
+        // Assert
+        assertEquals(List.of(scheduled.getId()), tripIds);
+    }
+
+    private Trip trip(Operator operator, Route route, Bus bus, int daysAhead) {
+        Trip trip = Trip.builder().operator(operator).route(route).bus(bus)
+                .departureTime(LocalDateTime.now().plusDays(daysAhead))
+                .arrivalTime(LocalDateTime.now().plusDays(daysAhead).plusHours(3))
+                .price(new BigDecimal("160000"))
+                .availableSeats(6)
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+        return trip;
+    }
+
+    private void status(Trip trip, Seat seat, SeatState state) {
+        SeatStatus.SeatStatusBuilder builder = SeatStatus.builder().trip(trip).seat(seat).state(state);
+        if (state == SeatState.LOCKED) {
+            builder.holdId(UUID.randomUUID()).lockedBy("lan@example.com").lockedUntil(LocalDateTime.now().plusMinutes(10));
+        } else {
+            builder.bookingId(UUID.randomUUID()).bookedBy("lan@example.com");
+        }
+        entityManager.persist(builder.build());
+    }
+
+    private List<SeatState> states(Trip trip) {
+        return seatStatusRepository.findStatesByTripId(trip.getId()).stream()
+                .map(row -> row.state())
+                .toList();
+    }
+}
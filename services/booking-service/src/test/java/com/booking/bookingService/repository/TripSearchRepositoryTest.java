@@ -0,0 +1,125 @@
+package com.booking.bookingService.repository;
+
+import com.booking.bookingService.dto.TripSearchRequest;
+import com.booking.bookingService.dto.TripSearchRow;
+import com.booking.bookingService.dto.TripSearchSort;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Trip;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TripSearchRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final LocalDate travelDate = LocalDate.now().plusDays(7);
+
+    @BeforeEach
+    void setUp() {
+        Operator operator = Operator.builder().name("Futa Bus Lines").rating(4.5).build();
+        entityManager.persist(operator);
+
+        Bus bus = Bus.builder().operator(operator).model("Hyundai Universe").plateNumber("51B-12345")
+                .type("Sleeper").seatCapacity(36).build();
+        entityManager.persist(bus);
+
+        Route route = Route.builder().operator(operator).origin("Ho Chi Minh City").destination("Da Nang")
+                .distanceKm(964).estimatedMinutes(900).build();
+        entityManager.persist(route);
+
+        for (int i = 0; i < 25; i++) {
+            entityManager.persist(Trip.builder()
+                    .operator(operator)
+                    .route(route)
+                    .bus(bus)
+                    .departureTime(travelDate.atTime(0, 0).plusMinutes(30L * i))
+                    .arrivalTime(travelDate.atTime(15, 0).plusMinutes(30L * i))
+                    .price(BigDecimal.valueOf(400_000 + i * 1_000))
+                    .availableSeats(36)
+                    .status(Trip.TripStatus.SCHEDULED)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchRows_ShouldLoadPageInSingleStatementWithoutEntities() {
+        // Arrange
+        TripSearchRequest request = TripSearchRequest.builder()
+                .origin("ho chi minh")
+                .destination("da nang")
+                .date(travelDate)
+                .includeTotal(false)
+                .build();
+
+        // Act
+        Slice<TripSearchRow> page = tripRepository.searchRows(request, TripSearchSort.EARLIEST, PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(20, page.getNumberOfElements());
+        assertTrue(page.hasNext());
+        assertEquals("Futa Bus Lines", page.getContent().get(0).operatorName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void searchRows_WithTotal_ShouldAddExactlyOneCountStatement() {
+        // Arrange
+        TripSearchRequest request = TripSearchRequest.builder()
+                .origin("ho chi minh")
+                .destination("da nang")
+                .date(travelDate)
+                .build();
+
+        // Act
+        Slice<TripSearchRow> page = tripRepository.searchRows(request, TripSearchSort.LOWEST_PRICE, PageRequest.of(1, 20));
+        long total = tripRepository.countRows(request);
+
+        // Assert
+        assertEquals(5, page.getNumberOfElements());
+        assertFalse(page.hasNext());
+        assertEquals(25, total);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
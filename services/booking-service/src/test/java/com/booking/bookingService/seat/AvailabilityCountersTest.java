@@ -0,0 +1,155 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.model.SeatStatus;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.model.Trip;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AvailabilityCounters.class)
+class AvailabilityCountersTest {
+
+    private static final int SEATS = 6;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private AvailabilityCounters availabilityCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Trip trip;
+    private List<Seat> seats;
+
+    @BeforeEach
+    void setUp() {
+        Operator operator = Operator.builder().name("Futa Bus Lines").rating(4.4).build();
+        entityManager.persist(operator);
+        SeatLayout layout = SeatLayout.builder().name("Hyundai Universe").build();
+        entityManager.persist(layout);
+        Bus bus = Bus.builder().operator(operator).model("Hyundai Universe").plateNumber("51B-10001")
+                .type("Seater").seatCapacity(SEATS).layout(layout).build();
+        entityManager.persist(bus);
+
+        seats = new ArrayList<>();
+        for (int i = 1; i <= SEATS; i++) {
+            Seat seat = Seat.builder().layout(layout).seatCode("A" + i).gridRow(1).gridCol(i).deckNumber(1).build();
+            entityManager.persist(seat);
+            seats.add(seat);
+        }
+
+        Route route = Route.builder().operator(operator).origin("Ho Chi Minh").destination("Vung Tau")
+                .distanceKm(95).estimatedMinutes(150).build();
+        entityManager.persist(route);
+        trip = Trip.builder().operator(operator).route(route).bus(bus)
+                .departureTime(LocalDateTime.now().plusDays(2))
+                .arrivalTime(LocalDateTime.now().plusDays(2).plusHours(3))
+                .price(new BigDecimal("160000"))
+                .availableSeats(SEATS)
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+        entityManager.flush();
+    }
+
+    @Test
+    void flush_PendingChanges_AddsDeltaToTripRow() {
+        // Arrange
+        availabilityCounters.add(trip.getId(), -2);
+        assertEquals(SEATS, persistedSeats());
+
+        // Act
+        availabilityCounters.flush();
+
+        // Assert
+        assertEquals(SEATS - 2, persistedSeats());
+        assertEquals(SEATS - 2, availabilityCounters.get(trip.getId()));
+    }
+
+    @Test
+    void reconcile_DriftSeenTwice_RepairsTripRowAndCounter() {
+        // Arrange: a booking that bypassed the counters
+        availabilityCounters.get(trip.getId());
+        booked(seats.get(0));
+
+        // Act
+        availabilityCounters.reconcile();
+        int afterFirstRun = persistedSeats();
+        availabilityCounters.reconcile();
+
+        // Assert
+        assertEquals(SEATS, afterFirstRun);
+        assertEquals(SEATS - 1, persistedSeats());
+        assertEquals(SEATS - 1, availabilityCounters.get(trip.getId()));
+    }
+
+    @Test
+    void refresh_RowChangedByAnotherNode_ReloadsCounter() {
+        // Arrange
+        availabilityCounters.add(trip.getId(), -1);
+        jdbcTemplate.update("UPDATE trip SET available_seats = available_seats - 2 WHERE id = ?", trip.getId());
+        assertEquals(SEATS - 1, availabilityCounters.overlay(trip.getId(), SEATS));
+
+        // Act
+        availabilityCounters.refresh();
+
+        // Assert
+        assertEquals(SEATS - 3, availabilityCounters.overlay(trip.getId(), SEATS));
+        assertEquals(SEATS - 3, persistedSeats());
+    }
+
+    @Test
+    void refresh_CancelledTrip_DropsCounter() {
+        // Arrange
+        availabilityCounters.get(trip.getId());
+        jdbcTemplate.update("UPDATE trip SET status = 'CANCELLED' WHERE id = ?", trip.getId());
+
+        // Act
+        availabilityCounters.refresh();
+
+        // Assert: no tracked count left, the caller's value is used
+        assertEquals(-1, availabilityCounters.overlay(trip.getId(), -1));
+    }
+
+    private int persistedSeats() {
+        return jdbcTemplate.queryForObject("SELECT available_seats FROM trip WHERE id = ?", Integer.class, trip.getId());
+    }
+
+    private void booked(Seat seat) {
+        entityManager.persist(SeatStatus.builder().trip(trip).seat(seat).state(SeatState.BOOKED)
+                .bookingId(UUID.randomUUID()).bookedBy("an@example.com").build());
+        entityManager.flush();
+    }
+}
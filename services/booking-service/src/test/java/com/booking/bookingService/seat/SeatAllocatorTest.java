@@ -0,0 +1,108 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatAllocatorTest {
+
+    // 2 + aisle + 2 per row: columns 1, 2, 4, 5
+    private static final int[] COLUMNS = {1, 2, 4, 5};
+    private static final int ROWS = 10;
+
+    private TripSeatStates states;
+
+    @BeforeEach
+    void setUp() {
+        List<Seat> seats = new ArrayList<>();
+        for (int row = 1; row <= ROWS; row++) {
+            for (int col : COLUMNS) {
+                seats.add(Seat.builder().id(UUID.randomUUID()).seatCode(row + "-" + col)
+                        .gridRow(row).gridCol(col).deckNumber(1).build());
+            }
+        }
+        states = new TripSeatStates(UUID.randomUUID(), BusLayout.of(UUID.randomUUID(), 0, seats));
+    }
+
+    @Test
+    void layout_PrecomputesRowsAndAisles() {
+        // Assert
+        BusLayout layout = states.layout();
+        assertEquals(ROWS, layout.rowCount());
+        assertEquals(4, layout.rowStart(1));
+        assertEquals(8, layout.rowEnd(1));
+        assertTrue(layout.besideNext(0));
+        assertFalse(layout.besideNext(1));   // aisle between columns 2 and 4
+        assertFalse(layout.besideNext(3));   // end of row
+    }
+
+    @Test
+    void allocate_PairFits_PicksFrontPairWithoutAisle() {
+        // Act
+        int[] seats = SeatAllocator.allocate(states, 2);
+
+        // Assert
+        assertArrayEquals(new int[]{0, 1}, seats);
+    }
+
+    @Test
+    void allocate_PairOnlyAcrossAisleInFront_PrefersLaterPairSideBySide() {
+        // Arrange: row 1 keeps only seats 1 and 2 (columns 2 and 4) free
+        take(0);
+        take(3);
+        for (int i = 4; i < 8; i++) take(i);
+
+        // Act
+        int[] seats = SeatAllocator.allocate(states, 2);
+
+        // Assert
+        assertArrayEquals(new int[]{8, 9}, seats);
+    }
+
+    @Test
+    void allocate_GroupLargerThanRow_UsesTwoAdjacentRows() {
+        // Act
+        int[] seats = SeatAllocator.allocate(states, 5);
+
+        // Assert: all of row 1 and one seat of row 2
+        assertEquals(5, seats.length);
+        for (int ordinal : seats) {
+            assertTrue(states.layout().row(ordinal) <= 2);
+        }
+    }
+
+    @Test
+    void allocate_OneFreeSeatPerRow_SpansFewestRows() {
+        // Arrange: one free seat per row
+        for (int i = 0; i < ROWS * COLUMNS.length; i++) {
+            if (i % COLUMNS.length != 0) take(i);
+        }
+
+        // Act
+        int[] seats = SeatAllocator.allocate(states, 3);
+
+        // Assert: the three front rows, one seat each
+        assertArrayEquals(new int[]{0, 4, 8}, seats);
+    }
+
+    @Test
+    void allocate_NotEnoughSeats_ReturnsNull() {
+        // Arrange
+        for (int i = 2; i < ROWS * COLUMNS.length; i++) take(i);
+
+        // Act & Assert
+        assertNull(SeatAllocator.allocate(states, 3));
+        assertArrayEquals(new int[]{0, 1}, SeatAllocator.allocate(states, 2));
+    }
+
+    private void take(int ordinal) {
+        states.compareAndSet(ordinal, SeatState.AVAILABLE, SeatState.BOOKED);
+    }
+}
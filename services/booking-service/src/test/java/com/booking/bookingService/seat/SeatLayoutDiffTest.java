@@ -0,0 +1,108 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.dto.SeatDefinition;
+import com.booking.bookingService.exception.BadRequestException;
+import com.booking.bookingService.model.Seat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatLayoutDiffTest {
+
+    private List<Seat> current;
+
+    @BeforeEach
+    void setUp() {
+        // A1..A4 in one row
+        current = new ArrayList<>();
+        for (int col = 1; col <= 4; col++) {
+            current.add(Seat.builder().id(UUID.randomUUID()).seatCode("A" + col)
+                    .gridRow(1).gridCol(col).deckNumber(1).build());
+        }
+    }
+
+    @Test
+    void of_SameLayout_IsEmpty() {
+        // Act
+        SeatLayoutDiff diff = SeatLayoutDiff.of(current, List.of(
+                seat("A1", 1, 1), seat("A2", 1, 2), seat("A3", 1, 3), seat("A4", 1, 4)));
+
+        // Assert
+        assertTrue(diff.isEmpty());
+        assertEquals(current.get(2).getId(), diff.seats().get(2).getId());
+    }
+
+    @Test
+    void of_OneSeatMoved_OnlyUpdatesThatSeat() {
+        // Act
+        SeatLayoutDiff diff = SeatLayoutDiff.of(current, List.of(
+                seat("A1", 1, 1), seat("A2", 1, 2), seat("A3", 1, 3), seat("A4", 2, 1)));
+
+        // Assert
+        assertEquals(1, diff.updates().size());
+        assertEquals(current.get(3).getId(), diff.updates().get(0).getId());
+        assertTrue(diff.inserts().isEmpty());
+        assertTrue(diff.deletes().isEmpty());
+    }
+
+    @Test
+    void of_CodeChangedInPlace_RenamesInsteadOfReplacing() {
+        // Act
+        SeatLayoutDiff diff = SeatLayoutDiff.of(current, List.of(
+                seat("A1", 1, 1), seat("A2", 1, 2), seat("A3", 1, 3), seat("VIP-1", 1, 4)));
+
+        // Assert
+        assertEquals(1, diff.updates().size());
+        assertEquals(current.get(3).getId(), diff.updates().get(0).getId());
+        assertEquals("VIP-1", diff.updates().get(0).getSeatCode());
+        assertTrue(diff.inserts().isEmpty());
+        assertTrue(diff.deletes().isEmpty());
+    }
+
+    @Test
+    void of_SeatsAddedAndRemoved_InsertsAndDeletes() {
+        // Act
+        SeatLayoutDiff diff = SeatLayoutDiff.of(current, List.of(
+                seat("A1", 1, 1), seat("A2", 1, 2), seat("B1", 2, 1), seat("B2", 2, 2)));
+
+        // Assert
+        assertEquals(List.of("B1", "B2"), diff.inserts().stream().map(Seat::getSeatCode).toList());
+        assertEquals(List.of("A3", "A4"), diff.deletes().stream().map(Seat::getSeatCode).toList());
+        assertTrue(diff.updates().isEmpty());
+        assertNotNull(diff.inserts().get(0).getId());
+    }
+
+    @Test
+    void of_TwoSeatsOnOnePosition_Rejected() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> SeatLayoutDiff.of(current, List.of(
+                seat("A1", 1, 1), seat("B1", 2, 1), seat("B2", 2, 1))));
+        // Same row and column on another deck is fine
+        assertDoesNotThrow(() -> SeatLayoutDiff.of(current, List.of(seat("A1", 1, 1), seat("U1", 1, 1, 2))));
+    }
+
+    @Test
+    void of_DuplicateCode_Rejected() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> SeatLayoutDiff.of(current, List.of(
+                seat("A1", 1, 1), seat("A1", 1, 2))));
+    }
+
+    private static SeatDefinition seat(String code, int row, int col) {
+        return seat(code, row, col, 1);
+    }
+
+    private static SeatDefinition seat(String code, int row, int col, int deck) {
+        SeatDefinition definition = new SeatDefinition();
+        definition.setSeatCode(code);
+        definition.setRow(row);
+        definition.setCol(col);
+        definition.setDeck(deck);
+        return definition;
+    }
+}
@@ -0,0 +1,130 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.exception.SeatUnavailableException;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.model.SeatStatus;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.model.Trip;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seat changes made by another node (written straight to seat_status here) must reach the
+ * in-memory states of this node, or its seats stay unavailable forever.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SeatStateStore.class, BusLayoutCache.class})
+class SeatStateStoreTest {
+
+    private static final int SEATS = 4;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private SeatStateStore seatStateStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Trip trip;
+    private List<Seat> seats;
+
+    @BeforeEach
+    void setUp() {
+        Operator operator = Operator.builder().name("Thanh Buoi").rating(4.5).build();
+        entityManager.persist(operator);
+        SeatLayout layout = SeatLayout.builder().name("Limousine 9").build();
+        entityManager.persist(layout);
+        Bus bus = Bus.builder().operator(operator).model("Ford Transit").plateNumber("51B-30003")
+                .type("Limousine").seatCapacity(SEATS).layout(layout).build();
+        entityManager.persist(bus);
+
+        seats = new ArrayList<>();
+        for (int i = 1; i <= SEATS; i++) {
+            Seat seat = Seat.builder().layout(layout).seatCode("L" + i).gridRow(1).gridCol(i).deckNumber(1).build();
+            entityManager.persist(seat);
+            seats.add(seat);
+        }
+
+        Route route = Route.builder().operator(operator).origin("Ho Chi Minh").destination("Da Lat")
+                .distanceKm(300).estimatedMinutes(420).build();
+        entityManager.persist(route);
+        trip = Trip.builder().operator(operator).route(route).bus(bus)
+                .departureTime(LocalDateTime.now().plusDays(4))
+                .arrivalTime(LocalDateTime.now().plusDays(4).plusHours(7))
+                .price(new BigDecimal("350000"))
+                .availableSeats(SEATS)
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+        entityManager.flush();
+    }
+
+    @Test
+    void revalidate_HoldPlacedElsewhere_ShowsSeatLocked() {
+        // Arrange
+        String eTag = seatStateStore.eTag(trip.getId());
+        UUID holdId = UUID.randomUUID();
+        entityManager.persist(SeatStatus.builder().trip(trip).seat(seats.get(0)).state(SeatState.LOCKED)
+                .holdId(holdId).lockedBy("an@example.com").lockedUntil(LocalDateTime.now().plusMinutes(10)).build());
+        entityManager.flush();
+
+        // Act
+        seatStateStore.revalidate();
+
+        // Assert
+        assertEquals(1, seatStateStore.count(trip.getId(), SeatState.LOCKED));
+        assertNotEquals(eTag, seatStateStore.eTag(trip.getId()));
+    }
+
+    @Test
+    void revalidate_HoldReleasedElsewhere_SeatCanBeHeldAgain() {
+        // Arrange: this node saw the hold, another node released it
+        UUID holdId = UUID.randomUUID();
+        entityManager.persist(SeatStatus.builder().trip(trip).seat(seats.get(1)).state(SeatState.LOCKED)
+                .holdId(holdId).lockedBy("an@example.com").lockedUntil(LocalDateTime.now().plusMinutes(10)).build());
+        entityManager.flush();
+        assertEquals(1, seatStateStore.count(trip.getId(), SeatState.LOCKED));
+        jdbcTemplate.update("DELETE FROM seat_status WHERE hold_id = ?", holdId);
+        List<UUID> seatIds = List.of(seats.get(1).getId());
+        assertThrows(SeatUnavailableException.class, () -> seatStateStore.transitionAll(
+                trip.getId(), seatIds, SeatState.AVAILABLE, SeatState.LOCKED, ids -> ids.size()));
+
+        // Act
+        seatStateStore.revalidate();
+
+        // Assert
+        assertEquals(0, seatStateStore.count(trip.getId(), SeatState.LOCKED));
+        assertDoesNotThrow(() -> seatStateStore.transitionAll(
+                trip.getId(), seatIds, SeatState.AVAILABLE, SeatState.LOCKED, ids -> ids.size()));
+    }
+}
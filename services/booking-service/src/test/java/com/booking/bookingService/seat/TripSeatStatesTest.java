@@ -0,0 +1,81 @@
+package com.booking.bookingService.seat;
+
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripSeatStatesTest {
+
+    // More than one 64-bit word (32 seats per word)
+    private static final int SEATS = 41;
+
+    private TripSeatStates states;
+
+    @BeforeEach
+    void setUp() {
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            seats.add(Seat.builder().id(UUID.randomUUID()).seatCode("S" + i)
+                    .gridRow(i / 4 + 1).gridCol(i % 4 + 1).deckNumber(1).build());
+        }
+        states = new TripSeatStates(UUID.randomUUID(), BusLayout.of(UUID.randomUUID(), 0, seats));
+    }
+
+    @Test
+    void newTrip_AllSeatsAvailable() {
+        // Assert
+        assertEquals(SEATS, states.count(SeatState.AVAILABLE));
+        assertEquals(0, states.count(SeatState.LOCKED));
+        assertEquals(0, states.count(SeatState.BOOKED));
+        assertEquals("available", states.stateName(SEATS - 1));
+    }
+
+    @Test
+    void compareAndSet_ExpectedStateMatches_UpdatesOnlyThatSeat() {
+        // Act
+        boolean locked = states.compareAndSet(33, SeatState.AVAILABLE, SeatState.LOCKED);
+        boolean booked = states.compareAndSet(33, SeatState.LOCKED, SeatState.BOOKED);
+
+        // Assert
+        assertTrue(locked);
+        assertTrue(booked);
+        assertEquals(SeatState.BOOKED, states.get(33));
+        assertEquals(SeatState.AVAILABLE, states.get(32));
+        assertEquals(SeatState.AVAILABLE, states.get(34));
+        assertEquals(1, states.count(SeatState.BOOKED));
+        assertEquals(SEATS - 1, states.count(SeatState.AVAILABLE));
+    }
+
+    @Test
+    void compareAndSet_ExpectedStateDiffers_ReturnsFalse() {
+        // Arrange
+        states.compareAndSet(0, SeatState.AVAILABLE, SeatState.LOCKED);
+
+        // Act
+        boolean result = states.compareAndSet(0, SeatState.AVAILABLE, SeatState.LOCKED);
+
+        // Assert
+        assertFalse(result);
+        assertEquals(1, states.count(SeatState.LOCKED));
+    }
+
+    @Test
+    void layout_OrdersSeatsByDeckRowCol() {
+        // Assert
+        BusLayout layout = states.layout();
+        assertEquals(SEATS, layout.size());
+        assertEquals(1, layout.row(0));
+        assertEquals(1, layout.col(0));
+        assertEquals(11, layout.gridRows());
+        assertEquals(4, layout.gridColumns());
+        assertEquals(0, layout.ordinalOf(layout.seatId(0)));
+        assertEquals(-1, layout.ordinalOf(UUID.randomUUID()));
+    }
+}
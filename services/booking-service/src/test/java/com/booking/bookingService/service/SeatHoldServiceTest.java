@@ -0,0 +1,230 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.SeatHoldRequest;
+import com.booking.bookingService.dto.SeatHoldResponse;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.model.SeatStatus;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.scheduler.HoldExpiryScheduler;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.BusLayoutCache;
+import com.booking.bookingService.seat.HoldExpiryWheel;
+import com.booking.bookingService.seat.SeatStateStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hold expiry end to end against PostgreSQL: holds placed through SeatHoldService expire through
+ * the timer wheel, holds the wheel never saw are caught by the database sweep, and releases are
+ * counted the same way whether seat_status is sparse or dense.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SeatHoldService.class, SeatStateStore.class, BusLayoutCache.class, AvailabilityCounters.class,
+        HoldExpiryWheel.class, HoldExpiryScheduler.class})
+@TestPropertySource(properties = {"booking.holds.ttl-seconds=1", "booking.holds.tick-ms=100"})
+class SeatHoldServiceTest {
+
+    private static final int SEATS = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private HoldExpiryScheduler holdExpiryScheduler;
+
+    @Autowired
+    private SeatStateStore seatStateStore;
+
+    @Autowired
+    private AvailabilityCounters availabilityCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Trip trip;
+    private List<Seat> seats;
+
+    @BeforeEach
+    void setUp() {
+        Operator operator = Operator.builder().name("Hoang Long").rating(4.3).build();
+        entityManager.persist(operator);
+        SeatLayout layout = SeatLayout.builder().name("Thaco Mobihome").build();
+        entityManager.persist(layout);
+        Bus bus = Bus.builder().operator(operator).model("Thaco Mobihome").plateNumber("29B-20002")
+                .type("Sleeper").seatCapacity(SEATS).layout(layout).build();
+        entityManager.persist(bus);
+
+        seats = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            Seat seat = Seat.builder().layout(layout).seatCode("A" + (i + 1))
+                    .gridRow(i / 4 + 1).gridCol(i % 4 + 1).deckNumber(1).build();
+            entityManager.persist(seat);
+            seats.add(seat);
+        }
+
+        Route route = Route.builder().operator(operator).origin("Ha Noi").destination("Hai Phong")
+                .distanceKm(120).estimatedMinutes(150).build();
+        entityManager.persist(route);
+        trip = Trip.builder().operator(operator).route(route).bus(bus)
+                .departureTime(LocalDateTime.now().plusDays(1))
+                .arrivalTime(LocalDateTime.now().plusDays(1).plusHours(3))
+                .price(new BigDecimal("220000"))
+                .availableSeats(SEATS)
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+        entityManager.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        denseSeatStatus(false);
+    }
+
+    @Test
+    void expireDueHolds_TtlPassed_ReleasesHoldThroughWheel() throws InterruptedException {
+        // Arrange
+        hold(seats.get(0), seats.get(1));
+
+        // Act: one tick before and one after the TTL
+        holdExpiryScheduler.expireDueHolds();
+        int lockedBeforeTtl = lockedRows();
+        Thread.sleep(1200);
+        holdExpiryScheduler.expireDueHolds();
+
+        // Assert
+        assertEquals(2, lockedBeforeTtl);
+        assertEquals(0, lockedRows());
+        assertEquals(0, seatStateStore.count(trip.getId(), SeatState.LOCKED));
+        assertEquals(SEATS, availabilityCounters.get(trip.getId()));
+    }
+
+    @Test
+    void sweepExpiredHolds_HoldUnknownToWheel_ReleasesFromDatabase() {
+        // Arrange: an expired hold written by another node, never scheduled here
+        UUID holdId = UUID.randomUUID();
+        for (Seat seat : List.of(seats.get(2), seats.get(3), seats.get(4))) {
+            entityManager.persist(SeatStatus.builder().trip(trip).seat(seat).state(SeatState.LOCKED)
+                    .holdId(holdId).lockedBy("binh@example.com")
+                    .lockedUntil(LocalDateTime.now().minusMinutes(1)).build());
+        }
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE trip SET available_seats = ? WHERE id = ?", SEATS - 3, trip.getId());
+
+        // Act
+        holdExpiryScheduler.expireDueHolds();
+        int lockedAfterTick = lockedRows();
+        holdExpiryScheduler.sweepExpiredHolds();
+
+        // Assert
+        assertEquals(3, lockedAfterTick);
+        assertEquals(0, lockedRows());
+        assertEquals(SEATS, availabilityCounters.get(trip.getId()));
+    }
+
+    @Test
+    void releaseExpired_SparseStorage_DeletesRowsAndCountsSeats() throws InterruptedException {
+        // Arrange
+        SeatHoldResponse first = hold(seats.get(0), seats.get(1));
+        SeatHoldResponse second = hold(seats.get(5));
+        Thread.sleep(1200);
+
+        // Act
+        int released = seatHoldService.releaseExpired(List.of(first.getHoldId(), second.getHoldId()));
+
+        // Assert
+        assertEquals(3, released);
+        assertEquals(0, statusRows());
+        assertEquals(SEATS, availabilityCounters.get(trip.getId()));
+    }
+
+    @Test
+    void releaseExpired_DenseStorage_KeepsAvailableRowsAndCountsSeats() throws InterruptedException {
+        // Arrange
+        denseSeatStatus(true);
+        SeatHoldResponse first = hold(seats.get(0), seats.get(1));
+        SeatHoldResponse second = hold(seats.get(5));
+        Thread.sleep(1200);
+
+        // Act
+        int released = seatHoldService.releaseExpired(List.of(first.getHoldId(), second.getHoldId()));
+
+        // Assert
+        assertEquals(3, released);
+        assertEquals(3, statusRows());
+        assertEquals(0, lockedRows());
+        assertEquals(SEATS, availabilityCounters.get(trip.getId()));
+    }
+
+    @Test
+    void releaseExpired_HoldNotYetDue_ReleasesNothing() {
+        // Arrange
+        SeatHoldResponse hold = hold(seats.get(0));
+
+        // Act
+        int released = seatHoldService.releaseExpired(List.of(hold.getHoldId()));
+
+        // Assert
+        assertEquals(0, released);
+        assertEquals(1, lockedRows());
+        assertEquals(SEATS - 1, availabilityCounters.get(trip.getId()));
+    }
+
+    private SeatHoldResponse hold(Seat... held) {
+        SeatHoldRequest request = new SeatHoldRequest();
+        request.setSeatIds(Arrays.stream(held).map(Seat::getId).toList());
+        return seatHoldService.hold(trip.getId(), request, "an@example.com");
+    }
+
+    // The service is a transactional proxy; the flag lives on the target
+    private void denseSeatStatus(boolean dense) {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(seatHoldService), "denseSeatStatus", dense);
+    }
+
+    private int lockedRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seat_status WHERE trip_id = ? AND state = 'LOCKED'", Integer.class, trip.getId());
+    }
+
+    private int statusRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seat_status WHERE trip_id = ?", Integer.class, trip.getId());
+    }
+}
@@ -0,0 +1,166 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.SeatRemapResult;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.model.SeatStatus;
+import com.booking.bookingService.model.SeatStatus.SeatState;
+import com.booking.bookingService.model.Trip;
+import com.booking.bookingService.seat.AvailabilityCounters;
+import com.booking.bookingService.seat.BusLayoutCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SeatRemapService.class, BusLayoutCache.class, AvailabilityCounters.class})
+class SeatRemapServiceTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private SeatRemapService seatRemapService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Operator operator;
+    private Bus oldBus;
+    private Bus newBus;
+    private List<Seat> oldSeats;
+    private Trip trip;
+
+    @BeforeEach
+    void setUp() {
+        operator = Operator.builder().name("Phuong Trang").rating(4.6).build();
+        entityManager.persist(operator);
+
+        // Old bus: A1..A8 in two rows of four
+        oldBus = bus("51B-00001", 8);
+        oldSeats = List.of(
+                seat(oldBus, "A1", 1, 1), seat(oldBus, "A2", 1, 2), seat(oldBus, "A3", 1, 3), seat(oldBus, "A4", 1, 4),
+                seat(oldBus, "A5", 2, 1), seat(oldBus, "A6", 2, 2), seat(oldBus, "A7", 2, 3), seat(oldBus, "A8", 2, 4));
+
+        // New bus: same first row, a shorter second row with other codes
+        newBus = bus("51B-00002", 6);
+        seat(newBus, "A1", 1, 1);
+        seat(newBus, "A2", 1, 2);
+        seat(newBus, "A3", 1, 3);
+        seat(newBus, "A4", 1, 4);
+        seat(newBus, "B1", 2, 1);
+        seat(newBus, "B2", 2, 2);
+
+        Route route = Route.builder().operator(operator).origin("Ho Chi Minh").destination("Can Tho")
+                .distanceKm(170).estimatedMinutes(240).build();
+        entityManager.persist(route);
+        trip = Trip.builder().operator(operator).route(route).bus(oldBus)
+                .departureTime(LocalDateTime.now().plusDays(3))
+                .arrivalTime(LocalDateTime.now().plusDays(3).plusHours(4))
+                .price(new BigDecimal("180000"))
+                .availableSeats(5)
+                .status(Trip.TripStatus.SCHEDULED)
+                .build();
+        entityManager.persist(trip);
+
+        // A2 booked (same code on the new bus), A5 held (only the grid position exists), A8 booked (gone)
+        status(oldSeats.get(1), SeatState.BOOKED, "an@example.com");
+        status(oldSeats.get(4), SeatState.LOCKED, "binh@example.com");
+        status(oldSeats.get(7), SeatState.BOOKED, "chi@example.com");
+        entityManager.flush();
+    }
+
+    @Test
+    void remap_SmallerBus_MovesSeatsByCodeThenPositionAndReportsTheRest() {
+        // Act
+        SeatRemapResult result = seatRemapService.remap(trip.getId(), oldBus.getId(), newBus.getId());
+
+        // Assert
+        assertEquals(1, result.getRemappedByCode());
+        assertEquals(1, result.getRemappedByPosition());
+        assertEquals(4, result.getAvailableSeats());
+        assertEquals(1, result.getUnmapped().size());
+        SeatRemapResult.Unmapped lost = result.getUnmapped().get(0);
+        assertEquals("A8", lost.seatCode());
+        assertEquals(SeatState.BOOKED, lost.state());
+        assertEquals("chi@example.com", lost.passenger());
+
+        List<?> codes = entityManager.createNativeQuery(
+                        "SELECT s.seat_code FROM seat_status ss JOIN seat s ON s.id = ss.seat_id " +
+                        "JOIN bus b ON b.layout_id = s.layout_id " +
+                        "WHERE ss.trip_id = :tripId AND b.id = :busId ORDER BY s.seat_code")
+                .setParameter("tripId", trip.getId())
+                .setParameter("busId", newBus.getId())
+                .getResultList();
+        assertEquals(List.of("A2", "B1"), codes);
+    }
+
+    @Test
+    void remap_BusOnSameLayout_KeepsEveryRow() {
+        // Arrange
+        Bus twin = Bus.builder().operator(operator).model("Thaco Mobihome").plateNumber("51B-00003")
+                .type("Sleeper").seatCapacity(8).layout(oldBus.getLayout()).build();
+        entityManager.persist(twin);
+        entityManager.flush();
+
+        // Act
+        SeatRemapResult result = seatRemapService.remap(trip.getId(), oldBus.getId(), twin.getId());
+
+        // Assert
+        assertEquals(3, result.getRemappedByCode());
+        assertEquals(5, result.getAvailableSeats());
+        assertTrue(result.getUnmapped().isEmpty());
+        List<?> seatIds = entityManager.createNativeQuery(
+                        "SELECT seat_id FROM seat_status WHERE trip_id = :tripId ORDER BY seat_id")
+                .setParameter("tripId", trip.getId())
+                .getResultList();
+        assertEquals(3, seatIds.size());
+        assertTrue(seatIds.contains(oldSeats.get(7).getId()));
+    }
+
+    private Bus bus(String plate, int seats) {
+        SeatLayout layout = SeatLayout.builder().name("Thaco Mobihome " + plate).build();
+        entityManager.persist(layout);
+        Bus bus = Bus.builder().operator(operator).model("Thaco Mobihome").plateNumber(plate)
+                .type("Sleeper").seatCapacity(seats).layout(layout).build();
+        entityManager.persist(bus);
+        return bus;
+    }
+
+    private Seat seat(Bus bus, String code, int row, int col) {
+        Seat seat = Seat.builder().layout(bus.getLayout()).seatCode(code).gridRow(row).gridCol(col).deckNumber(1).build();
+        entityManager.persist(seat);
+        return seat;
+    }
+
+    private void status(Seat seat, SeatState state, String passenger) {
+        SeatStatus.SeatStatusBuilder builder = SeatStatus.builder().trip(trip).seat(seat).state(state);
+        if (state == SeatState.BOOKED) {
+            builder.bookingId(UUID.randomUUID()).bookedBy(passenger);
+        } else {
+            builder.holdId(UUID.randomUUID()).lockedBy(passenger).lockedUntil(LocalDateTime.now().plusMinutes(10));
+        }
+        entityManager.persist(builder.build());
+    }
+}
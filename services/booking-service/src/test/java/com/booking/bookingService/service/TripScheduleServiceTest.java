@@ -0,0 +1,150 @@
+package com.booking.bookingService.service;
+
+import com.booking.bookingService.dto.TripScheduleRequest;
+import com.booking.bookingService.dto.TripScheduleResult;
+import com.booking.bookingService.model.Bus;
+import com.booking.bookingService.model.Operator;
+import com.booking.bookingService.model.Route;
+import com.booking.bookingService.model.Seat;
+import com.booking.bookingService.model.SeatLayout;
+import com.booking.bookingService.model.Trip;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TripScheduleService.class)
+class TripScheduleServiceTest {
+
+    private static final int SEATS = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private TripScheduleService tripScheduleService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Bus bus;
+    private Route route;
+    private LocalDate firstMonday;
+
+    @BeforeEach
+    void setUp() {
+        Operator operator = Operator.builder().name("Futa Bus Lines").rating(4.5).build();
+        entityManager.persist(operator);
+
+        SeatLayout layout = SeatLayout.builder().name("Hyundai Universe").build();
+        entityManager.persist(layout);
+        bus = Bus.builder().operator(operator).model("Hyundai Universe").plateNumber("51B-12345")
+                .type("Sleeper").seatCapacity(SEATS).layout(layout).build();
+        entityManager.persist(bus);
+        for (int i = 0; i < SEATS; i++) {
+            entityManager.persist(Seat.builder().layout(layout).seatCode("A" + (i + 1))
+                    .gridRow(i / 4 + 1).gridCol(i % 4 + 1).deckNumber(1).build());
+        }
+
+        route = Route.builder().operator(operator).origin("Ho Chi Minh").destination("Da Lat")
+                .distanceKm(300).estimatedMinutes(420).build();
+        entityManager.persist(route);
+        // The service writes trips over plain JDBC, which must see these rows
+        entityManager.flush();
+
+        firstMonday = LocalDate.now().plusDays(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void createSchedule_FourWeeksOnTwoWeekdays_CreatesTrips() {
+        // Act
+        TripScheduleResult result = tripScheduleService.createSchedule(request(
+                EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), firstMonday, firstMonday.plusDays(27)), null);
+
+        // Assert
+        assertEquals(8, result.getRequested());
+        assertEquals(8, result.getCreated());
+        assertTrue(result.getFailures().isEmpty());
+        assertEquals(8L, count("SELECT count(*) FROM trip WHERE bus_id = :busId"));
+        // Sparse seat status storage: new trips have no rows until a seat is held or booked
+        assertEquals(0L, count(
+                "SELECT count(*) FROM seat_status s JOIN trip t ON t.id = s.trip_id WHERE t.bus_id = :busId"));
+    }
+
+    @Test
+    void createSchedule_ExistingTripClashes_ReportsOccurrenceAndCreatesTheRest() {
+        // Arrange: the bus already runs on the second Monday around the scheduled departure
+        LocalDate clash = firstMonday.plusWeeks(1);
+        entityManager.persist(Trip.builder().operator(bus.getOperator()).route(route).bus(bus)
+                .departureTime(clash.atTime(6, 0))
+                .arrivalTime(clash.atTime(9, 0))
+                .price(new BigDecimal("300000"))
+                .availableSeats(SEATS)
+                .status(Trip.TripStatus.SCHEDULED)
+                .build());
+        entityManager.flush();
+
+        // Act
+        TripScheduleResult result = tripScheduleService.createSchedule(request(
+                EnumSet.of(DayOfWeek.MONDAY), firstMonday, firstMonday.plusWeeks(3)), bus.getOperator().getId());
+
+        // Assert
+        assertEquals(4, result.getRequested());
+        assertEquals(3, result.getCreated());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(clash.atTime(8, 0), result.getFailures().get(0).departureTime());
+        assertEquals(4L, count("SELECT count(*) FROM trip WHERE bus_id = :busId"));
+    }
+
+    @Test
+    void createSchedule_OtherOperatorsBus_Refused() {
+        // Arrange
+        Operator other = Operator.builder().name("Kumho Samco").rating(4.1).build();
+        entityManager.persist(other);
+        entityManager.flush();
+        TripScheduleRequest request = request(EnumSet.of(DayOfWeek.MONDAY), firstMonday, firstMonday.plusWeeks(1));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> tripScheduleService.createSchedule(request, other.getId()));
+        assertEquals(0L, count("SELECT count(*) FROM trip WHERE bus_id = :busId"));
+    }
+
+    private TripScheduleRequest request(EnumSet<DayOfWeek> days, LocalDate from, LocalDate to) {
+        return TripScheduleRequest.builder()
+                .routeId(route.getId())
+                .busId(bus.getId())
+                .daysOfWeek(days)
+                .departureTime(LocalTime.of(8, 0))
+                .startDate(from)
+                .endDate(to)
+                .basePrice(new BigDecimal("350000"))
+                .build();
+    }
+
+    private long count(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql)
+                .setParameter("busId", bus.getId())
+                .getSingleResult()).longValue();
+    }
+}
@@ -24,6 +24,8 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-security") // For Password Hashing (BCrypt)
     implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client")
     runtimeOnly("org.postgresql:postgresql") // PostgreSQL Driver
+    implementation("org.flywaydb:flyway-core") // Versioned schema migrations (src/main/resources/db/migration)
+    implementation("org.flywaydb:flyway-database-postgresql")
     compileOnly("org.projectlombok:lombok") // (Optional) Lombok for less boilerplate code (getters/setters)
     annotationProcessor("org.projectlombok:lombok")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.3.0")
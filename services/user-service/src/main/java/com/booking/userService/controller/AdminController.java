@@ -1,10 +1,15 @@
 package com.booking.userService.controller;
 
+import com.booking.userService.dto.RoleUpdateRequest;
 import com.booking.userService.dto.UserResponse;
 import com.booking.userService.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -26,4 +31,12 @@ public class AdminController {
         List<UserResponse> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
+
+    @PutMapping("/users/{id}/role")
+    public ResponseEntity<UserResponse> updateRole(@PathVariable Long id,
+                                                   @Valid @RequestBody RoleUpdateRequest request) {
+        return userService.updateRole(id, request.getRole())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
\ No newline at end of file
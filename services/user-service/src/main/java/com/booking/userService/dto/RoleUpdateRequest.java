@@ -0,0 +1,11 @@
+package com.booking.userService.dto;
+
+import com.booking.userService.model.Role;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class RoleUpdateRequest {
+    @NotNull(message = "Role is required")
+    private Role role;
+}
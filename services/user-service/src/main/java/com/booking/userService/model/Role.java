@@ -2,5 +2,7 @@ package com.booking.userService.model;
 
 public enum Role {
     USER,
+    // Bus operator staff: manage the trips of the operator whose contact email matches theirs
+    OPERATOR,
     ADMIN
 }
\ No newline at end of file
@@ -85,6 +85,19 @@ public class UserService {
         }
     }
 
+    /**
+     * Changes a user's role, e.g. to OPERATOR for bus operator staff.
+     * The new role is in the tokens issued from the next login or refresh on.
+     * @return The updated user, or empty if there is no user with that id.
+     */
+    public Optional<UserResponse> updateRole(Long id, Role role) {
+        return userRepository.findById(id).map(user -> {
+            user.setRole(role);
+            User saved = userRepository.save(user);
+            return new UserResponse(saved.getId(), saved.getEmail(), saved.getRole(), saved.getCreatedAt());
+        });
+    }
+
     /**
      * Fetches all users and converts them to a safe DTO.
      * @return A list of UserResponse objects.
@@ -0,0 +1,11 @@
+-- Baseline schema, matching what Hibernate generated from the entities before migrations were introduced.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE users (
+    id            bigserial PRIMARY KEY,
+    email         varchar(255) NOT NULL UNIQUE,
+    password      varchar(255) NOT NULL,
+    created_at    timestamp(6) NOT NULL,
+    role          varchar(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    refresh_token varchar(512)
+);
@@ -0,0 +1,2 @@
+-- UserRepository.findByRefreshToken runs on every token refresh
+CREATE INDEX IF NOT EXISTS idx_users_refresh_token ON users (refresh_token);
@@ -0,0 +1,3 @@
+-- Operator staff accounts (granted by an admin, see PUT /admin/users/{id}/role)
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_role_check;
+ALTER TABLE users ADD CONSTRAINT users_role_check CHECK (role IN ('USER', 'OPERATOR', 'ADMIN'));
@@ -0,0 +1,45 @@
+package com.booking.userService.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositoryIndexTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByRefreshToken_UsesRefreshTokenIndex() {
+        // Arrange: without statistics the planner might prefer a seq scan on an empty table
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+
+        // Act
+        List<Object> lines = entityManager
+                .createNativeQuery("EXPLAIN SELECT * FROM users WHERE refresh_token = 'some-token'")
+                .getResultList();
+        String plan = lines.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+
+        // Assert
+        assertTrue(plan.contains("idx_users_refresh_token"), plan);
+    }
+}
@@ -197,4 +197,35 @@ class UserServiceTest {
         assertEquals(Role.ADMIN, responses.get(1).getRole());
         // Ensure sensitive data is NOT present (UserResponse doesn't have password field, so this is implicitly tested by compilation, but logic check is good)
     }
-}
\ No newline at end of file
+
+    // --- 5. Role Update Tests ---
+
+    @Test
+    void updateRole_Success() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Optional<UserResponse> response = userService.updateRole(1L, Role.OPERATOR);
+
+        // Assert
+        assertTrue(response.isPresent());
+        assertEquals(Role.OPERATOR, response.get().getRole());
+        assertEquals(Role.OPERATOR, testUser.getRole());
+        verify(userRepository).save(testUser);
+    }
+
+    @Test
+    void updateRole_UserNotFound_ReturnsEmpty() {
+        // Arrange
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<UserResponse> response = userService.updateRole(99L, Role.OPERATOR);
+
+        // Assert
+        assertTrue(response.isEmpty());
+        verify(userRepository, never()).save(any(User.class));
+    }
+}